@@ -0,0 +1,102 @@
+package org.camunda.migration.rewrite.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+
+/**
+ * Java sources of a Camunda 7 example project, loaded once and optionally replicated to simulate a
+ * larger code base. Each copy gets its own source path, so recipes treat them as distinct files, and
+ * is parsed on its own, as the copies declare the same classes.
+ */
+final class Corpus {
+
+  /** Corpora in this repository, relative to the repository root. */
+  static final String CODE_EXAMPLES = "patterns/code-examples/camunda-7";
+
+  static final String PROCESS_SOLUTION = "examples/process-solution-camunda-7";
+
+  // the inputs of each copy
+  private final List<List<Parser.Input>> copies;
+
+  private Corpus(List<List<Parser.Input>> copies) {
+    this.copies = copies;
+  }
+
+  /**
+   * Loads all Java files below {@code src} of the given project.
+   *
+   * @param repositoryRoot root of this repository, see {@link #repositoryRoot()}
+   * @param project project directory relative to the repository root
+   * @param copies how many times each file is included
+   */
+  static Corpus load(Path repositoryRoot, String project, int copies) {
+    Path projectRoot = repositoryRoot.resolve(project);
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(projectRoot.resolve("src"))) {
+      files = walk.filter(path -> path.toString().endsWith(".java")).sorted().toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read corpus " + projectRoot, e);
+    }
+    if (files.isEmpty()) {
+      throw new IllegalStateException("No Java files found in corpus " + projectRoot);
+    }
+
+    List<List<Parser.Input>> inputs = new ArrayList<>(copies);
+    for (int copy = 0; copy < copies; copy++) {
+      List<Parser.Input> copyInputs = new ArrayList<>(files.size());
+      for (Path file : files) {
+        String source = read(file);
+        Path sourcePath = Path.of("copy-" + copy).resolve(projectRoot.relativize(file));
+        copyInputs.add(Parser.Input.fromString(sourcePath, source));
+      }
+      inputs.add(copyInputs);
+    }
+    return new Corpus(inputs);
+  }
+
+  /**
+   * The repository root is taken from the {@code corpus.root} system property and defaults to the
+   * parent directory, which is correct when running from the benchmark module.
+   */
+  static Path repositoryRoot() {
+    return Path.of(System.getProperty("corpus.root", "..")).toAbsolutePath().normalize();
+  }
+
+  int size() {
+    return copies.stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * Parses the copies one after another with the same parser, attributing against the Camunda API
+   * stubs the recipes use.
+   */
+  List<SourceFile> parse() {
+    ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+    JavaParser parser = CamundaApiStubs.javaParser().build();
+    List<SourceFile> sourceFiles = new ArrayList<>(size());
+    for (List<Parser.Input> copy : copies) {
+      parser.reset();
+      parser.parseInputs(copy, null, ctx).forEach(sourceFiles::add);
+    }
+    return sourceFiles;
+  }
+
+  private static String read(Path file) {
+    try {
+      return Files.readString(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read " + file, e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package org.camunda.migration.rewrite.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Reports processed files as a secondary throughput metric, i.e. files per second. */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class FileCounter {
+
+  public long files;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    files = 0;
+  }
+}
@@ -0,0 +1,36 @@
+package org.camunda.migration.rewrite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.SourceFile;
+
+/** Measures the parse phase on its own, as it does not depend on the recipe. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ParseBenchmark {
+
+  @Param({Corpus.CODE_EXAMPLES, Corpus.PROCESS_SOLUTION})
+  public String corpus;
+
+  @Param({"1", "10"})
+  public int copies;
+
+  private Corpus sources;
+
+  @Setup(Level.Trial)
+  public void loadCorpus() {
+    sources = Corpus.load(Corpus.repositoryRoot(), corpus, copies);
+  }
+
+  @Benchmark
+  public List<SourceFile> parse(FileCounter counter) {
+    List<SourceFile> parsed = sources.parse();
+    counter.files += parsed.size();
+    return parsed;
+  }
+}
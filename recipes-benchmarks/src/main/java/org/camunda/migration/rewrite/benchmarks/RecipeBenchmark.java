@@ -0,0 +1,107 @@
+package org.camunda.migration.rewrite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.camunda.migration.rewrite.recipes.utils.DeferredFormatting;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.*;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+/**
+ * Measures the recipe and print phases of composed and individual recipes on the Camunda 7
+ * corpora of this repository, plus the end-to-end time including parsing.
+ *
+ * <p>Sources are parsed once per trial for the recipe phase, and recipes are run once per trial
+ * for the print phase, so every benchmark method measures a single phase.
+ *
+ * <p>By default only the three composed recipes run on both corpora, without copies and with
+ * formatting after every replacement, which keeps a run under half an hour. Individual recipes,
+ * copies and deferred formatting are selected with {@code -p}, see the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RecipeBenchmark {
+
+  private static final String RECIPES = "org.camunda.migration.rewrite.recipes.";
+
+  @Param({
+    RECIPES + "AllClientRecipes",
+    RECIPES + "AllDelegateRecipes",
+    RECIPES + "AllExternalWorkerRecipes"
+  })
+  public String recipe;
+
+  @Param({Corpus.CODE_EXAMPLES, Corpus.PROCESS_SOLUTION})
+  public String corpus;
+
+  @Param({"1"})
+  public int copies;
+
+  /** Formats once per compilation unit instead of after every replacement. */
+  @Param({"false"})
+  public boolean deferredFormatting;
+
+  private Corpus sources;
+
+  private Recipe activeRecipe;
+
+  private List<SourceFile> parsed;
+
+  private List<SourceFile> migrated;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    sources = Corpus.load(Corpus.repositoryRoot(), corpus, copies);
+    activeRecipe =
+        Environment.builder().scanRuntimeClasspath(RECIPES).build().activateRecipes(recipe);
+    parsed = sources.parse();
+    migrated = afterSources(run(parsed));
+  }
+
+  @Benchmark
+  public RecipeRun recipe(FileCounter counter) {
+    counter.files += parsed.size();
+    return run(parsed);
+  }
+
+  @Benchmark
+  public void print(FileCounter counter, Blackhole blackhole) {
+    for (SourceFile sourceFile : migrated) {
+      blackhole.consume(sourceFile.printAll());
+    }
+    counter.files += migrated.size();
+  }
+
+  @Benchmark
+  public void parseRecipePrint(FileCounter counter, Blackhole blackhole) {
+    List<SourceFile> sourceFiles = sources.parse();
+    for (SourceFile sourceFile : afterSources(run(sourceFiles))) {
+      blackhole.consume(sourceFile.printAll());
+    }
+    counter.files += sourceFiles.size();
+  }
+
+  private RecipeRun run(List<SourceFile> sourceFiles) {
+    ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+    ctx.putMessage(DeferredFormatting.ENABLED, deferredFormatting);
+    return activeRecipe.run(new InMemoryLargeSourceSet(sourceFiles), ctx);
+  }
+
+  // changed files as printed by a migration, unchanged files are skipped like in a real run
+  private static List<SourceFile> afterSources(RecipeRun run) {
+    List<SourceFile> after = new ArrayList<>();
+    for (Result result : run.getChangeset().getAllResults()) {
+      if (result.getAfter() != null) {
+        after.add(result.getAfter());
+      }
+    }
+    return after;
+  }
+}
@@ -0,0 +1,90 @@
+package org.camunda.migration.rewrite.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A Maven or Gradle module of the migrated tree. Nested modules are separate modules, each one owns
+ * the Java sources of its own {@code src/main/java} and {@code src/test/java}.
+ */
+record BuildModule(Path directory, BuildTool buildTool) {
+
+  enum BuildTool {
+    MAVEN("target"),
+    GRADLE("build");
+
+    private final String outputDirectory;
+
+    BuildTool(String outputDirectory) {
+      this.outputDirectory = outputDirectory;
+    }
+  }
+
+  private static final List<String> SOURCE_DIRECTORIES = List.of("src/main/java", "src/test/java");
+
+  private static final Set<String> SKIPPED_DIRECTORIES =
+      Set.of("target", "build", "node_modules", ".git", ".gradle", ".idea", ".mvn");
+
+  /** Finds all modules below the root, in a stable order. */
+  static List<BuildModule> discover(Path root) {
+    List<BuildModule> modules = new ArrayList<>();
+    try {
+      Files.walkFileTree(
+          root,
+          new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+              if (!dir.equals(root)
+                  && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                return FileVisitResult.SKIP_SUBTREE;
+              }
+              if (Files.isRegularFile(dir.resolve("pom.xml"))) {
+                modules.add(new BuildModule(dir, BuildTool.MAVEN));
+              } else if (Files.isRegularFile(dir.resolve("build.gradle"))
+                  || Files.isRegularFile(dir.resolve("build.gradle.kts"))) {
+                modules.add(new BuildModule(dir, BuildTool.GRADLE));
+              }
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot discover modules below " + root, e);
+    }
+    modules.sort((a, b) -> a.directory().compareTo(b.directory()));
+    return modules;
+  }
+
+  /** The Java source files of the module, main and test sources together. */
+  List<Path> javaSources() {
+    List<Path> sources = new ArrayList<>();
+    for (String sourceDirectory : SOURCE_DIRECTORIES) {
+      Path dir = directory.resolve(sourceDirectory);
+      if (!Files.isDirectory(dir)) {
+        continue;
+      }
+      try (Stream<Path> walk = Files.walk(dir)) {
+        walk.filter(path -> path.toString().endsWith(".java"))
+            .filter(Files::isRegularFile)
+            .sorted()
+            .forEach(sources::add);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read sources of " + directory, e);
+      }
+    }
+    return sources;
+  }
+
+  /** Same location as the dry run of the OpenRewrite Maven and Gradle plugins. */
+  Path patchFile() {
+    return directory.resolve(buildTool.outputDirectory).resolve("rewrite/rewrite.patch");
+  }
+}
@@ -0,0 +1,312 @@
+package org.camunda.migration.rewrite.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Recipe;
+import org.openrewrite.java.JavaParser;
+
+/**
+ * Results of earlier runs, keyed by the source set of the module, source path and content. An entry
+ * is either "no change" or the diff the recipes produced for the file, so a file whose key is found
+ * does not need to be parsed or visited again.
+ *
+ * <p>The cache is valid for one fingerprint of the recipe set, the recipe code and the parser
+ * classpath; a run with a different fingerprint starts with an empty cache. It is stored in a
+ * single file, which is memory-mapped and searched in place, so opening it does not depend on the
+ * number of entries:
+ *
+ * <ul>
+ *   <li>a header: magic, format version, fingerprint and entry count,
+ *   <li>fixed-size entries sorted by key: the 128 bit key, the offset and the length of the diff,
+ *       28 bytes per file,
+ *   <li>the UTF-8 diffs of all entries, back to back. Entries without a change have length 0.
+ * </ul>
+ *
+ * Lookups are safe from any thread. Entries of the current run are collected with {@link #put} and
+ * replace the cache on {@link #write}, so entries of deleted files do not accumulate.
+ */
+class MigrationCache {
+
+  private static final String FILE_NAME = "migration-cache.bin";
+
+  private static final int MAGIC = 0x52574331; // RWC1
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int FINGERPRINT_BYTES = 32;
+
+  private static final int HEADER_BYTES = 4 + 4 + FINGERPRINT_BYTES + 4;
+
+  private static final int ENTRY_BYTES = 16 + 8 + 4;
+
+  private static final Comparator<Key> KEY_ORDER =
+      (a, b) ->
+          a.high() != b.high()
+              ? Long.compareUnsigned(a.high(), b.high())
+              : Long.compareUnsigned(a.low(), b.low());
+
+  /**
+   * The first 128 bits of the SHA-256 of the source set of the module, the source path and the
+   * content of a file. The types of the other files of the module are attributed into the file, so
+   * a change to any of them invalidates all files of the module.
+   */
+  record Key(long high, long low) {
+
+    /** The source set is the {@link #sourceSet} of the module of the file. */
+    static Key of(byte[] sourceSet, Path sourcePath, byte[] content) {
+      MessageDigest digest = sha256();
+      digest.update(sourceSet);
+      digest.update(sourcePath.toString().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      ByteBuffer hash = ByteBuffer.wrap(digest.digest(content));
+      return new Key(hash.getLong(), hash.getLong());
+    }
+  }
+
+  /** The SHA-256 of the source paths and contents of all files of a module, in the given order. */
+  static byte[] sourceSet(Map<Path, byte[]> sources) {
+    MessageDigest digest = sha256();
+    for (Map.Entry<Path, byte[]> source : sources.entrySet()) {
+      digest.update(source.getKey().toString().getBytes(StandardCharsets.UTF_8));
+      // separates the path from the content
+      digest.update(
+          ByteBuffer.allocate(9).put((byte) 0).putLong(source.getValue().length).array());
+      digest.update(source.getValue());
+    }
+    return digest.digest();
+  }
+
+  private final Path directory;
+
+  private final byte[] fingerprint;
+
+  private final @Nullable ByteBuffer cache;
+
+  private final int entries;
+
+  private final Map<Key, String> current = new ConcurrentHashMap<>();
+
+  private MigrationCache(
+      Path directory, byte[] fingerprint, @Nullable ByteBuffer cache, int entries) {
+    this.directory = directory;
+    this.fingerprint = fingerprint;
+    this.cache = cache;
+    this.entries = entries;
+  }
+
+  /** Opens the cache in the directory, or starts an empty one if it is missing or outdated. */
+  static MigrationCache open(Path directory, byte[] fingerprint) {
+    Path file = directory.resolve(FILE_NAME);
+    if (!Files.isRegularFile(file)) {
+      return new MigrationCache(directory, fingerprint, null, 0);
+    }
+    try {
+      MappedByteBuffer cache = map(file);
+      if (cache.limit() < HEADER_BYTES
+          || cache.getInt(0) != MAGIC
+          || cache.getInt(4) != FORMAT_VERSION) {
+        return new MigrationCache(directory, fingerprint, null, 0);
+      }
+      byte[] cachedFingerprint = new byte[FINGERPRINT_BYTES];
+      cache.get(8, cachedFingerprint);
+      if (!Arrays.equals(cachedFingerprint, fingerprint)) {
+        return new MigrationCache(directory, fingerprint, null, 0);
+      }
+      int entries = cache.getInt(8 + FINGERPRINT_BYTES);
+      if (entries < 0
+          || cache.limit()
+              != HEADER_BYTES + (long) entries * ENTRY_BYTES + diffBytes(cache, entries)) {
+        // truncated, e.g. by an interrupted copy
+        return new MigrationCache(directory, fingerprint, null, 0);
+      }
+      return new MigrationCache(directory, fingerprint, cache, entries);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open migration cache " + directory, e);
+    }
+  }
+
+  /**
+   * The length of all diffs. They are written in key order, so the diff of the last entry ends the
+   * file.
+   */
+  private static long diffBytes(ByteBuffer cache, int entries) {
+    long lastEntry = HEADER_BYTES + (long) (entries - 1) * ENTRY_BYTES;
+    if (entries == 0 || cache.limit() < lastEntry + ENTRY_BYTES) {
+      return 0;
+    }
+    return cache.getLong((int) lastEntry + 16) + cache.getInt((int) lastEntry + 24);
+  }
+
+  /**
+   * Returns the cached diff of the file, an empty string if the recipes did not change it, or null
+   * if the file is not cached.
+   */
+  @Nullable
+  String get(Key key) {
+    if (cache == null) {
+      return null;
+    }
+    int low = 0;
+    int high = entries - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int entry = HEADER_BYTES + middle * ENTRY_BYTES;
+      int order = KEY_ORDER.compare(new Key(cache.getLong(entry), cache.getLong(entry + 8)), key);
+      if (order < 0) {
+        low = middle + 1;
+      } else if (order > 0) {
+        high = middle - 1;
+      } else {
+        int offset = HEADER_BYTES + entries * ENTRY_BYTES + (int) cache.getLong(entry + 16);
+        byte[] diff = new byte[cache.getInt(entry + 24)];
+        cache.get(offset, diff);
+        return new String(diff, StandardCharsets.UTF_8);
+      }
+    }
+    return null;
+  }
+
+  /** Records the result of the file in this run, an empty diff if it was not changed. */
+  void put(Key key, String diff) {
+    current.put(key, diff);
+  }
+
+  /** Replaces the cache on disk with the entries recorded in this run. */
+  void write() {
+    List<Key> keys = new ArrayList<>(current.keySet());
+    keys.sort(KEY_ORDER);
+    ByteBuffer index = ByteBuffer.allocate(HEADER_BYTES + keys.size() * ENTRY_BYTES);
+    index.putInt(MAGIC).putInt(FORMAT_VERSION).put(fingerprint).putInt(keys.size());
+    List<byte[]> diffs = new ArrayList<>(keys.size());
+    long offset = 0;
+    for (Key key : keys) {
+      byte[] diff = current.get(key).getBytes(StandardCharsets.UTF_8);
+      diffs.add(diff);
+      index.putLong(key.high()).putLong(key.low()).putLong(offset).putInt(diff.length);
+      offset += diff.length;
+    }
+    try {
+      Files.createDirectories(directory);
+      Path file = Files.createTempFile(directory, FILE_NAME, ".tmp");
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+        out.write(index.array());
+        for (byte[] diff : diffs) {
+          out.write(diff);
+        }
+      }
+      Files.move(file, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write migration cache " + directory, e);
+    }
+  }
+
+  /**
+   * Fingerprint of everything besides the source file that determines the result: the recipes with
+   * their options, the size and modification time of the jars or class directories the recipe and
+   * OpenRewrite classes are loaded from, and those of every classpath entry, which holds the types
+   * used for attribution.
+   */
+  static byte[] fingerprint(Recipe recipe, List<Path> classpath) {
+    MessageDigest digest = sha256();
+    digest.update(recipe.getDescriptor().toString().getBytes(StandardCharsets.UTF_8));
+    for (Path codeSource : codeSources(recipe)) {
+      updateEntry(digest, codeSource);
+    }
+    for (Path entry : classpath) {
+      updateEntry(digest, entry);
+    }
+    return digest.digest();
+  }
+
+  /** The locations the classes of the recipe, its nested recipes and OpenRewrite are loaded from. */
+  private static Set<Path> codeSources(Recipe recipe) {
+    Set<Class<?>> classes = new LinkedHashSet<>(List.of(Recipe.class, JavaParser.class));
+    Deque<Recipe> recipes = new ArrayDeque<>(List.of(recipe));
+    while (!recipes.isEmpty()) {
+      Recipe next = recipes.pop();
+      classes.add(next.getClass());
+      recipes.addAll(next.getRecipeList());
+    }
+    Set<Path> codeSources = new TreeSet<>();
+    for (Class<?> type : classes) {
+      CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+      if (codeSource != null && codeSource.getLocation() != null) {
+        try {
+          codeSources.add(Path.of(codeSource.getLocation().toURI()));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+          throw new IllegalStateException("Cannot locate the classes of " + type.getName(), e);
+        }
+      }
+    }
+    return codeSources;
+  }
+
+  private static void updateEntry(MessageDigest digest, Path entry) {
+    digest.update(entry.toString().getBytes(StandardCharsets.UTF_8));
+    if (Files.isDirectory(entry)) {
+      try (Stream<Path> walk = Files.walk(entry)) {
+        walk.filter(Files::isRegularFile).sorted().forEach(file -> update(digest, file));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read classpath entry " + entry, e);
+      }
+    } else {
+      update(digest, entry);
+    }
+  }
+
+  private static void update(MessageDigest digest, Path file) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      digest.update(
+          ByteBuffer.allocate(16)
+              .putLong(attributes.size())
+              .putLong(attributes.lastModifiedTime().toMillis())
+              .array());
+    } catch (IOException e) {
+      // a missing classpath entry is part of the fingerprint as well
+      digest.update((byte) 0);
+    }
+  }
+
+  private static MappedByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package org.camunda.migration.rewrite.runner;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Recipe;
+import org.openrewrite.java.JavaParser;
+
+/**
+ * Entry point of the runner jar. Discovers the Maven and Gradle modules below a directory, migrates
+ * them concurrently on a work-stealing pool and writes one patch per module. Results are cached in
+ * {@code <root>/.rewrite-cache}, so re-runs only migrate files that changed. Files are streamed
+ * through the recipes: each module has at most {@code --window} files in flight, twice the number
+ * of threads by default, and only their diffs are kept.
+ *
+ * <pre>
+ * java -jar runner.jar &lt;root&gt; [--threads n] [--window n] [--recipe name]... [--classpath path]
+ *     [--cache dir | --no-cache]
+ * </pre>
+ */
+public class MigrationRunner {
+
+  public static void main(String[] args) {
+    Path root = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    Integer window = null;
+    List<String> recipeNames = new ArrayList<>();
+    List<Path> classpath = new ArrayList<>(CamundaApiStubs.classpath());
+    Path cacheDirectory = null;
+    boolean useCache = true;
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+        case "--window" -> window = Integer.parseInt(value(args, ++i));
+        case "--recipe" -> recipeNames.add(value(args, ++i));
+        case "--classpath" -> {
+          for (String entry : value(args, ++i).split(File.pathSeparator)) {
+            classpath.add(Path.of(entry));
+          }
+        }
+        case "--cache" -> cacheDirectory = Path.of(value(args, ++i));
+        case "--no-cache" -> useCache = false;
+        default -> {
+          if (root != null || args[i].startsWith("--")) {
+            usage("Unexpected argument " + args[i]);
+          }
+          root = Path.of(args[i]).toAbsolutePath().normalize();
+        }
+      }
+    }
+    if (root == null) {
+      usage("Missing root directory");
+    }
+    if (window != null && window < 1) {
+      usage("The window must be at least 1");
+    }
+    if (recipeNames.isEmpty()) {
+      recipeNames.addAll(SingleFileRecipes.DEFAULT_RECIPES);
+    }
+
+    SingleFileRecipes recipes = SingleFileRecipes.load(recipeNames);
+    if (!recipes.dropped().isEmpty()) {
+      System.out.println(
+          "Skipping recipes that need all files of a module, run them with the OpenRewrite build plugin: "
+              + String.join(", ", recipes.dropped()));
+    }
+
+    MigrationCache cache = null;
+    if (useCache) {
+      cache =
+          MigrationCache.open(
+              cacheDirectory != null ? cacheDirectory : root.resolve(".rewrite-cache"),
+              MigrationCache.fingerprint(recipes.recipe(), classpath));
+    }
+
+    List<ModuleMigration.Summary> summaries =
+        run(
+            root,
+            recipes.recipe(),
+            classpath,
+            threads,
+            window != null ? window : 2 * threads,
+            cache);
+    if (cache != null) {
+      cache.write();
+    }
+    boolean failed = false;
+    int changedFiles = 0;
+    int cachedFiles = 0;
+    for (ModuleMigration.Summary summary : summaries) {
+      changedFiles += summary.changedFiles();
+      cachedFiles += summary.cachedFiles();
+      if (summary.changedFiles() > 0) {
+        System.out.println(
+            root.relativize(summary.module().patchFile())
+                + ": "
+                + summary.changedFiles()
+                + " of "
+                + summary.sourceFiles()
+                + " files changed");
+      }
+      for (String error : summary.errors()) {
+        System.err.println(root.relativize(summary.module().directory()) + ": " + error);
+        failed = true;
+      }
+    }
+    System.out.println(
+        summaries.size()
+            + " modules, "
+            + changedFiles
+            + " files changed, "
+            + cachedFiles
+            + " files taken from the cache");
+    if (failed) {
+      System.exit(1);
+    }
+  }
+
+  /** Migrates all modules below the root and returns their summaries in module order. */
+  static List<ModuleMigration.Summary> run(
+      Path root,
+      Recipe recipe,
+      List<Path> classpath,
+      int threads,
+      int window,
+      @Nullable MigrationCache cache) {
+    Supplier<JavaParser> parser =
+        () ->
+            JavaParser.fromJavaVersion()
+                .classpath(classpath)
+                .logCompilationWarningsAndErrors(false)
+                .build();
+    List<ModuleMigration> migrations =
+        BuildModule.discover(root).stream()
+            .map(module -> new ModuleMigration(root, module, recipe, parser, cache, window))
+            .toList();
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return pool.submit(
+              () -> ForkJoinTask.invokeAll(migrations).stream().map(ForkJoinTask::join).toList())
+          .join();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static String value(String[] args, int i) {
+    if (i >= args.length) {
+      usage("Missing value of " + args[i - 1]);
+    }
+    return args[i];
+  }
+
+  private static void usage(String message) {
+    System.err.println(message);
+    System.err.println(
+        "Usage: java -jar runner.jar <root> [--threads n] [--window n] [--recipe name]..."
+            + " [--classpath path] [--cache dir | --no-cache]");
+    System.exit(2);
+  }
+}
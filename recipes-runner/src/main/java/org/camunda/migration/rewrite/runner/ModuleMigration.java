@@ -0,0 +1,231 @@
+package org.camunda.migration.rewrite.runner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.tree.ParseError;
+
+/**
+ * Migrates one module on a {@link java.util.concurrent.ForkJoinPool}. The sources of the module are
+ * parsed in one batch, so references between them are attributed, then the recipe runs as one
+ * subtask per source file. Idle workers steal file tasks of other modules, so a large module does
+ * not hold up the run.
+ *
+ * <p>The parser converts the compiled sources to LSTs one by one as they are consumed, and at most
+ * {@code window} files are migrated at the same time. The next file is only converted once the
+ * oldest file in flight is done and released, so the LSTs in memory are bounded by the window
+ * instead of the module size. The compiler trees of the module are kept until all files are
+ * converted, for attribution.
+ *
+ * <p>Files found in the {@link MigrationCache} are not visited again. The cache keys include the
+ * source set of the module, so either all files of a module are cached or, after any of them
+ * changed, none is; a changed module is parsed and migrated as a whole.
+ *
+ * <p>The changes are written as a patch relative to the root of the tree and the sources are left
+ * untouched.
+ */
+class ModuleMigration extends RecursiveTask<ModuleMigration.Summary> {
+
+  record Summary(
+      BuildModule module,
+      int sourceFiles,
+      int cachedFiles,
+      int changedFiles,
+      List<String> errors) {}
+
+  private final Path root;
+
+  private final BuildModule module;
+
+  private final Recipe recipe;
+
+  private final Supplier<JavaParser> parser;
+
+  private final @Nullable MigrationCache cache;
+
+  private final int window;
+
+  /**
+   * @param window how many files of the module are migrated at the same time, so at most this many
+   *     LSTs of the module are in memory
+   */
+  ModuleMigration(
+      Path root,
+      BuildModule module,
+      Recipe recipe,
+      Supplier<JavaParser> parser,
+      @Nullable MigrationCache cache,
+      int window) {
+    this.root = root;
+    this.module = module;
+    this.recipe = recipe;
+    this.parser = parser;
+    this.cache = cache;
+    this.window = window;
+  }
+
+  @Override
+  protected Summary compute() {
+    List<String> errors = new ArrayList<>();
+    List<Parser.Input> inputs = new ArrayList<>();
+    Map<Path, MigrationCache.Key> keys = new HashMap<>();
+    // diffs by source path in file order, null until the file is migrated
+    Map<Path, @Nullable String> diffs = new LinkedHashMap<>();
+    // contents by source path, relative to the root
+    Map<Path, byte[]> sources = new LinkedHashMap<>();
+    for (Path source : module.javaSources()) {
+      sources.put(root.relativize(source), read(source));
+    }
+    byte[] sourceSet = MigrationCache.sourceSet(sources);
+
+    int cachedFiles = 0;
+    for (Map.Entry<Path, byte[]> source : sources.entrySet()) {
+      Path sourcePath = source.getKey();
+      byte[] content = source.getValue();
+      MigrationCache.Key key = MigrationCache.Key.of(sourceSet, sourcePath, content);
+      String cached = cache == null ? null : cache.get(key);
+      if (cached != null) {
+        cachedFiles++;
+      }
+      inputs.add(
+          new Parser.Input(root.resolve(sourcePath), () -> new ByteArrayInputStream(content)));
+      keys.put(sourcePath, key);
+      diffs.put(sourcePath, cached);
+    }
+
+    if (cachedFiles < inputs.size()) {
+      ExecutionContext parseContext = new InMemoryExecutionContext(e -> errors.add(e.toString()));
+      Deque<FileMigration> inFlight = new ArrayDeque<>();
+      // source files are converted to LSTs one by one as the stream is consumed
+      parser
+          .get()
+          .parseInputs(inputs, root, parseContext)
+          .forEach(
+              sourceFile -> {
+                if (sourceFile instanceof ParseError) {
+                  errors.add("Cannot parse " + sourceFile.getSourcePath());
+                } else if (diffs.get(sourceFile.getSourcePath()) == null) {
+                  inFlight.add((FileMigration) new FileMigration(sourceFile, recipe).fork());
+                  if (inFlight.size() > window) {
+                    complete(inFlight.poll(), keys, diffs, errors);
+                  }
+                }
+              });
+      while (!inFlight.isEmpty()) {
+        complete(inFlight.poll(), keys, diffs, errors);
+      }
+    }
+
+    StringBuilder patch = new StringBuilder();
+    int changedFiles = 0;
+    for (Map.Entry<Path, String> diff : diffs.entrySet()) {
+      if (diff.getValue() == null) {
+        continue;
+      }
+      if (cache != null && keys.containsKey(diff.getKey())) {
+        cache.put(keys.get(diff.getKey()), diff.getValue());
+      }
+      if (!diff.getValue().isEmpty()) {
+        patch.append(diff.getValue());
+        changedFiles++;
+      }
+    }
+    writePatch(patch);
+    return new Summary(module, inputs.size(), cachedFiles, changedFiles, errors);
+  }
+
+  private static void complete(
+      FileMigration file,
+      Map<Path, MigrationCache.Key> keys,
+      Map<Path, @Nullable String> diffs,
+      List<String> errors) {
+    FileMigration.Outcome outcome = file.join();
+    diffs.put(file.sourcePath, outcome.diff());
+    if (!outcome.errors().isEmpty()) {
+      // not cached, so the file is retried in the next run
+      keys.remove(file.sourcePath);
+      errors.addAll(outcome.errors());
+    }
+  }
+
+  private static byte[] read(Path source) {
+    try {
+      return Files.readAllBytes(source);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read " + source, e);
+    }
+  }
+
+  private void writePatch(CharSequence patch) {
+    Path patchFile = module.patchFile();
+    try {
+      if (patch.isEmpty()) {
+        Files.deleteIfExists(patchFile);
+      } else {
+        Files.createDirectories(patchFile.getParent());
+        Files.writeString(patchFile, patch);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write " + patchFile, e);
+    }
+  }
+
+  /**
+   * Runs the recipe on a single source file with its own execution context. Only the diff is kept,
+   * the LST of the file is released once the task is done.
+   */
+  static class FileMigration extends RecursiveTask<FileMigration.Outcome> {
+
+    record Outcome(String diff, List<String> errors) {}
+
+    private final Path sourcePath;
+
+    private final Recipe recipe;
+
+    private @Nullable SourceFile sourceFile;
+
+    FileMigration(SourceFile sourceFile, Recipe recipe) {
+      this.sourcePath = sourceFile.getSourcePath();
+      this.sourceFile = sourceFile;
+      this.recipe = recipe;
+    }
+
+    @Override
+    protected Outcome compute() {
+      List<String> errors = new ArrayList<>();
+      ExecutionContext ctx =
+          new InMemoryExecutionContext(e -> errors.add(sourcePath + ": " + e.getMessage()));
+      List<Result> results =
+          recipe
+              .run(new InMemoryLargeSourceSet(List.of(sourceFile)), ctx)
+              .getChangeset()
+              .getAllResults();
+      sourceFile = null;
+      StringBuilder diff = new StringBuilder();
+      for (Result result : results) {
+        diff.append(result.diff());
+      }
+      return new Outcome(diff.toString(), errors);
+    }
+  }
+}
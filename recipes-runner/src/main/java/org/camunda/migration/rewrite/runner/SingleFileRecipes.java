@@ -0,0 +1,77 @@
+package org.camunda.migration.rewrite.runner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.config.DeclarativeRecipe;
+import org.openrewrite.config.Environment;
+
+/**
+ * Loads the declarative recipes of the recipe bundles ({@code clientRecipes.yml}, {@code
+ * delegateRecipes.yml} and {@code externalWorkerRecipes.yml}) and keeps the recipes that only look
+ * at a single source file. Scanning recipes such as {@code AddDependency} need all source files of
+ * a module in one run, so they are dropped and left to the OpenRewrite build plugins. The migration
+ * recipes only scan to count the files they report {@link MigrationMetrics} for, so they are kept.
+ */
+final class SingleFileRecipes {
+
+  static final List<String> DEFAULT_RECIPES =
+      List.of(
+          "org.camunda.migration.rewrite.recipes.AllClientRecipes",
+          "org.camunda.migration.rewrite.recipes.AllDelegateRecipes",
+          "org.camunda.migration.rewrite.recipes.AllExternalWorkerRecipes");
+
+  private final Recipe recipe;
+
+  private final Set<String> dropped;
+
+  private SingleFileRecipes(Recipe recipe, Set<String> dropped) {
+    this.recipe = recipe;
+    this.dropped = dropped;
+  }
+
+  static SingleFileRecipes load(List<String> recipeNames) {
+    Environment environment = Environment.builder().scanRuntimeClasspath().build();
+    List<Recipe> kept = new ArrayList<>();
+    Set<String> dropped = new LinkedHashSet<>();
+    flatten(environment.activateRecipes(recipeNames), kept, dropped);
+    return new SingleFileRecipes(new CompositeRecipe(kept), dropped);
+  }
+
+  /** Unpacks recipe lists in their order of execution, so single recipes of a list can be dropped. */
+  static void flatten(Recipe recipe, List<Recipe> kept, Set<String> dropped) {
+    if (recipe instanceof DeclarativeRecipe || recipe instanceof CompositeRecipe) {
+      for (Recipe child : recipe.getRecipeList()) {
+        flatten(child, kept, dropped);
+      }
+    } else if (isSingleFile(recipe)) {
+      kept.add(recipe);
+    } else {
+      dropped.add(recipe.getName());
+    }
+  }
+
+  private static boolean isSingleFile(Recipe recipe) {
+    if (recipe instanceof ScanningRecipe<?> scanning) {
+      return scanning.getInitialValue(new InMemoryExecutionContext())
+          instanceof MigrationMetrics.Totals;
+    }
+    return recipe.getRecipeList().stream().allMatch(SingleFileRecipes::isSingleFile);
+  }
+
+  /** All kept recipes as one recipe, in their original order. */
+  Recipe recipe() {
+    return recipe;
+  }
+
+  /** Names of the dropped recipes. */
+  Set<String> dropped() {
+    return dropped;
+  }
+}
@@ -0,0 +1,60 @@
+package org.camunda.migration.rewrite.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BuildModuleTest {
+
+  @TempDir Path root;
+
+  @Test
+  void discoverNestedModulesTest() throws IOException {
+    touch("pom.xml");
+    touch("app/pom.xml");
+    touch("app/src/main/java/org/example/App.java");
+    touch("app/src/test/java/org/example/AppTest.java");
+    touch("app/src/main/resources/Ignored.java");
+    touch("app/target/classes/pom.xml");
+    touch("lib/build.gradle.kts");
+    touch("lib/nested/pom.xml");
+    touch("lib/nested/src/main/java/org/example/Nested.java");
+    touch("docs/README.md");
+
+    assertThat(BuildModule.discover(root))
+        .containsExactly(
+            new BuildModule(root, BuildModule.BuildTool.MAVEN),
+            new BuildModule(root.resolve("app"), BuildModule.BuildTool.MAVEN),
+            new BuildModule(root.resolve("lib"), BuildModule.BuildTool.GRADLE),
+            new BuildModule(root.resolve("lib/nested"), BuildModule.BuildTool.MAVEN));
+  }
+
+  @Test
+  void nestedModuleOwnsItsSourcesTest() throws IOException {
+    touch("lib/build.gradle");
+    touch("lib/src/main/java/org/example/Lib.java");
+    touch("lib/nested/pom.xml");
+    touch("lib/nested/src/main/java/org/example/Nested.java");
+
+    BuildModule lib = new BuildModule(root.resolve("lib"), BuildModule.BuildTool.GRADLE);
+    assertThat(lib.javaSources())
+        .containsExactly(root.resolve("lib/src/main/java/org/example/Lib.java"));
+    assertThat(lib.patchFile()).isEqualTo(root.resolve("lib/build/rewrite/rewrite.patch"));
+
+    BuildModule nested = new BuildModule(root.resolve("lib/nested"), BuildModule.BuildTool.MAVEN);
+    assertThat(nested.javaSources())
+        .containsExactly(root.resolve("lib/nested/src/main/java/org/example/Nested.java"));
+    assertThat(nested.patchFile())
+        .isEqualTo(root.resolve("lib/nested/target/rewrite/rewrite.patch"));
+  }
+
+  private void touch(String path) throws IOException {
+    Path file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, "");
+  }
+}
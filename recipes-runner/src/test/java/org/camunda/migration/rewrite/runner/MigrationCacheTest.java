@@ -0,0 +1,100 @@
+package org.camunda.migration.rewrite.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MigrationCacheTest {
+
+  private static final byte[] FINGERPRINT = fingerprint(1);
+
+  private static final Path SOURCE_PATH = Path.of("src/main/java/org/example/Signals.java");
+
+  @TempDir Path directory;
+
+  @Test
+  void writeOpenGetRoundTripTest() {
+    MigrationCache.Key changed = key("changed");
+    MigrationCache.Key unchanged = key("unchanged");
+
+    MigrationCache cache = MigrationCache.open(directory, FINGERPRINT);
+    assertThat(cache.get(changed)).isNull();
+    cache.put(changed, "--- a/Signals.java\n+++ b/Signals.java\n");
+    cache.put(unchanged, "");
+    cache.write();
+
+    MigrationCache reopened = MigrationCache.open(directory, FINGERPRINT);
+    assertThat(reopened.get(changed)).isEqualTo("--- a/Signals.java\n+++ b/Signals.java\n");
+    assertThat(reopened.get(unchanged)).isEmpty();
+    assertThat(reopened.get(key("missing"))).isNull();
+  }
+
+  @Test
+  void fingerprintMismatchStartsEmptyTest() {
+    MigrationCache cache = MigrationCache.open(directory, FINGERPRINT);
+    cache.put(key("changed"), "diff");
+    cache.write();
+
+    assertThat(MigrationCache.open(directory, fingerprint(2)).get(key("changed"))).isNull();
+  }
+
+  @Test
+  void truncatedFileStartsEmptyTest() throws IOException {
+    MigrationCache cache = MigrationCache.open(directory, FINGERPRINT);
+    cache.put(key("first"), "first diff");
+    cache.put(key("second"), "second diff");
+    cache.write();
+    Path file = directory.resolve("migration-cache.bin");
+    long size = Files.size(file);
+
+    // the last diff is cut off
+    truncate(file, size - 1);
+    assertThat(MigrationCache.open(directory, FINGERPRINT).get(key("first"))).isNull();
+    assertThat(MigrationCache.open(directory, FINGERPRINT).get(key("second"))).isNull();
+
+    // the index is cut off
+    truncate(file, 50);
+    assertThat(MigrationCache.open(directory, FINGERPRINT).get(key("first"))).isNull();
+  }
+
+  @Test
+  void sourceSetChangesAllKeysOfModuleTest() {
+    byte[] content = "class Signals {}".getBytes(StandardCharsets.UTF_8);
+    byte[] before =
+        MigrationCache.sourceSet(
+            Map.of(SOURCE_PATH, content, Path.of("Other.java"), new byte[] {1}));
+    byte[] after =
+        MigrationCache.sourceSet(
+            Map.of(SOURCE_PATH, content, Path.of("Other.java"), new byte[] {2}));
+
+    assertThat(MigrationCache.Key.of(before, SOURCE_PATH, content))
+        .isEqualTo(MigrationCache.Key.of(before, SOURCE_PATH, content))
+        .isNotEqualTo(MigrationCache.Key.of(after, SOURCE_PATH, content));
+  }
+
+  private static MigrationCache.Key key(String content) {
+    return MigrationCache.Key.of(
+        new byte[0], SOURCE_PATH, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] fingerprint(int value) {
+    byte[] fingerprint = new byte[32];
+    Arrays.fill(fingerprint, (byte) value);
+    return fingerprint;
+  }
+
+  private static void truncate(Path file, long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(size);
+    }
+  }
+}
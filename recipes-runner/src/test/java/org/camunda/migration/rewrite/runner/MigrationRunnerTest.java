@@ -0,0 +1,109 @@
+package org.camunda.migration.rewrite.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MigrationRunnerTest {
+
+  private static final String SIGNALS =
+"""
+package org.example;
+
+import io.camunda.client.CamundaClient;
+import org.camunda.bpm.engine.RuntimeService;
+
+public class Signals {
+
+    private CamundaClient camundaClient;
+
+    private RuntimeService runtimeService;
+
+    public void broadcast(String signalName) {
+        runtimeService.signalEventReceived(signalName);
+    }
+}
+""";
+
+  private static final String PATCH =
+"""
+diff --git a/src/main/java/org/example/Signals.java b/src/main/java/org/example/Signals.java
+index 78a3bc6..5f18292 100644
+--- a/src/main/java/org/example/Signals.java
++++ b/src/main/java/org/example/Signals.java
+@@ -10,6 +10,10 @@ org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe
+     private RuntimeService runtimeService;
+\s
+     public void broadcast(String signalName) {
+-        runtimeService.signalEventReceived(signalName);
++        camundaClient
++                .newBroadcastSignalCommand()
++                .signalName(signalName)
++                .send()
++                .join();
+     }
+ }
+""";
+
+  @TempDir Path root;
+
+  @Test
+  void writePatchPerModuleTest() throws IOException {
+    write("pom.xml", "<project/>");
+    write("src/main/java/org/example/Signals.java", SIGNALS);
+    write(
+        "src/main/java/org/example/Untouched.java",
+"""
+package org.example;
+
+public class Untouched {
+}
+""");
+
+    List<ModuleMigration.Summary> summaries = run(null);
+
+    assertThat(summaries).hasSize(1);
+    assertThat(summaries.get(0).errors()).isEmpty();
+    assertThat(summaries.get(0).sourceFiles()).isEqualTo(2);
+    assertThat(summaries.get(0).changedFiles()).isEqualTo(1);
+    assertThat(Files.readString(root.resolve("target/rewrite/rewrite.patch")))
+        .isEqualTo(PATCH);
+  }
+
+  @Test
+  void reuseCachedResultsTest() throws IOException {
+    write("pom.xml", "<project/>");
+    write("src/main/java/org/example/Signals.java", SIGNALS);
+    Path cacheDirectory = root.resolve(".rewrite-cache");
+    byte[] fingerprint = new byte[32];
+
+    MigrationCache cache = MigrationCache.open(cacheDirectory, fingerprint);
+    assertThat(run(cache).get(0).cachedFiles()).isZero();
+    cache.write();
+    Files.delete(root.resolve("target/rewrite/rewrite.patch"));
+
+    List<ModuleMigration.Summary> summaries = run(MigrationCache.open(cacheDirectory, fingerprint));
+
+    assertThat(summaries.get(0).cachedFiles()).isEqualTo(1);
+    assertThat(Files.readString(root.resolve("target/rewrite/rewrite.patch"))).isEqualTo(PATCH);
+  }
+
+  private List<ModuleMigration.Summary> run(@Nullable MigrationCache cache) {
+    return MigrationRunner.run(
+        root, new MigrateSignalMethodsRecipe(), CamundaApiStubs.classpath(), 2, 1, cache);
+  }
+
+  private void write(String path, String content) throws IOException {
+    Path file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
@@ -0,0 +1,25 @@
+package org.camunda.migration.rewrite.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Recipe;
+
+class SingleFileRecipesTest {
+
+  @Test
+  void dropAddDependencyTest() {
+    SingleFileRecipes recipes =
+        SingleFileRecipes.load(
+            List.of("org.camunda.migration.rewrite.recipes.AllClientPrepareRecipes"));
+
+    assertThat(recipes.dropped())
+        .containsExactly("org.openrewrite.java.dependencies.AddDependency");
+    assertThat(recipes.recipe().getRecipeList())
+        .extracting(Recipe::getName)
+        .containsExactly(
+            "org.camunda.migration.rewrite.recipes.client.PrepareCamundaClientDependencyRecipe",
+            "org.camunda.migration.rewrite.recipes.sharedRecipes.ReplaceTypedValueAPIRecipe");
+  }
+}
@@ -1,9 +1,9 @@
 package org.camunda.migration.rewrite.recipes.client;
 
 import java.util.*;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.*;
 import org.openrewrite.java.tree.*;
 
 public class CleanupEngineDependencyRecipe extends Recipe {
@@ -31,10 +31,10 @@ public class CleanupEngineDependencyRecipe extends Recipe {
     // define preconditions
     TreeVisitor<?, ExecutionContext> check =
         Preconditions.or(
-            new UsesType<>(PROCESS_ENGINE, true),
-            new UsesType<>(RUNTIME_SERVICE, true),
-            new UsesType<>(TASK_SERVICE, true),
-            new UsesType<>(REPOSITORY_SERVICE, true));
+            CamundaUsageIndex.usesCamundaType(PROCESS_ENGINE),
+            CamundaUsageIndex.usesCamundaType(RUNTIME_SERVICE),
+            CamundaUsageIndex.usesCamundaType(TASK_SERVICE),
+            CamundaUsageIndex.usesCamundaType(REPOSITORY_SERVICE));
 
     return Preconditions.check(
         check,
@@ -1,18 +1,37 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Collections;
 import java.util.List;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
 
 public class MigrateCancelProcessInstanceMethodsRecipe extends AbstractMigrationRecipe {
 
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
   /** Instantiates a new instance. */
-  public MigrateCancelProcessInstanceMethodsRecipe() {}
+  public MigrateCancelProcessInstanceMethodsRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public MigrateCancelProcessInstanceMethodsRecipe(
+      @JsonProperty("nonBlocking") @Nullable Boolean nonBlocking) {
+    this.nonBlocking = nonBlocking;
+  }
 
   @Override
   public String getDisplayName() {
@@ -24,11 +43,17 @@ public class MigrateCancelProcessInstanceMethodsRecipe extends AbstractMigration
     return "Replaces Camunda 7 cancel process instance methods with Camunda 8 client.";
   }
 
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    return Boolean.TRUE.equals(nonBlocking)
+        ? List.of(new ReplaceJoinWithCompletionStageRecipe())
+        : List.of();
+  }
+
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
-    return new UsesMethod<>(
-        "org.camunda.bpm.engine.RuntimeService deleteProcessInstance(java.lang.String, java.lang.String)",
-        true);
+    return CamundaUsageIndex.usesCamundaMethod(
+        "org.camunda.bpm.engine.RuntimeService deleteProcessInstance(java.lang.String, java.lang.String)");
   }
 
   @Override
@@ -36,9 +61,9 @@ public class MigrateCancelProcessInstanceMethodsRecipe extends AbstractMigration
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
             // "signalEventReceived(String signalName)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService deleteProcessInstance(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCancelInstanceCommand(Long.valueOf(#{processInstanceKey:any(String)}))
@@ -0,0 +1,95 @@
+package org.camunda.migration.rewrite.recipes.client;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.camunda.migration.rewrite.recipes.sharedRecipes.CompositeMigrationRecipe;
+import org.camunda.migration.rewrite.recipes.testing.ReplaceAssertionsRecipe;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+
+public class MigrateClientMethodsRecipe extends CompositeMigrationRecipe {
+
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
+  @Option(
+      displayName = "User task page size",
+      description =
+          "Search user tasks page by page with this page size for `list()`, as a lazily fetched `Stream`. `unlimitedList()` is always searched page by page, with a page size of 100 if not set. `list()` reads a single page if not set.",
+      required = false,
+      example = "500")
+  private final @Nullable Integer userTaskPageSize;
+
+  @Option(
+      displayName = "Publish discarded message correlations",
+      description =
+          "Publish messages with `newPublishMessageCommand()` without waiting for them where the result of the correlation is discarded. Correlates and blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean publishDiscardedMessages;
+
+  @Option(
+      displayName = "Message time to live",
+      description =
+          "ISO-8601 duration published messages are buffered for until they are correlated. Uses the default of the client if not set.",
+      required = false,
+      example = "PT10M")
+  private final @Nullable String messageTimeToLive;
+
+  /** Instantiates a new instance. */
+  public MigrateClientMethodsRecipe() {
+    this(null, null, null, null);
+  }
+
+  @JsonCreator
+  public MigrateClientMethodsRecipe(
+      @JsonProperty("nonBlocking") @Nullable Boolean nonBlocking,
+      @JsonProperty("userTaskPageSize") @Nullable Integer userTaskPageSize,
+      @JsonProperty("publishDiscardedMessages") @Nullable Boolean publishDiscardedMessages,
+      @JsonProperty("messageTimeToLive") @Nullable String messageTimeToLive) {
+    super(
+        List.of(
+            new MigrateSignalMethodsRecipe(nonBlocking),
+            new MigrateCancelProcessInstanceMethodsRecipe(nonBlocking),
+            new MigrateStartProcessInstanceMethodsRecipe(nonBlocking),
+            new MigrateMessageMethodsRecipe(
+                nonBlocking, publishDiscardedMessages, messageTimeToLive),
+            new MigrateUserTaskMethodsRecipe(nonBlocking, userTaskPageSize),
+            new ReplaceAssertionsRecipe()));
+    this.nonBlocking = nonBlocking;
+    this.userTaskPageSize = userTaskPageSize;
+    this.publishDiscardedMessages = publishDiscardedMessages;
+    this.messageTimeToLive = messageTimeToLive;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return "Convert client methods";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Replaces Camunda 7 signal, cancel, start, message, user task and test assertion methods with their Camunda 8 counterparts in a single pass.";
+  }
+
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    List<Recipe> recipes = new ArrayList<>();
+    // publishing first, the joins of discarded correlations are not returned then
+    if (Boolean.TRUE.equals(publishDiscardedMessages)) {
+      recipes.add(new ReplaceDiscardedCorrelationWithPublishRecipe(messageTimeToLive));
+    }
+    if (Boolean.TRUE.equals(nonBlocking)) {
+      recipes.add(new ReplaceJoinWithCompletionStageRecipe());
+    }
+    return recipes;
+  }
+}
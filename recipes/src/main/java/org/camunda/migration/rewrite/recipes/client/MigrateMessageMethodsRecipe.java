@@ -1,18 +1,61 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
 import org.camunda.migration.rewrite.recipes.utils.BuilderSpecFactory;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
 
 public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
 
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
+  @Option(
+      displayName = "Publish discarded message correlations",
+      description =
+          "Publish messages with `newPublishMessageCommand()` without waiting for them where the result of the correlation is discarded. Correlates and blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean publishDiscardedMessages;
+
+  @Option(
+      displayName = "Message time to live",
+      description =
+          "ISO-8601 duration published messages are buffered for until they are correlated. Uses the default of the client if not set.",
+      required = false,
+      example = "PT10M")
+  private final @Nullable String messageTimeToLive;
+
+  /** Instantiates a new instance. */
+  public MigrateMessageMethodsRecipe() {
+    this(null, null, null);
+  }
+
+  @JsonCreator
+  public MigrateMessageMethodsRecipe(
+      @JsonProperty("nonBlocking") @Nullable Boolean nonBlocking,
+      @JsonProperty("publishDiscardedMessages") @Nullable Boolean publishDiscardedMessages,
+      @JsonProperty("messageTimeToLive") @Nullable String messageTimeToLive) {
+    this.nonBlocking = nonBlocking;
+    this.publishDiscardedMessages = publishDiscardedMessages;
+    this.messageTimeToLive = messageTimeToLive;
+  }
+
   @Override
   public String getDisplayName() {
     return "Convert message correlation methods";
@@ -23,14 +66,28 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
     return "Replaces Camunda 7 message correlation methods with Camunda 8 client methods.";
   }
 
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    List<Recipe> recipes = new ArrayList<>();
+    // publishing first, the joins of discarded correlations are not returned then
+    if (Boolean.TRUE.equals(publishDiscardedMessages)) {
+      recipes.add(new ReplaceDiscardedCorrelationWithPublishRecipe(messageTimeToLive));
+    }
+    if (Boolean.TRUE.equals(nonBlocking)) {
+      recipes.add(new ReplaceJoinWithCompletionStageRecipe());
+    }
+    return recipes;
+  }
+
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
     return Preconditions.or(
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService correlateMessage(..)", true),
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService messageEventReceived(..)", true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService createMessageCorrelation(java.lang.String)",
-            true));
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService correlateMessage(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService messageEventReceived(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService createMessageCorrelation(java.lang.String)"));
   }
 
   @Override
@@ -38,9 +95,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
             // "messageEventReceived(String messageName, String executionId)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService messageEventReceived(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -59,9 +116,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
         new ReplacementUtils.SimpleReplacementSpec(
             // "messageEventReceived(String messageName, String executionId, Map<String, Objects>
             // variables)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService messageEventReceived(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -82,9 +139,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
                 " Hint: In Camunda 8 messages could also be correlated asynchronously")),
         new ReplacementUtils.SimpleReplacementSpec(
             // "correlateMessage(String messageName)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -100,9 +157,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
             List.of(" Hint: In Camunda 8 messages could also be correlated asynchronously")),
         new ReplacementUtils.SimpleReplacementSpec(
             // "correlateMessage(String messageName, String businessKey)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -120,9 +177,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
                 " Hint: In Camunda 8 messages could also be correlated asynchronously")),
         new ReplacementUtils.SimpleReplacementSpec(
             // "correlateMessage(String messageName, Map<String, Object> correlationKeys)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -141,9 +198,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
         new ReplacementUtils.SimpleReplacementSpec(
             // "correlateMessage(String messageName, Map<String, Object> correlationKeys,
             // Map<String, Object> variables)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.util.Map, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -166,9 +223,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
             // "correlateMessage(String messageName, String businessKey, Map<String, Object>
             // correlationKeys,
             // Map<String, Object> variables)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.lang.String, java.util.Map, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -190,9 +247,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
                 " Hint: In Camunda 8 messages could also be correlated asynchronously")),
         new ReplacementUtils.SimpleReplacementSpec(
             // "messageEventReceived(String messageName, String executionId)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -211,9 +268,9 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
         new ReplacementUtils.SimpleReplacementSpec(
             // "messageEventReceived(String messageName, String executionId, Map<String, Objects>
             // variables)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService correlateMessage(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newCorrelateMessageCommand()
@@ -235,27 +292,28 @@ public class MigrateMessageMethodsRecipe extends AbstractMigrationRecipe {
   }
 
   @Override
-  protected List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations() {
-    return BuilderSpecFactory.createBuilderSpecs(
-        "org.camunda.bpm.engine.runtime.MessageCorrelationBuilder correlate()",
-        "createMessageCorrelation",
-        List.of("processInstanceBusinessKey", "setVariables", "tenantId"),
-        Map.ofEntries(
-            Map.entry(
-                "createMessageCorrelation", ".messageName(#{messageName:any(java.lang.String)})"),
-            Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
-            Map.entry("tenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
-        """
-              #{camundaClient:any(io.camunda.client.CamundaClient)}
-                  .newCorrelateMessageCommand()
-              """,
-        ".correlationKey(\"add correlationKey here\")",
-        """
-                  .send()
-                  .join();
-              """,
-        "io.camunda.client.api.response.CorrelateMessageResponse",
-        List.of(" Hint: In Camunda 8 messages could also be correlated asynchronously"));
+  protected List<ReplacementUtils.BuilderSpecResolver> builderMethodInvocations() {
+    return List.of(
+        BuilderSpecFactory.createBuilderSpecs(
+            "org.camunda.bpm.engine.runtime.MessageCorrelationBuilder correlate()",
+            "createMessageCorrelation",
+            List.of("processInstanceBusinessKey", "setVariables", "tenantId"),
+            Map.ofEntries(
+                Map.entry(
+                    "createMessageCorrelation", ".messageName(#{messageName:any(java.lang.String)})"),
+                Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
+                Map.entry("tenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
+            """
+                  #{camundaClient:any(io.camunda.client.CamundaClient)}
+                      .newCorrelateMessageCommand()
+                  """,
+            ".correlationKey(\"add correlationKey here\")",
+            """
+                      .send()
+                      .join();
+                  """,
+            "io.camunda.client.api.response.CorrelateMessageResponse",
+            List.of(" Hint: In Camunda 8 messages could also be correlated asynchronously")));
   }
 
   /*static final MethodMatcher correlateMethodMatcher =
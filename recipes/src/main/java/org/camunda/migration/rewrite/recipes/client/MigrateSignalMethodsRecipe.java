@@ -1,19 +1,40 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
 import org.camunda.migration.rewrite.recipes.utils.BuilderSpecFactory;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
 
 public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
 
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
+  /** Instantiates a new instance. */
+  public MigrateSignalMethodsRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public MigrateSignalMethodsRecipe(@JsonProperty("nonBlocking") @Nullable Boolean nonBlocking) {
+    this.nonBlocking = nonBlocking;
+  }
+
   @Override
   public String getDisplayName() {
     return "Convert signal broadcasting methods";
@@ -24,12 +45,20 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
     return "Replaces Camunda 7 signal broadcasting methods with Camunda 8 client methods.";
   }
 
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    return Boolean.TRUE.equals(nonBlocking)
+        ? List.of(new ReplaceJoinWithCompletionStageRecipe())
+        : List.of();
+  }
+
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
     return Preconditions.or(
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService signalEventReceived(..)", true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService createSignalEvent(java.lang.String)", true));
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService signalEventReceived(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService createSignalEvent(java.lang.String)"));
   }
 
   @Override
@@ -37,9 +66,9 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
             // "signalEventReceived(String signalName)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService signalEventReceived(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                                     #{camundaClient:any(io.camunda.client.CamundaClient)}
                                         .newBroadcastSignalCommand()
@@ -54,9 +83,9 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
             // "signalEventReceived(String signalName, String executionId)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService signalEventReceived(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                                     #{camundaClient:any(io.camunda.client.CamundaClient)}
                                         .newBroadcastSignalCommand()
@@ -71,9 +100,9 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
             List.of(" executionId was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
             // "signalEventReceived(String signalName, Map<String, Object> variableMap)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService signalEventReceived(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                         #{camundaClient:any(io.camunda.client.CamundaClient)}
                             .newBroadcastSignalCommand()
@@ -92,9 +121,9 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
         new ReplacementUtils.SimpleReplacementSpec(
             // "signalEventReceived(String signalName, String executionId, Map<String, Object>
             // variableMap)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.RuntimeService signalEventReceived(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                                     .newBroadcastSignalCommand()
@@ -113,27 +142,28 @@ public class MigrateSignalMethodsRecipe extends AbstractMigrationRecipe {
   }
 
   @Override
-  protected List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations() {
-    return BuilderSpecFactory.createBuilderSpecs(
-        "org.camunda.bpm.engine.runtime.SignalEventReceivedBuilder send()",
-        "createSignalEvent",
-        List.of("executionId", "setVariables", "tenantId"),
-        Map.ofEntries(
-            Map.entry(
-                "createSignalEvent", ".signalName(#{signalName:any(java.lang.String)})"),
-            Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
-            Map.entry("tenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
-        """
-              #{camundaClient:any(io.camunda.client.CamundaClient)}
-                  .newBroadcastSignalCommand()
-              """,
-        "",
-        """
-                  .send()
-                  .join();
-              """,
-        "io.camunda.client.api.response.BroadcastSignalResponse",
-        Collections.emptyList());
+  protected List<ReplacementUtils.BuilderSpecResolver> builderMethodInvocations() {
+    return List.of(
+        BuilderSpecFactory.createBuilderSpecs(
+            "org.camunda.bpm.engine.runtime.SignalEventReceivedBuilder send()",
+            "createSignalEvent",
+            List.of("executionId", "setVariables", "tenantId"),
+            Map.ofEntries(
+                Map.entry(
+                    "createSignalEvent", ".signalName(#{signalName:any(java.lang.String)})"),
+                Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
+                Map.entry("tenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
+            """
+                  #{camundaClient:any(io.camunda.client.CamundaClient)}
+                      .newBroadcastSignalCommand()
+                  """,
+            "",
+            """
+                      .send()
+                      .join();
+                  """,
+            "io.camunda.client.api.response.BroadcastSignalResponse",
+            Collections.emptyList()));
   }
 
 /*  static final MethodMatcher executeMethodMatcher =
@@ -1,17 +1,38 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.*;
-import java.util.stream.Stream;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
 import org.camunda.migration.rewrite.recipes.utils.BuilderSpecFactory;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
 
 public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationRecipe {
 
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
+  /** Instantiates a new instance. */
+  public MigrateStartProcessInstanceMethodsRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public MigrateStartProcessInstanceMethodsRecipe(
+      @JsonProperty("nonBlocking") @Nullable Boolean nonBlocking) {
+    this.nonBlocking = nonBlocking;
+  }
+
   @Override
   public String getDisplayName() {
     return "Migrates start process instance variable declarations and method invocations based on rules";
@@ -22,34 +43,38 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
     return "This recipe extends the abstract migration recipe with rules specific to starting process instances.";
   }
 
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    return Boolean.TRUE.equals(nonBlocking)
+        ? List.of(new ReplaceJoinWithCompletionStageRecipe())
+        : List.of();
+  }
+
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
     return Preconditions.or(
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(..)", true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService createProcessInstanceByKey(java.lang.String)",
-            true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(..)", true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService createProcessInstanceById(java.lang.String)",
-            true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(..)", true),
-        new UsesMethod<>(
-            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(..)",
-            true));
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService createProcessInstanceByKey(java.lang.String)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService createProcessInstanceById(java.lang.String)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(..)"));
   }
 
   @Override
   protected List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations() {
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByKey(String processDefinitionKey)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -64,11 +89,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("processDefinitionKey", 0)),
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByKey(String processDefinitionKey, String
                 // businessKey)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -83,11 +108,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("processDefinitionKey", 0)),
             List.of(" businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByKey(String processDefinitionKey, Map<String, Object>
                 // variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                              #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -105,11 +130,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 1)),
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByKey(String processDefinitionKey, String businessKey,
                 // Map<String, Object> variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByKey(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                              #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -127,10 +152,10 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 2)),
             List.of(" businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceById(String processDefinitionId)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -144,10 +169,10 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("processDefinitionId", 0)),
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceById(String processDefinitionId, String businessKey)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -161,11 +186,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("processDefinitionId", 0)),
             List.of(" businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceById(String processDefinitionId, Map<String, Object>
                 // variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -182,11 +207,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 1)),
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceById(String processDefinitionId, String businessKey,
                 // Map<String, Object> variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceById(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCreateInstanceCommand()
@@ -203,10 +228,10 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 2)),
             List.of(" businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessage(String messageName)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                               .newCorrelateMessageCommand()
@@ -221,10 +246,10 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("messageName", 0)),
             List.of(" please configure you correlationKey")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessage(String messageName, String businessKey)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                               .newCorrelateMessageCommand()
@@ -239,11 +264,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("messageName", 0)),
             List.of(" please configure you correlationKey", " businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessage(String messageName, Map<String, Object>
                 // variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -261,11 +286,11 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 1)),
             List.of(" please configure you correlationKey")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessage(String messageName, String businessKey,
                 // Map<String, Object> variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessage(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -283,12 +308,12 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 2)),
             List.of(" please configure you correlationKey", " businessKey was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessageAndProcessDefinitionId(String messageName,
                 // String
                 // processDefinitionId)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -303,12 +328,12 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
             List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("messageName", 0)),
             List.of(" please configure you correlationKey", " processDefinitionId was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessageAndProcessDefinitionId(String messageName,
                 // String
                 // processDefinitionId, String businessKey)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(java.lang.String, java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -326,12 +351,12 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 " businessKey was removed",
                 " processDefinitionId was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessageAndProcessDefinitionId(String messageName,
                 // String
                 // processDefinitionId, Map<String, Object> variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -349,13 +374,13 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
                 new ReplacementUtils.SimpleReplacementSpec.NamedArg("variableMap", 2)),
             List.of(" please configure you correlationKey", " processDefinitionId was removed")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 // "startProcessInstanceByMessageAndProcessDefinitionId(String messageName,
                 // String
                 // processDefinitionId, String businessKey, Map<String, Object>
                 // variableMap)"
                 "org.camunda.bpm.engine.RuntimeService startProcessInstanceByMessageAndProcessDefinitionId(java.lang.String, java.lang.String, java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                             #{camundaClient:any(io.camunda.client.CamundaClient)}
                                 .newCorrelateMessageCommand()
@@ -378,53 +403,50 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
   }
 
   @Override
-  protected List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations() {
-    return Stream.concat(
-            BuilderSpecFactory.createBuilderSpecs(
-                "org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder execute(..)",
-                "createProcessInstanceByKey",
-                List.of("businessKey", "setVariables", "processDefinitionTenantId"),
-                Map.ofEntries(
-                    Map.entry(
-                        "createProcessInstanceByKey",
-                        ".bpmnProcessId(#{bpmnProcessId:any(java.lang.String)})"),
-                    Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
-                    Map.entry("processDefinitionTenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
-                """
-                  #{camundaClient:any(io.camunda.client.CamundaClient)}
-                      .newCreateInstanceCommand()
-                  """,
-                ".latestVersion()",
-                """
-                      .send()
-                      .join();
-                  """,
-                "io.camunda.client.api.response.ProcessInstanceEvent",
-                Collections.emptyList())
-                .stream(),
-            BuilderSpecFactory.createBuilderSpecs(
-                "org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder execute(..)",
-                "createProcessInstanceById",
-                List.of("businessKey", "setVariables", "processDefinitionTenantId"),
-                Map.ofEntries(
-                    Map.entry(
-                        "createProcessInstanceById",
-                        ".processDefinitionKey(Long.valueOf(#{processDefinitionKey:any(java.lang.String)}))"),
-                    Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
-                    Map.entry("processDefinitionTenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
-                """
-                  #{camundaClient:any(io.camunda.client.CamundaClient)}
-                      .newCreateInstanceCommand()
-                  """,
-                "",
-                """
-                      .send()
-                      .join();
-                  """,
-                "io.camunda.client.api.response.ProcessInstanceEvent",
-                Collections.emptyList())
-                .stream())
-        .toList();
+  protected List<ReplacementUtils.BuilderSpecResolver> builderMethodInvocations() {
+    return List.of(
+        BuilderSpecFactory.createBuilderSpecs(
+            "org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder execute(..)",
+            "createProcessInstanceByKey",
+            List.of("businessKey", "setVariables", "processDefinitionTenantId"),
+            Map.ofEntries(
+                Map.entry(
+                    "createProcessInstanceByKey",
+                    ".bpmnProcessId(#{bpmnProcessId:any(java.lang.String)})"),
+                Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
+                Map.entry("processDefinitionTenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
+            """
+              #{camundaClient:any(io.camunda.client.CamundaClient)}
+                  .newCreateInstanceCommand()
+              """,
+            ".latestVersion()",
+            """
+                  .send()
+                  .join();
+              """,
+            "io.camunda.client.api.response.ProcessInstanceEvent",
+            Collections.emptyList()),
+        BuilderSpecFactory.createBuilderSpecs(
+            "org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder execute(..)",
+            "createProcessInstanceById",
+            List.of("businessKey", "setVariables", "processDefinitionTenantId"),
+            Map.ofEntries(
+                Map.entry(
+                    "createProcessInstanceById",
+                    ".processDefinitionKey(Long.valueOf(#{processDefinitionKey:any(java.lang.String)}))"),
+                Map.entry("setVariables", ".variables(#{variables:any(java.util.Map)})"),
+                Map.entry("processDefinitionTenantId", ".tenantId(#{tenantId:any(java.lang.String)})")),
+            """
+              #{camundaClient:any(io.camunda.client.CamundaClient)}
+                  .newCreateInstanceCommand()
+              """,
+            "",
+            """
+                  .send()
+                  .join();
+              """,
+            "io.camunda.client.api.response.ProcessInstanceEvent",
+            Collections.emptyList()));
   }
 
   /*
@@ -729,21 +751,24 @@ public class MigrateStartProcessInstanceMethodsRecipe extends AbstractMigrationR
   protected List<ReplacementUtils.ReturnReplacementSpec> returnMethodInvocations() {
     return List.of(
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.runtime.Execution getProcessInstanceId()"),
-            RecipeUtils.createSimpleJavaTemplate(
+            new SpecMethodMatcher(
+                "org.camunda.bpm.engine.runtime.Execution getProcessInstanceId()"),
+            RecipeUtils.lazyJavaTemplate(
                 "String.valueOf(#{any()}.getProcessInstanceKey())")),
         new ReplacementUtils.ReturnReplacementSpec(
             // this does not work for message correlation
-            new MethodMatcher("org.camunda.bpm.engine.runtime.Execution getProcessDefinitionId()"),
-            RecipeUtils.createSimpleJavaTemplate(
+            new SpecMethodMatcher(
+                "org.camunda.bpm.engine.runtime.Execution getProcessDefinitionId()"),
+            RecipeUtils.lazyJavaTemplate(
                 "String.valueOf(#{any()}.getProcessDefinitionKey())")),
         new ReplacementUtils.ReturnReplacementSpec(
             // this does not work for message correlation
-            new MethodMatcher("org.camunda.bpm.engine.runtime.Execution getProcessDefinitionKey()"),
-            RecipeUtils.createSimpleJavaTemplate("String.valueOf(#{any()}.getBpmnProcessId())")),
+            new SpecMethodMatcher(
+                "org.camunda.bpm.engine.runtime.Execution getProcessDefinitionKey()"),
+            RecipeUtils.lazyJavaTemplate("String.valueOf(#{any()}.getBpmnProcessId())")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.runtime.Execution getTenantId()"),
-            RecipeUtils.createSimpleJavaTemplate("String.valueOf(#{any()}.getTenantId())")));
+            new SpecMethodMatcher("org.camunda.bpm.engine.runtime.Execution getTenantId()"),
+            RecipeUtils.lazyJavaTemplate("String.valueOf(#{any()}.getTenantId())")));
   }
 
   @Override
@@ -1,16 +1,57 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
 import org.camunda.migration.rewrite.recipes.utils.BuilderSpecFactory;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.*;
 
 public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
 
+  /** The page size of {@code unlimitedList()} searches if no page size is set. */
+  static final int DEFAULT_PAGE_SIZE = 100;
+
+  @Option(
+      displayName = "Non-blocking",
+      description =
+          "Return the pending `CompletionStage` of migrated calls from the enclosing method instead of blocking with `join()`, where the response is the result of a private method. Its callers in the file join the returned stage. Blocks if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean nonBlocking;
+
+  @Option(
+      displayName = "User task page size",
+      description =
+          "Search user tasks page by page with this page size for `list()`, as a lazily fetched `Stream` where the tasks are only consumed once as a stream, otherwise collected to a `List`. `unlimitedList()` is always searched page by page, with a page size of 100 if not set. `list()` reads a single page if not set.",
+      required = false,
+      example = "500")
+  private final @Nullable Integer userTaskPageSize;
+
+  /** Instantiates a new instance. */
+  public MigrateUserTaskMethodsRecipe() {
+    this(null, null);
+  }
+
+  @JsonCreator
+  public MigrateUserTaskMethodsRecipe(
+      @JsonProperty("nonBlocking") @Nullable Boolean nonBlocking,
+      @JsonProperty("userTaskPageSize") @Nullable Integer userTaskPageSize) {
+    this.nonBlocking = nonBlocking;
+    this.userTaskPageSize = userTaskPageSize;
+  }
+
   @Override
   public String getDisplayName() {
     return "Migrates user task related methods";
@@ -21,13 +62,21 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
     return "This recipe extends the abstract migration recipe with rules specific to handling user tasks.";
   }
 
+  @Override
+  protected List<Recipe> followUpRecipes() {
+    return Boolean.TRUE.equals(nonBlocking)
+        ? List.of(new ReplaceJoinWithCompletionStageRecipe())
+        : List.of();
+  }
+
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
     return Preconditions.or(
-        new UsesMethod<>("org.camunda.bpm.engine.TaskService createTaskQuery()", true),
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService claim(..)", true),
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService complete(..)", true),
-        new UsesMethod<>("org.camunda.bpm.engine.RuntimeService getVariable(..)", true));
+        CamundaUsageIndex.usesCamundaMethod("org.camunda.bpm.engine.TaskService createTaskQuery()"),
+        CamundaUsageIndex.usesCamundaMethod("org.camunda.bpm.engine.RuntimeService claim(..)"),
+        CamundaUsageIndex.usesCamundaMethod("org.camunda.bpm.engine.RuntimeService complete(..)"),
+        CamundaUsageIndex.usesCamundaMethod(
+            "org.camunda.bpm.engine.RuntimeService getVariable(..)"));
   }
 
   @Override
@@ -35,9 +84,9 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
             // "claim(String taskId, String userId)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.TaskService claim(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newUserTaskAssignCommand(Long.valueOf(#{taskId:any(java.lang.String)}))
@@ -54,8 +103,8 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
             // "complete(String taskId)"
-            new MethodMatcher("org.camunda.bpm.engine.TaskService complete(java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            new SpecMethodMatcher("org.camunda.bpm.engine.TaskService complete(java.lang.String)"),
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newUserTaskCompleteCommand(Long.valueOf(#{taskId:any(java.lang.String)}))
@@ -69,9 +118,9 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
             // "complete(String taskId, Map<String, Object> variables)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.TaskService complete(java.lang.String, java.util.Map)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newUserTaskCompleteCommand(Long.valueOf(#{taskId:any(java.lang.String)}))
@@ -88,9 +137,9 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
             Collections.emptyList()),
         new ReplacementUtils.SimpleReplacementSpec(
             // "getVariable(String taskId, String variableName)"
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.TaskService getVariable(java.lang.String, java.lang.String)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 """
                 #{camundaClient:any(io.camunda.client.CamundaClient)}
                     .newUserTaskVariableSearchRequest(Long.valueOf(#{taskId:any(java.lang.String)}))
@@ -111,31 +160,256 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
   }
 
 
+  private static final List<String> FILTER_METHODS = List.of("processDefinitionKey", "dueBefore");
+
+  private static final Map<String, String> FILTERS =
+      Map.ofEntries(
+          Map.entry(
+              "processDefinitionKey",
+              ".bpmnProcessId(#{processDefinitionKey:any(java.lang.String)})"),
+          Map.entry(
+              "dueBefore",
+              ".dueDate(dateTimeProperty -> dateTimeProperty.lt(#{date:any(java.util.Date)}.toInstant().atOffset(ZoneOffset.UTC)))"));
+
+  private static final Map<String, String> FILTER_IMPORTS =
+      Map.ofEntries(Map.entry("dueBefore", "java.time.ZoneOffset"));
+
   @Override
-  protected List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations() {
+  protected List<ReplacementUtils.BuilderSpecResolver> builderMethodInvocations() {
+    return List.of(
+        userTaskPageSize == null
+            ? BuilderSpecFactory.createBuilderFilterSpecs(
+                "org.camunda.bpm.engine.query.Query list()",
+                null,
+                FILTER_METHODS,
+                FILTERS,
+                """
+                #{camundaClient:any(io.camunda.client.CamundaClient)}
+                    .newUserTaskSearchRequest()
+                """,
+                """
+                    .send()
+                    .join()
+                    .items();
+                """,
+                "List<io.camunda.client.api.search.response.UserTask>",
+                Collections.emptyList(),
+                FILTER_IMPORTS)
+            : pagedSearchSpecs("org.camunda.bpm.engine.query.Query list()", userTaskPageSize),
+        pagedSearchSpecs(
+            "org.camunda.bpm.engine.query.Query unlimitedList()",
+            userTaskPageSize == null ? DEFAULT_PAGE_SIZE : userTaskPageSize));
+  }
+
+  /** Comment of the paged searches, by which their uses are found after the migration. */
+  static final String PAGED_SEARCH_COMMENT =
+      " user tasks are searched page by page while the stream is consumed";
+
+  /** Comment of the paged searches that are collected because the stream cannot be used. */
+  static final String COLLECTED_SEARCH_COMMENT =
+      " all pages are searched up front, consume the user tasks as a stream to search them page by page";
+
+  /**
+   * Searches all user tasks as a stream of pages, each page searched after the end cursor of the
+   * previous one. A page is only searched once the stream has consumed the previous one, so neither
+   * all tasks are held in memory nor tasks beyond the first page are missed. The request is built
+   * once, with its filter, and only its page is set for each search.
+   */
+  private static ReplacementUtils.LazyBuilderReplacementSpec pagedSearchSpecs(
+      String methodPattern, int pageSize) {
     return BuilderSpecFactory.createBuilderFilterSpecs(
-        "org.camunda.bpm.engine.query.Query list()",
+        methodPattern,
         null,
-        List.of("processDefinitionKey", "dueBefore"),
-        Map.ofEntries(
-            Map.entry(
-                "processDefinitionKey",
-                ".bpmnProcessId(#{processDefinitionKey:any(java.lang.String)})"),
-            Map.entry(
-                "dueBefore",
-                ".dueDate(dateTimeProperty -> dateTimeProperty.lt(#{date:any(java.util.Date)}.toInstant().atOffset(ZoneOffset.UTC)))")),
-        """
-        #{camundaClient:any(io.camunda.client.CamundaClient)}
-            .newUserTaskSearchRequest()
-        """,
-        """
-            .send()
-            .join()
-            .items();
-        """,
-        "List<io.camunda.client.api.search.response.UserTask>",
-        Collections.emptyList(),
-        Map.ofEntries(Map.entry("dueBefore", "java.time.ZoneOffset")));
+        FILTER_METHODS,
+        FILTERS,
+        filter ->
+            """
+            Stream.of(#{camundaClient:any(io.camunda.client.CamundaClient)}
+                    .newUserTaskSearchRequest()%1$s)
+                .flatMap(userTaskSearchRequest -> Stream.iterate(
+                        userTaskSearchRequest.page(searchPage -> searchPage.limit(%2$d)).send().join(),
+                        userTaskPage -> !userTaskPage.items().isEmpty(),
+                        userTaskPage -> userTaskSearchRequest
+                            .page(searchPage -> searchPage.limit(%2$d).after(userTaskPage.page().endCursor()))
+                            .send()
+                            .join()))
+                .flatMap(userTaskPage -> userTaskPage.items().stream());
+            """
+                .formatted(filter.isEmpty() ? "" : "\n" + filter.strip(), pageSize),
+        "java.util.stream.Stream<io.camunda.client.api.search.response.UserTask>",
+        List.of(PAGED_SEARCH_COMMENT),
+        List.of("java.util.stream.Stream"),
+        FILTER_IMPORTS);
+  }
+
+  /**
+   * Runs the migration, then keeps a {@code List} of user tasks wherever a paged search is used
+   * other than as a stream.
+   */
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
+    TreeVisitor<?, ExecutionContext> migration = super.getVisitor(totals);
+    return new TreeVisitor<Tree, ExecutionContext>() {
+
+      @Override
+      public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+        return migration.isAcceptable(sourceFile, ctx);
+      }
+
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        Tree migrated = migration.visit(tree, ctx);
+        return migrated == tree ? migrated : new PagedSearchUsesVisitor().visit(migrated, ctx);
+      }
+    };
+  }
+
+  /**
+   * Checks the uses of the paged searches. A stream can only be consumed once, so a variable stays
+   * a {@code Stream} only if it is unused or used once by {@code forEach(..)} or {@code stream()},
+   * the latter being dropped. Any other variable or expression is collected with {@code toList()}
+   * and keeps its {@code List} type, with a comment that all pages are searched up front.
+   */
+  private static class PagedSearchUsesVisitor extends JavaVisitor<ExecutionContext> {
+
+    private final Set<UUID> collectedDeclarations = new HashSet<>();
+
+    // stream() invocations on a paged search variable, replaced by the variable
+    private final Set<UUID> droppedInvocations = new HashSet<>();
+
+    @Override
+    public J visitBlock(J.Block block, ExecutionContext ctx) {
+      List<Statement> statements = block.getStatements();
+      for (int i = 0; i < statements.size(); i++) {
+        if (statements.get(i) instanceof J.VariableDeclarations declarations
+            && isPagedSearch(declarations.getComments())) {
+          String name = declarations.getVariables().get(0).getSimpleName();
+          UsesCounter counter = new UsesCounter(name);
+          statements.subList(i + 1, statements.size()).forEach(s -> counter.visit(s, ctx));
+          if (counter.otherUses == 0 && counter.streamUses.size() <= 1) {
+            counter.streamUses.stream()
+                .filter(use -> use.getSimpleName().equals("stream"))
+                .forEach(use -> droppedInvocations.add(use.getId()));
+          } else {
+            collectedDeclarations.add(declarations.getId());
+          }
+        }
+      }
+      return super.visitBlock(block, ctx);
+    }
+
+    @Override
+    public J visitVariableDeclarations(
+        J.VariableDeclarations declarations, ExecutionContext ctx) {
+      if (!collectedDeclarations.contains(declarations.getId())) {
+        return super.visitVariableDeclarations(declarations, ctx);
+      }
+      J.VariableDeclarations.NamedVariable variable = declarations.getVariables().get(0);
+      J.VariableDeclarations collected =
+          RecipeUtils.createSimpleJavaTemplate(
+                  (declarations.getModifiers().isEmpty()
+                          ? ""
+                          : declarations.getModifiers().stream()
+                              .map(J.Modifier::toString)
+                              .collect(Collectors.joining(" ", "", " ")))
+                      + "List<UserTask> "
+                      + variable.getSimpleName()
+                      + " = #{any(java.util.stream.Stream)}\n.toList()",
+                  "java.util.List",
+                  "io.camunda.client.api.search.response.UserTask")
+              .apply(
+                  getCursor(), declarations.getCoordinates().replace(), variable.getInitializer());
+      maybeAddImport("java.util.List");
+      maybeRemoveImport("java.util.stream.Stream");
+      return autoFormat(collected.withComments(collectedComments(declarations)), ctx);
+    }
+
+    @Override
+    public J visitMethodInvocation(J.MethodInvocation invocation, ExecutionContext ctx) {
+      if (!(super.visitMethodInvocation(invocation, ctx) instanceof J.MethodInvocation visited)) {
+        return invocation;
+      }
+      if (droppedInvocations.contains(invocation.getId()) && visited.getSelect() != null) {
+        return visited.getSelect().withPrefix(visited.getPrefix());
+      }
+      if (visited.getSelect() instanceof J.MethodInvocation select
+          && isPagedSearch(select.getComments())
+          && visited.getSimpleName().equals("stream")) {
+        return select.withPrefix(visited.getPrefix());
+      }
+      if (!isPagedSearch(visited.getComments())
+          || getCursor().getParentTreeCursor().getValue() instanceof J.MethodInvocation parent
+              && parent.getSelect() == invocation
+              && (parent.getSimpleName().equals("forEach")
+                  || parent.getSimpleName().equals("stream"))) {
+        return visited;
+      }
+      J.MethodInvocation collected =
+          RecipeUtils.createSimpleJavaTemplate("#{any(java.util.stream.Stream)}\n.toList()")
+              .apply(
+                  getCursor(),
+                  visited.getCoordinates().replace(),
+                  visited.withComments(Collections.emptyList()));
+      return autoFormat(
+          collected.withComments(collectedComments(visited)),
+          ctx,
+          getCursor().getParentOrThrow());
+    }
+
+    private static boolean isPagedSearch(List<Comment> comments) {
+      return comments.stream()
+          .anyMatch(
+              comment ->
+                  comment instanceof TextComment text
+                      && text.getText().equals(PAGED_SEARCH_COMMENT));
+    }
+
+    private static List<Comment> collectedComments(J tree) {
+      return tree.getComments().stream()
+          .map(
+              comment ->
+                  comment instanceof TextComment text
+                          && text.getText().equals(PAGED_SEARCH_COMMENT)
+                      ? text.withText(COLLECTED_SEARCH_COMMENT)
+                      : comment)
+          .toList();
+    }
+  }
+
+  /** Counts the uses of a variable, telling uses as a stream from any other use. */
+  private static class UsesCounter extends JavaIsoVisitor<ExecutionContext> {
+
+    private final String name;
+
+    private final List<J.MethodInvocation> streamUses = new ArrayList<>();
+
+    private int otherUses;
+
+    UsesCounter(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public J.MethodInvocation visitMethodInvocation(
+        J.MethodInvocation invocation, ExecutionContext ctx) {
+      if (invocation.getSelect() instanceof J.Identifier select
+          && select.getSimpleName().equals(name)
+          && (invocation.getSimpleName().equals("forEach")
+              || invocation.getSimpleName().equals("stream"))) {
+        streamUses.add(invocation);
+        invocation.getArguments().forEach(argument -> visit(argument, ctx));
+        return invocation;
+      }
+      return super.visitMethodInvocation(invocation, ctx);
+    }
+
+    @Override
+    public J.Identifier visitIdentifier(J.Identifier identifier, ExecutionContext ctx) {
+      if (identifier.getSimpleName().equals(name)) {
+        otherUses++;
+      }
+      return identifier;
+    }
   }
 
   /*
@@ -198,24 +472,24 @@ public class MigrateUserTaskMethodsRecipe extends AbstractMigrationRecipe {
   protected List<ReplacementUtils.ReturnReplacementSpec> returnMethodInvocations() {
     return List.of(
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getName()"),
-            RecipeUtils.createSimpleJavaTemplate("#{any()}.getName()")),
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getName()"),
+            RecipeUtils.lazyJavaTemplate("#{any()}.getName()")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getProcessInstanceId()"),
-            RecipeUtils.createSimpleJavaTemplate(
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getProcessInstanceId()"),
+            RecipeUtils.lazyJavaTemplate(
                 "String.valueOf(#{any()}.getProcessInstanceKey())")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getTenantId()"),
-            RecipeUtils.createSimpleJavaTemplate("#{any()}.getTenantId()")),
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getTenantId()"),
+            RecipeUtils.lazyJavaTemplate("#{any()}.getTenantId()")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getId()"),
-            RecipeUtils.createSimpleJavaTemplate("String.valueOf(#{any()}.getUserTaskKey())")),
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getId()"),
+            RecipeUtils.lazyJavaTemplate("String.valueOf(#{any()}.getUserTaskKey())")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getAssignee()"),
-            RecipeUtils.createSimpleJavaTemplate("#{any()}.getAssignee()")),
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getAssignee()"),
+            RecipeUtils.lazyJavaTemplate("#{any()}.getAssignee()")),
         new ReplacementUtils.ReturnReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.task.Task getDueDate()"),
-            RecipeUtils.createSimpleJavaTemplate(
+            new SpecMethodMatcher("org.camunda.bpm.engine.task.Task getDueDate()"),
+            RecipeUtils.lazyJavaTemplate(
                 "Date.from(Instant.parse((#{any()}.getDueDate()))",
                 "java.util.Date",
                 "java.time.Instant"),
@@ -1,10 +1,10 @@
 package org.camunda.migration.rewrite.recipes.client;
 
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 
 public class PrepareCamundaClientDependencyRecipe extends Recipe {
@@ -31,11 +31,11 @@ public class PrepareCamundaClientDependencyRecipe extends Recipe {
     TreeVisitor<?, ExecutionContext> check =
         Preconditions.and(
             Preconditions.or(
-                new UsesType<>("org.camunda.bpm.engine.ProcessEngine", true),
-                new UsesType<>("org.camunda.bpm.engine.RuntimeService", true),
-                new UsesType<>("org.camunda.bpm.engine.TaskService", true),
-                new UsesType<>("org.camunda.bpm.engine.RepositoryService", true)),
-            Preconditions.not(new UsesType<>(CAMUNDA_CLIENT, true)));
+                CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.ProcessEngine"),
+                CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.RuntimeService"),
+                CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.TaskService"),
+                CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.RepositoryService")),
+            Preconditions.not(CamundaUsageIndex.usesCamundaType(CAMUNDA_CLIENT)));
 
     return Preconditions.check(
         check,
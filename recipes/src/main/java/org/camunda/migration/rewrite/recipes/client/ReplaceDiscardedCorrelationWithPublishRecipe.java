@@ -0,0 +1,168 @@
+package org.camunda.migration.rewrite.recipes.client;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+
+/**
+ * Publishes messages whose correlation result is discarded instead of correlating them. {@code
+ * newCorrelateMessageCommand()} waits until the message is correlated, a published message is
+ * buffered by the broker and correlated later, so the sender neither blocks nor makes a round-trip
+ * per message.
+ *
+ * <p>Only stand-alone statements {@code client.newCorrelateMessageCommand()...send().join();} are
+ * replaced with {@code client.newPublishMessageCommand()...send();}. The steps of the command are
+ * kept, a {@code timeToLive} is added if set. Errors of the publication are no longer thrown to the
+ * sender, the statements are marked with a hint.
+ */
+public class ReplaceDiscardedCorrelationWithPublishRecipe extends Recipe {
+
+  private static final String CORRELATE =
+      "io.camunda.client.CamundaClient newCorrelateMessageCommand()";
+
+  private static final MethodMatcher CORRELATE_MATCHER = new MethodMatcher(CORRELATE);
+
+  private static final MethodMatcher JOIN_MATCHER =
+      new MethodMatcher("io.camunda.client.api.CamundaFuture join()");
+
+  private static final MethodMatcher SEND_MATCHER =
+      new MethodMatcher("io.camunda.client.api.command.FinalCommandStep send()", true);
+
+  private static final String CORRELATE_HINT =
+      " Hint: In Camunda 8 messages could also be correlated asynchronously";
+
+  private static final String PUBLISH_HINT =
+      " Hint: the message is published without waiting for its correlation, errors are not thrown"
+          + " here";
+
+  @Option(
+      displayName = "Time to live",
+      description =
+          "ISO-8601 duration the published messages are buffered for until they are correlated. Uses the default of the client if not set.",
+      required = false,
+      example = "PT10M")
+  private final @Nullable String timeToLive;
+
+  /** Instantiates a new instance. */
+  public ReplaceDiscardedCorrelationWithPublishRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public ReplaceDiscardedCorrelationWithPublishRecipe(
+      @JsonProperty("timeToLive") @Nullable String timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return "Publish messages whose correlation result is discarded";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Replaces stand-alone `newCorrelateMessageCommand()...send().join()` statements with a non-blocking `newPublishMessageCommand()...send()`, optionally with a `timeToLive`.";
+  }
+
+  @Override
+  public Validated<Object> validate() {
+    return super.validate()
+        .and(
+            Validated.test(
+                "timeToLive",
+                "must be an ISO-8601 duration",
+                timeToLive,
+                ReplaceDiscardedCorrelationWithPublishRecipe::isDuration));
+  }
+
+  private static boolean isDuration(@Nullable String value) {
+    if (value == null) {
+      return true;
+    }
+    try {
+      Duration.parse(value);
+      return true;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor() {
+    return Preconditions.check(
+        CamundaUsageIndex.usesCamundaMethod(CORRELATE),
+        new JavaIsoVisitor<>() {
+
+          @Override
+          public J.MethodInvocation visitMethodInvocation(
+              J.MethodInvocation invocation, ExecutionContext ctx) {
+            J.MethodInvocation visited = super.visitMethodInvocation(invocation, ctx);
+            if (!(getCursor().getParentTreeCursor().getValue() instanceof J.Block)
+                || !JOIN_MATCHER.matches(visited)
+                || !(visited.getSelect() instanceof J.MethodInvocation send)
+                || !SEND_MATCHER.matches(send)) {
+              return visited;
+            }
+
+            // the steps between newCorrelateMessageCommand() and send(), in call order
+            Deque<J.MethodInvocation> steps = new ArrayDeque<>();
+            Expression current = send.getSelect();
+            while (current instanceof J.MethodInvocation step && !CORRELATE_MATCHER.matches(step)) {
+              steps.push(step);
+              current = step.getSelect();
+            }
+            if (!(current instanceof J.MethodInvocation correlate)
+                || correlate.getSelect() == null) {
+              return visited;
+            }
+
+            StringBuilder code =
+                new StringBuilder("#{any(io.camunda.client.CamundaClient)}")
+                    .append("\n.newPublishMessageCommand()");
+            List<Object> parameters = new ArrayList<>();
+            parameters.add(correlate.getSelect());
+            for (J.MethodInvocation step : steps) {
+              JavaType.Method stepType = step.getMethodType();
+              if (stepType == null) {
+                return visited;
+              }
+              StringJoiner arguments = new StringJoiner(", ", "(", ")");
+              for (int i = 0; i < stepType.getParameterTypes().size(); i++) {
+                arguments.add(
+                    "#{any(" + TypeUtils.toString(stepType.getParameterTypes().get(i)) + ")}");
+                parameters.add(step.getArguments().get(i));
+              }
+              code.append("\n.").append(step.getSimpleName()).append(arguments);
+            }
+            if (timeToLive != null) {
+              code.append("\n.timeToLive(Duration.parse(\"")
+                  .append(Duration.parse(timeToLive))
+                  .append("\"))");
+              maybeAddImport("java.time.Duration");
+            }
+            code.append("\n.send()");
+
+            J.MethodInvocation published =
+                RecipeUtils.createSimpleJavaTemplate(code.toString(), "java.time.Duration")
+                    .apply(getCursor(), visited.getCoordinates().replace(), parameters.toArray());
+
+            List<Comment> comments = new ArrayList<>(visited.getComments());
+            comments.removeIf(
+                comment ->
+                    comment instanceof TextComment text && text.getText().equals(CORRELATE_HINT));
+            comments.add(RecipeUtils.createSimpleComment(visited, PUBLISH_HINT));
+            return maybeAutoFormat(
+                visited, published.withPrefix(visited.getPrefix()).withComments(comments), ctx);
+          }
+        });
+  }
+}
@@ -0,0 +1,472 @@
+package org.camunda.migration.rewrite.recipes.client;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
+import org.camunda.migration.rewrite.recipes.utils.TypeName;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+/**
+ * Returns the pending response of a Camunda 8 client call instead of blocking on it with {@code
+ * join()}. The return type of the enclosing method is widened to a {@code CompletionStage}, so
+ * callers compose the response instead of tying up their thread until the gateway answers.
+ *
+ * <p>Only methods whose single {@code join()} is their result are changed. As the signature changes,
+ * they also have to be private and without annotations a framework could call them by, so all
+ * their callers are in the same file:
+ *
+ * <ul>
+ *   <li>{@code return command.send().join();} returns {@code command.send()},
+ *   <li>{@code command.send().join();} ending a void method returns {@code command.send()},
+ *   <li>{@code T response = command.send().join(); return expression;} returns {@code
+ *       command.send().thenApply(response -> expression)}.
+ * </ul>
+ *
+ * A private method whose only return is {@code return changed(..);} returns the stage in turn. All
+ * other calls of the changed methods join the stage with {@code toCompletableFuture().join()}, so
+ * they keep their order and still see the errors of the gateway. Methods referenced by a method
+ * reference are left as they are.
+ */
+public class ReplaceJoinWithCompletionStageRecipe extends Recipe {
+
+  private static final String JOIN = "io.camunda.client.api.CamundaFuture join()";
+
+  private static final MethodMatcher JOIN_MATCHER = new MethodMatcher(JOIN);
+
+  private static final String COMPLETION_STAGE = "java.util.concurrent.CompletionStage";
+
+  private static final String WIDENED_METHODS = "WIDENED_METHODS";
+
+  private static final String HINT =
+      " Hint: returns the pending response instead of joining it, compose it where it is joined";
+
+  /** Instantiates a new instance. */
+  public ReplaceJoinWithCompletionStageRecipe() {}
+
+  @Override
+  public String getDisplayName() {
+    return "Return Camunda 8 client responses as CompletionStage";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Replaces `send().join()` of Camunda 8 client commands with `send()` where the response is the result of the enclosing method, and widens the return type of the method to `CompletionStage`.";
+  }
+
+  /** How the single {@code join()} of a method is replaced. */
+  private enum Shape {
+    RETURN,
+    VOID_STATEMENT,
+    DECLARATION_THEN_RETURN,
+    /** Returns the stage of another changed method. */
+    FORWARD
+  }
+
+  /** A changed method, with the type its stage completes with. */
+  private record Widened(Shape shape, String responseType) {}
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor() {
+    return Preconditions.check(
+        CamundaUsageIndex.usesCamundaMethod(JOIN),
+        new JavaIsoVisitor<>() {
+
+          @Override
+          public J.CompilationUnit visitCompilationUnit(
+              J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            Map<String, Widened> widened = widenedMethods(compilationUnit);
+            if (widened.isEmpty()) {
+              return compilationUnit;
+            }
+            getCursor().putMessage(WIDENED_METHODS, widened);
+            return super.visitCompilationUnit(compilationUnit, ctx);
+          }
+
+          @Override
+          public J.MethodInvocation visitMethodInvocation(
+              J.MethodInvocation invocation, ExecutionContext ctx) {
+            J.MethodInvocation visited = super.visitMethodInvocation(invocation, ctx);
+            Map<String, Widened> widenedMethods =
+                getCursor().getNearestMessage(WIDENED_METHODS, Map.of());
+            Widened widened = widenedMethods.get(signatureOf(visited.getMethodType()));
+            if (widened == null || isForwarded(getCursor(), widenedMethods)) {
+              return visited;
+            }
+            return RecipeUtils.createSimpleJavaTemplate(
+                    "#{any(java.util.concurrent.CompletionStage<"
+                        + widened.responseType()
+                        + ">)}.toCompletableFuture().join()")
+                .apply(getCursor(), visited.getCoordinates().replace(), visited);
+          }
+
+          @Override
+          public J.MethodDeclaration visitMethodDeclaration(
+              J.MethodDeclaration method, ExecutionContext ctx) {
+            J.MethodDeclaration visited = super.visitMethodDeclaration(method, ctx);
+
+            J.Block body = visited.getBody();
+            Map<String, Widened> widenedMethods =
+                getCursor().getNearestMessage(WIDENED_METHODS, Map.of());
+            Widened widened = widenedMethods.get(signatureOf(method.getMethodType()));
+            if (body == null || widened == null) {
+              return visited;
+            }
+            Shape shape = widened.shape();
+
+            List<Statement> statements = body.getStatements();
+            Statement last = statements.get(statements.size() - 1);
+            TypeTree returnType = visited.getReturnTypeExpression();
+            JavaType.Method methodType = visited.getMethodType();
+            assert returnType != null;
+
+            J.Block newBody;
+            TypeTree responseType;
+            switch (shape) {
+              case RETURN -> {
+                J.Return aReturn = (J.Return) last;
+                J.MethodInvocation join = (J.MethodInvocation) aReturn.getExpression();
+                newBody =
+                    body.withStatements(
+                        ListUtils.mapLast(
+                            statements,
+                            statement -> aReturn.withExpression(sendOf(join, join.getPrefix()))));
+                responseType = returnType.withPrefix(Space.EMPTY);
+              }
+              case VOID_STATEMENT -> {
+                J.MethodInvocation join = (J.MethodInvocation) last;
+                JavaType.FullyQualified response =
+                    (JavaType.FullyQualified) join.getMethodType().getReturnType();
+                newBody =
+                    body.withStatements(
+                        ListUtils.mapLast(
+                            statements,
+                            statement ->
+                                new J.Return(
+                                    Tree.randomId(),
+                                    join.getPrefix(),
+                                    Markers.EMPTY,
+                                    sendOf(join, Space.SINGLE_SPACE))));
+                maybeAddImport(response.getFullyQualifiedName());
+                responseType =
+                    RecipeUtils.createSimpleIdentifier(
+                        response.getClassName(), response.getFullyQualifiedName());
+              }
+              case DECLARATION_THEN_RETURN -> {
+                J.VariableDeclarations declarations = (J.VariableDeclarations) statements.get(0);
+                J.VariableDeclarations.NamedVariable response = declarations.getVariables().get(0);
+                J.MethodInvocation join = (J.MethodInvocation) response.getInitializer();
+                J.Return aReturn = (J.Return) last;
+                Expression result = Objects.requireNonNull(aReturn.getExpression());
+                J.MethodInvocation composed =
+                    RecipeUtils.createSimpleJavaTemplate(
+                            "#{any(io.camunda.client.api.CamundaFuture<"
+                                + TypeUtils.toString(Objects.requireNonNull(join.getType()))
+                                + ">)}.thenApply("
+                                + response.getSimpleName()
+                                + " -> #{any("
+                                + TypeUtils.toString(Objects.requireNonNull(result.getType()))
+                                + ")})")
+                        .apply(
+                            new Cursor(new Cursor(new Cursor(getCursor(), body), aReturn), result),
+                            result.getCoordinates().replace(),
+                            sendOf(join, Space.EMPTY),
+                            result);
+                newBody =
+                    body.withStatements(
+                        List.of(
+                            aReturn.withExpression(composed.withPrefix(result.getPrefix()))
+                                .withPrefix(declarations.getPrefix())
+                                .withComments(
+                                    ListUtils.concatAll(
+                                        declarations.getComments(), aReturn.getComments()))));
+                responseType =
+                    returnType instanceof J.Primitive primitive
+                        ? boxed(primitive)
+                        : returnType.withPrefix(Space.EMPTY);
+              }
+              case FORWARD -> {
+                newBody = body;
+                responseType =
+                    returnType instanceof J.Primitive primitive
+                        ? boxed(primitive)
+                        : returnType.withPrefix(Space.EMPTY);
+              }
+              default -> throw new IllegalStateException("Unexpected shape " + shape);
+            }
+
+            maybeAddImport(COMPLETION_STAGE);
+            JavaType.Parameterized completionStage =
+                new JavaType.Parameterized(
+                    null,
+                    TypeName.of(COMPLETION_STAGE).shallowClass(),
+                    List.of(Objects.requireNonNull(responseType.getType())));
+            J.ParameterizedType newReturnType =
+                new J.ParameterizedType(
+                    Tree.randomId(),
+                    returnType.getPrefix(),
+                    Markers.EMPTY,
+                    RecipeUtils.createSimpleIdentifier("CompletionStage", COMPLETION_STAGE),
+                    JContainer.build(
+                        Space.EMPTY,
+                        List.of(JRightPadded.build((Expression) responseType)),
+                        Markers.EMPTY),
+                    completionStage);
+
+            return visited
+                .withBody(newBody)
+                .withReturnTypeExpression(newReturnType)
+                .withMethodType(
+                    methodType == null ? null : methodType.withReturnType(completionStage))
+                .withComments(
+                    ListUtils.concat(
+                        visited.getComments(), RecipeUtils.createSimpleComment(visited, HINT)));
+          }
+        });
+  }
+
+  /** The shape of the method's single {@code join()}, or null if the method is left as it is. */
+  private static @Nullable Shape shapeOf(J.MethodDeclaration method) {
+    J.Block body = method.getBody();
+    TypeTree returnType = method.getReturnTypeExpression();
+    if (body == null
+        || body.getStatements().isEmpty()
+        || returnType == null
+        || !isChangeable(method)) {
+      return null;
+    }
+
+    // exactly one join, the body's only return, and no assignments a lambda could not capture
+    AtomicInteger joins = new AtomicInteger();
+    AtomicInteger returns = new AtomicInteger();
+    AtomicInteger assignments = new AtomicInteger();
+    new JavaIsoVisitor<Integer>() {
+      @Override
+      public J.MethodInvocation visitMethodInvocation(J.MethodInvocation invocation, Integer p) {
+        if (JOIN_MATCHER.matches(invocation)) {
+          joins.incrementAndGet();
+        }
+        return super.visitMethodInvocation(invocation, p);
+      }
+
+      @Override
+      public J.Return visitReturn(J.Return aReturn, Integer p) {
+        returns.incrementAndGet();
+        return super.visitReturn(aReturn, p);
+      }
+
+      @Override
+      public J.Assignment visitAssignment(J.Assignment assignment, Integer p) {
+        assignments.incrementAndGet();
+        return super.visitAssignment(assignment, p);
+      }
+
+      @Override
+      public J.AssignmentOperation visitAssignmentOperation(
+          J.AssignmentOperation assignment, Integer p) {
+        assignments.incrementAndGet();
+        return super.visitAssignmentOperation(assignment, p);
+      }
+    }.visit(body, 0);
+    if (joins.get() != 1) {
+      return null;
+    }
+
+    List<Statement> statements = body.getStatements();
+    Statement last = statements.get(statements.size() - 1);
+    JavaType declared = returnType.getType();
+
+    if (last instanceof J.Return aReturn
+        && returns.get() == 1
+        && isJoin(aReturn.getExpression())
+        && TypeUtils.isOfType(declared, aReturn.getExpression().getType())) {
+      return Shape.RETURN;
+    }
+
+    if (isJoin(last)
+        && returns.get() == 0
+        && declared == JavaType.Primitive.Void
+        && ((J.MethodInvocation) last).getMethodType() != null
+        && ((J.MethodInvocation) last).getMethodType().getReturnType() instanceof JavaType.Class) {
+      return Shape.VOID_STATEMENT;
+    }
+
+    if (statements.size() == 2
+        && statements.get(0) instanceof J.VariableDeclarations declarations
+        && declarations.getVariables().size() == 1
+        && isJoin(declarations.getVariables().get(0).getInitializer())
+        && last instanceof J.Return aReturn
+        && aReturn.getExpression() != null
+        && aReturn.getExpression().getType() != null
+        && returns.get() == 1
+        && assignments.get() == 0
+        && declared != JavaType.Primitive.Void
+        && (!(returnType instanceof J.Primitive primitive) || boxedName(primitive) != null)) {
+      return Shape.DECLARATION_THEN_RETURN;
+    }
+    return null;
+  }
+
+  /**
+   * The methods of the file that are changed, by signature. Methods with a {@link Shape} come first,
+   * then the methods forwarding their stage, until no further method forwards one.
+   */
+  private static Map<String, Widened> widenedMethods(J.CompilationUnit compilationUnit) {
+    Set<String> referenced = new HashSet<>();
+    List<J.MethodDeclaration> methods = new ArrayList<>();
+    new JavaIsoVisitor<Integer>() {
+      @Override
+      public J.MemberReference visitMemberReference(J.MemberReference reference, Integer p) {
+        referenced.add(signatureOf(reference.getMethodType()));
+        return super.visitMemberReference(reference, p);
+      }
+
+      @Override
+      public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+        methods.add(method);
+        return super.visitMethodDeclaration(method, p);
+      }
+    }.visit(compilationUnit, 0);
+
+    Map<String, Widened> widened = new HashMap<>();
+    for (J.MethodDeclaration method : methods) {
+      Shape shape = shapeOf(method);
+      String signature = signatureOf(method.getMethodType());
+      if (shape != null && !referenced.contains(signature)) {
+        widened.put(signature, new Widened(shape, responseTypeOf(method, shape)));
+      }
+    }
+    boolean added = !widened.isEmpty();
+    while (added) {
+      added = false;
+      for (J.MethodDeclaration method : methods) {
+        String signature = signatureOf(method.getMethodType());
+        Widened forwarded = forwardedBy(method, widened);
+        if (forwarded != null
+            && !widened.containsKey(signature)
+            && !referenced.contains(signature)) {
+          widened.put(signature, new Widened(Shape.FORWARD, forwarded.responseType()));
+          added = true;
+        }
+      }
+    }
+    return widened;
+  }
+
+  /**
+   * The changed method whose stage the method returns, if the method can return the stage in turn:
+   * its only return ends the body and returns the call of the changed method, with the same type.
+   */
+  private static @Nullable Widened forwardedBy(
+      J.MethodDeclaration method, Map<String, Widened> widened) {
+    J.Block body = method.getBody();
+    TypeTree returnType = method.getReturnTypeExpression();
+    if (!isChangeable(method)
+        || body == null
+        || body.getStatements().isEmpty()
+        || returnType == null
+        || returnType.getType() == JavaType.Primitive.Void
+        || !(body.getStatements().get(body.getStatements().size() - 1) instanceof J.Return aReturn)
+        || !(aReturn.getExpression() instanceof J.MethodInvocation invocation)
+        || invocation.getMethodType() == null
+        || !TypeUtils.isOfType(returnType.getType(), invocation.getMethodType().getReturnType())
+        || (returnType instanceof J.Primitive primitive && boxedName(primitive) == null)) {
+      return null;
+    }
+    AtomicInteger returns = new AtomicInteger();
+    new JavaIsoVisitor<Integer>() {
+      @Override
+      public J.Return visitReturn(J.Return nested, Integer p) {
+        returns.incrementAndGet();
+        return super.visitReturn(nested, p);
+      }
+    }.visit(body, 0);
+    return returns.get() == 1 ? widened.get(signatureOf(invocation.getMethodType())) : null;
+  }
+
+  /** True if the invocation at the cursor is the return of a method forwarding its stage. */
+  private static boolean isForwarded(Cursor invocation, Map<String, Widened> widened) {
+    Cursor aReturn = invocation.getParentTreeCursor();
+    if (!(aReturn.getValue() instanceof J.Return)) {
+      return false;
+    }
+    Cursor method = aReturn.getParentTreeCursor().getParentTreeCursor();
+    if (!(method.getValue() instanceof J.MethodDeclaration declaration)) {
+      return false;
+    }
+    Widened forwarding = widened.get(signatureOf(declaration.getMethodType()));
+    return forwarding != null && forwarding.shape() == Shape.FORWARD;
+  }
+
+  /** The fully qualified type the stage of the method completes with. */
+  private static String responseTypeOf(J.MethodDeclaration method, Shape shape) {
+    TypeTree returnType = Objects.requireNonNull(method.getReturnTypeExpression());
+    if (shape == Shape.VOID_STATEMENT) {
+      J.Block body = Objects.requireNonNull(method.getBody());
+      J.MethodInvocation join =
+          (J.MethodInvocation) body.getStatements().get(body.getStatements().size() - 1);
+      return TypeUtils.toString(Objects.requireNonNull(join.getMethodType()).getReturnType());
+    }
+    return returnType instanceof J.Primitive primitive
+        ? "java.lang." + boxedName(primitive)
+        : TypeUtils.toString(Objects.requireNonNull(returnType.getType()));
+  }
+
+  /** Private methods without annotations, which only the file can call. */
+  private static boolean isChangeable(J.MethodDeclaration method) {
+    JavaType.Method methodType = method.getMethodType();
+    return methodType != null
+        && !method.isConstructor()
+        && method.hasModifier(J.Modifier.Type.Private)
+        && method.getLeadingAnnotations().isEmpty()
+        && !TypeUtils.isOverride(methodType);
+  }
+
+  private static String signatureOf(JavaType.@Nullable Method methodType) {
+    if (methodType == null) {
+      return "";
+    }
+    StringJoiner parameters = new StringJoiner(",", "(", ")");
+    methodType.getParameterTypes().forEach(type -> parameters.add(TypeUtils.toString(type)));
+    return methodType.getDeclaringType().getFullyQualifiedName()
+        + "#"
+        + methodType.getName()
+        + parameters;
+  }
+
+  private static boolean isJoin(@Nullable J tree) {
+    return tree instanceof J.MethodInvocation invocation
+        && JOIN_MATCHER.matches(invocation)
+        && invocation.getSelect() instanceof J.MethodInvocation;
+  }
+
+  /** The {@code send()} the join was called on. */
+  private static Expression sendOf(J.MethodInvocation join, Space prefix) {
+    return Objects.requireNonNull(join.getSelect()).withPrefix(prefix);
+  }
+
+  private static @Nullable String boxedName(J.Primitive primitive) {
+    return switch (primitive.getType()) {
+      case Boolean -> "Boolean";
+      case Byte -> "Byte";
+      case Char -> "Character";
+      case Double -> "Double";
+      case Float -> "Float";
+      case Int -> "Integer";
+      case Long -> "Long";
+      case Short -> "Short";
+      default -> null;
+    };
+  }
+
+  private static J.Identifier boxed(J.Primitive primitive) {
+    String name = Objects.requireNonNull(boxedName(primitive));
+    return RecipeUtils.createSimpleIdentifier(name, "java.lang." + name);
+  }
+}
@@ -1,22 +1,45 @@
 package org.camunda.migration.rewrite.recipes.delegate;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
+import org.camunda.migration.rewrite.recipes.sharedRecipes.ReplaceJobVariableReadsWithParametersRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.DeferredFormatting;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMatcherProvider;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
 public class MigrateExecutionRecipe extends Recipe {
 
+  @Option(
+      displayName = "Variable parameters",
+      description =
+          "Bind the variables the job worker reads to `@Variable` parameters, instead of reading them with `job.getVariable(name)`, which deserializes all variables of the job on every call. Reads them from the job if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean variableParameters;
+
   /** Instantiates a new instance. */
-  public MigrateExecutionRecipe() {}
+  public MigrateExecutionRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public MigrateExecutionRecipe(@JsonProperty("variableParameters") @Nullable Boolean variableParameters) {
+    this.variableParameters = variableParameters;
+  }
 
   @Override
   public String getDisplayName() {
@@ -30,13 +53,22 @@ public class MigrateExecutionRecipe extends Recipe {
 
   @Override
   public List<Recipe> getRecipeList() {
-    return List.of(
-        new CopyDelegateToJobWorkerRecipe(),
-        new MigrateDelegateExecutionMethodsInJobWorker(),
-        new MigrateDelegateBPMNErrorAndExceptionInJobWorker());
+    List<Recipe> recipes =
+        new ArrayList<>(
+            List.of(
+                new CopyDelegateToJobWorkerRecipe(),
+                new MigrateDelegateExecutionMethodsInJobWorker(),
+                new MigrateDelegateBPMNErrorAndExceptionInJobWorker()));
+    if (Boolean.TRUE.equals(variableParameters)) {
+      recipes.add(new ReplaceJobVariableReadsWithParametersRecipe());
+    }
+    return recipes;
   }
 
-  private static class CopyDelegateToJobWorkerRecipe extends Recipe {
+  private static class CopyDelegateToJobWorkerRecipe
+      extends ScanningRecipe<MigrationMetrics.Totals> {
+
+    private final transient MigrationMetrics metrics = new MigrationMetrics(this);
 
     /** Instantiates a new instance. */
     public CopyDelegateToJobWorkerRecipe() {}
@@ -52,15 +84,26 @@ public class MigrateExecutionRecipe extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+      return new MigrationMetrics.Totals();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+      return metrics.scanner(totals, getVisitor(totals));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
 
       // define preconditions
       TreeVisitor<?, ExecutionContext> check =
           Preconditions.and(
-              new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-              new UsesType<>("org.camunda.bpm.engine.delegate.JavaDelegate", true));
+              CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+              CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.delegate.JavaDelegate"));
 
-      return Preconditions.check(
+      return metrics.check(
+          totals,
           check,
           new JavaIsoVisitor<>() {
 
@@ -137,8 +180,8 @@ public class MigrateExecutionRecipe extends Recipe {
     @Override
     protected TreeVisitor<?, ExecutionContext> preconditions() {
       return Preconditions.and(
-          new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-          new UsesType<>("org.camunda.bpm.engine.delegate.JavaDelegate", true));
+          CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+          CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.delegate.JavaDelegate"));
     }
 
     @Override
@@ -153,10 +196,10 @@ public class MigrateExecutionRecipe extends Recipe {
     protected List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations() {
       return List.of(
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getVariable(String variableName)"
                   "org.camunda.bpm.engine.delegate.VariableScope getVariable(java.lang.String)"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{job:any(io.camunda.client.api.response.ActivatedJob)}.getVariable(#{any(java.lang.String)})"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -167,10 +210,10 @@ public class MigrateExecutionRecipe extends Recipe {
                       "variableName", 0)),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getVariableLocal(String variableName)"
                   "org.camunda.bpm.engine.delegate.VariableScope getVariableLocal(java.lang.String)"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{job:any(io.camunda.client.api.response.ActivatedJob)}.getVariable(#{any(java.lang.String)})"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -181,10 +224,10 @@ public class MigrateExecutionRecipe extends Recipe {
                       "variableName", 0)),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "setVariable(String variableName, Object value)"
                   "org.camunda.bpm.engine.delegate.VariableScope setVariable(java.lang.String, java.lang.Object)"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{resultMap:any(java.util.Map)}.put(#{any(java.lang.String)}, #{any(java.lang.Object)})"),
               RecipeUtils.createSimpleIdentifier("resultMap", "java.util.Map"),
               null,
@@ -194,10 +237,10 @@ public class MigrateExecutionRecipe extends Recipe {
                   new ReplacementUtils.SimpleReplacementSpec.NamedArg("value", 1)),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "setVariableLocal(String variableName, Object value)"
                   "org.camunda.bpm.engine.delegate.VariableScope setVariableLocal(java.lang.String, java.lang.Object)"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{resultMap:any(java.util.Map)}.put(#{any(java.lang.String)}, #{any(java.lang.Object)})"),
               RecipeUtils.createSimpleIdentifier("resultMap", "java.util.Map"),
               null,
@@ -207,10 +250,10 @@ public class MigrateExecutionRecipe extends Recipe {
                   new ReplacementUtils.SimpleReplacementSpec.NamedArg("value", 1)),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getProcessInstanceId()"
                   "org.camunda.bpm.engine.delegate.DelegateExecution getProcessInstanceId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getProcessInstanceKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -219,10 +262,10 @@ public class MigrateExecutionRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getProcessDefinitionId()"
                   "org.camunda.bpm.engine.delegate.DelegateExecution getProcessDefinitionId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getProcessDefinitionKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -231,10 +274,10 @@ public class MigrateExecutionRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getCurrentActivityId()"
                   "org.camunda.bpm.engine.delegate.DelegateExecution getCurrentActivityId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{any(io.camunda.client.api.response.ActivatedJob)}.getElementId()"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -243,10 +286,10 @@ public class MigrateExecutionRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getActivityInstanceId()"
                   "org.camunda.bpm.engine.delegate.DelegateExecution getActivityInstanceId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getElementInstanceKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -273,7 +316,11 @@ public class MigrateExecutionRecipe extends Recipe {
     }
   }
 
-  private static class MigrateDelegateBPMNErrorAndExceptionInJobWorker extends Recipe {
+  private static class MigrateDelegateBPMNErrorAndExceptionInJobWorker
+      extends ScanningRecipe<MigrationMetrics.Totals>
+      implements SpecMatcherProvider {
+
+    private final transient MigrationMetrics metrics = new MigrationMetrics(this);
 
     /** Instantiates a new instance. */
     public MigrateDelegateBPMNErrorAndExceptionInJobWorker() {}
@@ -292,9 +339,9 @@ public class MigrateExecutionRecipe extends Recipe {
         List.of(
             new ReplacementUtils.SimpleReplacementSpec(
                 // BpmnError(java.lang.String errorCode)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.BpmnError <constructor>(java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, \"Add an error message here\")",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -306,9 +353,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // BpmnError(java.lang.String errorCode, java.lang.String errorMessage)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.BpmnError <constructor>(java.lang.String, java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, #{any(java.lang.String)})",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -323,9 +370,9 @@ public class MigrateExecutionRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // BpmnError(java.lang.String errorCode, java.lang.String errorMessage,
                 // java.lang.Throwable throwable)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.BpmnError <constructor>(java.lang.String, java.lang.String, java.lang.Throwable)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, #{any(java.lang.String)}, Collections.emptyMap(), #{any(java.lang.Throwable)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections"),
@@ -341,9 +388,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // BpmnError(java.lang.String errorCode, java.lang.Throwable cause)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.BpmnError <constructor>(java.lang.String, java.lang.Throwable)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, \"Add an error message here\", Collections.emptyMap(), #{any(java.lang.Throwable)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections"),
@@ -357,8 +404,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // ProcessEngineException()
-                new MethodMatcher("org.camunda.bpm.engine.ProcessEngineException <constructor>()"),
-                RecipeUtils.createSimpleJavaTemplate(
+                new SpecMethodMatcher(
+                    "org.camunda.bpm.engine.ProcessEngineException <constructor>()"),
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(\"Add an error message here\")",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -369,9 +417,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // ProcessEngineException(java.lang.String message)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.ProcessEngineException <constructor>(java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)})",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -383,9 +431,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // ProcessEngineException(java.lang.String message, java.lang.Throwable throwable)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.ProcessEngineException <constructor>(java.lang.String, java.lang.Throwable)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(String)}, Collections.emptyMap(), 3, Duration.ofSeconds(30), #{any(java.lang.Throwable)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections",
@@ -400,9 +448,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 List.of(" set retries with job.getRetries() - 1")),
             new ReplacementUtils.SimpleReplacementSpec(
                 // ProcessEngineException(java.lang.String message, int code)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.ProcessEngineException <constructor>(java.lang.String, int)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(String)})",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -414,9 +462,9 @@ public class MigrateExecutionRecipe extends Recipe {
                 List.of(" error code was removed")),
             new ReplacementUtils.SimpleReplacementSpec(
                 // ProcessEngineException(java.lang.Throwable throwable)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.ProcessEngineException <constructor>(java.lang.Throwable)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(\"Add an error message here\", Collections.emptyMap(), 3, Duration.ofSeconds(30), #{any(java.lang.Throwable)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections",
@@ -433,9 +481,9 @@ public class MigrateExecutionRecipe extends Recipe {
         List.of(
             new ReplacementUtils.SimpleReplacementSpec(
                 // createIncident(java.lang.String incidentType, java.lang.String configuration)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.DelegateExecution createIncident(java.lang.String, java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(\"Add an error message here\", Collections.emptyMap(), 0)",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections"),
@@ -451,9 +499,9 @@ public class MigrateExecutionRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // createIncident(java.lang.String incidentType, java.lang.String configuration,
                 // java.lang.String message)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.engine.delegate.DelegateExecution createIncident(java.lang.String, java.lang.String, java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)}, Collections.emptyMap(), 0)",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Collections"),
@@ -476,18 +524,62 @@ public class MigrateExecutionRecipe extends Recipe {
             .toList();
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public List<MethodMatcher> specMatchers() {
+      return commonSpecs.stream().map(ReplacementUtils.ReplacementSpec::matcher).toList();
+    }
+
+    @Override
+    public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+      return new MigrationMetrics.Totals();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+      return metrics.scanner(totals, getVisitor(totals));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
 
       // define preconditions
       TreeVisitor<?, ExecutionContext> check =
           Preconditions.and(
-              new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-              new UsesType<>("org.camunda.bpm.engine.delegate.JavaDelegate", true));
+              CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+              CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.delegate.JavaDelegate"));
 
-      return Preconditions.check(
+      MigrationMetrics.Recorder recorder = metrics.recorder(totals);
+
+      return metrics.check(
+          totals,
           check,
           new JavaVisitor<ExecutionContext>() {
 
+            private boolean deferFormatting;
+
+            /** Formats the replacement now, or marks it for the pass at the end of the file. */
+            private <T extends J> T formatReplacement(
+                @Nullable MethodMatcher matcher, T before, T after, ExecutionContext ctx) {
+              if (deferFormatting) {
+                return DeferredFormatting.mark(before, after);
+              }
+              return matcher == null
+                  ? maybeAutoFormat(before, after, ctx)
+                  : recorder.autoFormat(matcher, () -> maybeAutoFormat(before, after, ctx));
+            }
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+              deferFormatting = DeferredFormatting.isEnabled(ctx);
+              J visited = super.visitCompilationUnit(compilationUnit, ctx);
+              if (deferFormatting && visited != compilationUnit) {
+                J.CompilationUnit replaced = (J.CompilationUnit) visited;
+                visited =
+                    recorder.deferredFormat(() -> DeferredFormatting.formatMarked(replaced, ctx));
+              }
+              recorder.flush(compilationUnit, ctx);
+              return visited;
+            }
+
             @Override
             public J visitThrow(J.Throw throwStmt, ExecutionContext ctx) {
               if (isInsideDelegateMethod()) {
@@ -498,19 +590,24 @@ public class MigrateExecutionRecipe extends Recipe {
               if (exception instanceof J.NewClass newClass) {
 
                 for (ReplacementUtils.SimpleReplacementSpec spec : errorSpecs) {
-                  if (spec.matcher().matches(newClass)) {
+                  if (recorder.matches(spec.matcher(), newClass)) {
 
                     maybeAddImport("io.camunda.spring.client.exception.CamundaError");
 
-                    return maybeAutoFormat(
-                        throwStmt,
-                        spec.template()
-                            .apply(
-                                getCursor(),
-                                throwStmt.getCoordinates().replace(),
-                                ReplacementUtils.createArgs(
-                                    newClass, spec.baseIdentifier(), spec.argumentIndexes())),
-                        ctx);
+                    J.Throw modifiedThrow =
+                        recorder.template(
+                            spec.matcher(),
+                            () ->
+                                spec.template().get()
+                                    .apply(
+                                        getCursor(),
+                                        throwStmt.getCoordinates().replace(),
+                                        ReplacementUtils.createArgs(
+                                            newClass,
+                                            spec.baseIdentifier(),
+                                            spec.argumentIndexes())));
+
+                    return formatReplacement(spec.matcher(), throwStmt, modifiedThrow, ctx);
                   }
                 }
               }
@@ -530,7 +627,7 @@ public class MigrateExecutionRecipe extends Recipe {
                     variableDeclarations.getVariables().get(0);
                 if (var.getInitializer() instanceof J.MethodInvocation methodInvocation) {
                   for (ReplacementUtils.ReplacementSpec spec : commonSpecs) {
-                    if (spec.matcher().matches(methodInvocation)) {
+                    if (recorder.matches(spec.matcher(), methodInvocation)) {
                       Statement newStatement =
                           (Statement) replaceIncidentCreation(methodInvocation, ctx);
                       if (newStatement != null) {
@@ -554,7 +651,7 @@ public class MigrateExecutionRecipe extends Recipe {
 
               if (stmt instanceof J.MethodInvocation methodInvocation) {
                 for (ReplacementUtils.ReplacementSpec spec : commonSpecs) {
-                  if (spec.matcher().matches(methodInvocation)) {
+                  if (recorder.matches(spec.matcher(), methodInvocation)) {
 
                     Statement newStatement =
                         (Statement) replaceIncidentCreation(methodInvocation, ctx);
@@ -589,19 +686,25 @@ public class MigrateExecutionRecipe extends Recipe {
                 if (specs.matcher().matches(methodInvocation)) {
 
                   Statement statement =
-                      specs
-                          .template()
-                          .apply(
-                              statementCursor,
-                              ((Statement) statementCursor.getValue()).getCoordinates().replace(),
-                              ReplacementUtils.createArgs(
-                                  methodInvocation,
-                                  specs.baseIdentifier(),
-                                  specs.argumentIndexes()));
+                      recorder.template(
+                          specs.matcher(),
+                          () ->
+                              specs
+                                  .template()
+                                  .get()
+                                  .apply(
+                                      statementCursor,
+                                      ((Statement) statementCursor.getValue())
+                                          .getCoordinates()
+                                          .replace(),
+                                      ReplacementUtils.createArgs(
+                                          methodInvocation,
+                                          specs.baseIdentifier(),
+                                          specs.argumentIndexes())));
 
                   maybeAddImport("io.camunda.spring.client.exception.CamundaError");
 
-                  return maybeAutoFormat(methodInvocation, statement, ctx);
+                  return formatReplacement(specs.matcher(), methodInvocation, statement, ctx);
                 }
               }
               return null;
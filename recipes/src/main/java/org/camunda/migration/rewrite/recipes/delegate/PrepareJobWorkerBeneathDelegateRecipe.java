@@ -1,10 +1,11 @@
 package org.camunda.migration.rewrite.recipes.delegate;
 
 import java.util.List;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.FetchVariables;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
 public class PrepareJobWorkerBeneathDelegateRecipe extends Recipe {
@@ -28,8 +29,9 @@ public class PrepareJobWorkerBeneathDelegateRecipe extends Recipe {
     // define preconditions
     TreeVisitor<?, ExecutionContext> check =
         Preconditions.and(
-            Preconditions.not(new UsesType<>("io.camunda.client.api.response.ActivatedJob", true)),
-            new UsesType<>("org.camunda.bpm.engine.delegate.DelegateExecution", true));
+            Preconditions.not(CamundaUsageIndex.usesCamundaType(
+                "io.camunda.client.api.response.ActivatedJob")),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.delegate.DelegateExecution"));
 
     return Preconditions.check(
         check,
@@ -58,10 +60,22 @@ public class PrepareJobWorkerBeneathDelegateRecipe extends Recipe {
                 maybeAddImport("java.util.Map");
                 maybeAddImport("java.util.HashMap");
 
+                // fetch only the variables the handler reads, if they are known
+                List<String> fetchVariables =
+                    FetchVariables.readBy(
+                        new Cursor(new Cursor(getCursor(), classDeclaration.getBody()), methDecl),
+                        FetchVariables.VARIABLE_SCOPE);
+                String attributes =
+                    fetchVariables == null || fetchVariables.isEmpty()
+                        ? ""
+                        : ", fetchVariables = {"
+                            + FetchVariables.annotationValue(fetchVariables)
+                            + "}";
+
                 // Insert the new field at the bottom of the class body
                 return RecipeUtils.createSimpleJavaTemplate(
                         """
-                      @JobWorker(type = \"#{}\", autoComplete = true)
+                      @JobWorker(type = \"#{}\", autoComplete = true#{})
                       public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
                           Map<String, Object> resultMap = new HashMap<>();
                           return resultMap;
@@ -74,7 +88,8 @@ public class PrepareJobWorkerBeneathDelegateRecipe extends Recipe {
                     .apply(
                         updateCursor(classDeclaration),
                         classDeclaration.getBody().getCoordinates().lastStatement(),
-                        workerName);
+                        workerName,
+                        attributes);
               }
             }
             return super.visitClassDeclaration(classDeclaration, ctx);
@@ -2,9 +2,9 @@ package org.camunda.migration.rewrite.recipes.external;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.jgit.annotations.NonNull;
 
@@ -28,7 +28,7 @@ public class CleanupExternalWorkerRecipe extends Recipe {
 
     // define preconditions
     TreeVisitor<?, ExecutionContext> check =
-        new UsesType<>("org.camunda.bpm.client.task.ExternalTask", true);
+        CamundaUsageIndex.usesCamundaType("org.camunda.bpm.client.task.ExternalTask");
 
     return Preconditions.check(
         check,
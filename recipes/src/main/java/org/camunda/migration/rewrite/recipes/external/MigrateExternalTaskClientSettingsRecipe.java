@@ -0,0 +1,350 @@
+package org.camunda.migration.rewrite.recipes.external;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.analysis.constantfold.ConstantFold;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.properties.AddProperty;
+import org.openrewrite.yaml.MergeYaml;
+import org.openrewrite.yaml.YamlParser;
+
+/**
+ * Carries the throughput settings of Camunda 7 external task clients over to the defaults of the
+ * Camunda 8 job workers, {@code camunda.client.worker.defaults} in the {@code application.yaml}.
+ * Without them the job workers activate jobs with the defaults of the client.
+ *
+ * <p>The settings are read from {@code ExternalTaskClient.create()} builders and from {@code
+ * EnableExternalTaskClient} annotations, if their values are constant:
+ *
+ * <ul>
+ *   <li>{@code maxTasks} becomes {@code max-jobs-active},
+ *   <li>{@code lockDuration} becomes {@code timeout},
+ *   <li>{@code asyncResponseTimeout}, the timeout of the long polling, becomes {@code
+ *       request-timeout},
+ *   <li>the initial backoff of an {@code ExponentialBackoffStrategy} becomes {@code poll-interval}.
+ * </ul>
+ *
+ * The settings are collected per module, the directory holding the {@code src/main} of the Java
+ * file, and written to the {@code application.yaml} in the {@code src/main/resources} of that
+ * module. Clients in test sources are ignored. A setting configured with different values by
+ * several clients of a module is skipped. Settings already in the {@code application.yaml} are
+ * kept. A module configured by an {@code application.properties} only gets the settings as
+ * properties there instead. If the module has neither, an {@code application.yaml} is created.
+ */
+public class MigrateExternalTaskClientSettingsRecipe
+    extends ScanningRecipe<MigrateExternalTaskClientSettingsRecipe.Accumulator> {
+
+  private static final String BUILDER = "org.camunda.bpm.client.ExternalTaskClientBuilder";
+
+  private static final MethodMatcher MAX_TASKS_MATCHER =
+      new MethodMatcher(BUILDER + " maxTasks(int)");
+
+  private static final MethodMatcher LOCK_DURATION_MATCHER =
+      new MethodMatcher(BUILDER + " lockDuration(long)");
+
+  private static final MethodMatcher ASYNC_RESPONSE_TIMEOUT_MATCHER =
+      new MethodMatcher(BUILDER + " asyncResponseTimeout(long)");
+
+  private static final MethodMatcher BACKOFF_STRATEGY_MATCHER =
+      new MethodMatcher(BUILDER + " backoffStrategy(..)");
+
+  private static final MethodMatcher EXPONENTIAL_BACKOFF_MATCHER =
+      new MethodMatcher(
+          "org.camunda.bpm.client.backoff.ExponentialBackoffStrategy <constructor>(long, float, long)");
+
+  private static final AnnotationMatcher ENABLE_CLIENT_MATCHER =
+      new AnnotationMatcher("@org.camunda.bpm.client.spring.annotation.EnableExternalTaskClient");
+
+  private static final String MAX_JOBS_ACTIVE = "max-jobs-active";
+  private static final String TIMEOUT = "timeout";
+  private static final String REQUEST_TIMEOUT = "request-timeout";
+  private static final String POLL_INTERVAL = "poll-interval";
+
+  private static final String MAIN_RESOURCES = "src/main/resources";
+
+  private static final String APPLICATION_YAML = "application.yaml";
+
+  private static final String APPLICATION_PROPERTIES = "application.properties";
+
+  private static final String WORKER_DEFAULTS = "camunda.client.worker.defaults.";
+
+  private static final String RESOURCES_MESSAGE = "MAIN_RESOURCES";
+
+  /** Instantiates a new instance. */
+  public MigrateExternalTaskClientSettingsRecipe() {}
+
+  @Override
+  public String getDisplayName() {
+    return "Migrate external task client settings to job worker defaults";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Carries `maxTasks`, `lockDuration`, `asyncResponseTimeout` and the backoff of Camunda 7 external task clients over to `camunda.client.worker.defaults` in the `application.yaml` or `application.properties` of their module.";
+  }
+
+  /**
+   * The values of the settings by main resources directory and worker default, and the main
+   * resources directories that have an application.yaml or an application.properties.
+   */
+  public static class Accumulator {
+    private final Map<Path, Map<String, Set<String>>> settings = new HashMap<>();
+    private final Set<Path> applicationYamls = new HashSet<>();
+    private final Set<Path> applicationProperties = new HashSet<>();
+
+    private synchronized void add(Path resources, String key, String value) {
+      settings
+          .computeIfAbsent(resources, r -> new HashMap<>())
+          .computeIfAbsent(key, k -> new LinkedHashSet<>())
+          .add(value);
+    }
+
+    private synchronized void addApplicationYaml(Path resources) {
+      applicationYamls.add(resources);
+    }
+
+    private synchronized boolean hasApplicationYaml(Path resources) {
+      return applicationYamls.contains(resources);
+    }
+
+    private synchronized void addApplicationProperties(Path resources) {
+      applicationProperties.add(resources);
+    }
+
+    private synchronized boolean hasApplicationProperties(Path resources) {
+      return applicationProperties.contains(resources);
+    }
+
+    /** The main resources directories of the modules with settings. */
+    private synchronized Set<Path> resources() {
+      return new TreeSet<>(settings.keySet());
+    }
+
+    /**
+     * The worker defaults of the module by key, in the order of the keys. Settings with different
+     * values are skipped.
+     */
+    private synchronized Map<String, String> workerDefaults(@Nullable Path resources) {
+      Map<String, Set<String>> moduleSettings = settings.getOrDefault(resources, Map.of());
+      Map<String, String> workerDefaults = new LinkedHashMap<>();
+      for (String key : List.of(MAX_JOBS_ACTIVE, TIMEOUT, REQUEST_TIMEOUT, POLL_INTERVAL)) {
+        Set<String> values = moduleSettings.getOrDefault(key, Set.of());
+        if (values.size() == 1) {
+          workerDefaults.put(key, values.iterator().next());
+        }
+      }
+      return workerDefaults;
+    }
+  }
+
+  /** The worker defaults as YAML, null if there are none. */
+  private static @Nullable String toYaml(Map<String, String> workerDefaults) {
+    if (workerDefaults.isEmpty()) {
+      return null;
+    }
+    StringBuilder yaml = new StringBuilder("camunda:\n  client:\n    worker:\n      defaults:\n");
+    workerDefaults.forEach(
+        (key, value) ->
+            yaml.append("        ").append(key).append(": ").append(value).append('\n'));
+    return yaml.toString();
+  }
+
+  @Override
+  public Accumulator getInitialValue(ExecutionContext ctx) {
+    return new Accumulator();
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+    JavaIsoVisitor<ExecutionContext> javaScanner =
+        new JavaIsoVisitor<>() {
+          @Override
+          public J.CompilationUnit visitCompilationUnit(
+              J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            Path resources = mainResources(compilationUnit.getSourcePath());
+            if (resources == null) {
+              return compilationUnit;
+            }
+            getCursor().putMessage(RESOURCES_MESSAGE, resources);
+            return super.visitCompilationUnit(compilationUnit, ctx);
+          }
+
+          @Override
+          public J.MethodInvocation visitMethodInvocation(
+              J.MethodInvocation invocation, ExecutionContext ctx) {
+            Path resources = getCursor().getNearestMessage(RESOURCES_MESSAGE);
+            if (MAX_TASKS_MATCHER.matches(invocation)) {
+              addCount(acc, resources, MAX_JOBS_ACTIVE, argument(invocation));
+            } else if (LOCK_DURATION_MATCHER.matches(invocation)) {
+              addDuration(acc, resources, TIMEOUT, argument(invocation));
+            } else if (ASYNC_RESPONSE_TIMEOUT_MATCHER.matches(invocation)) {
+              addDuration(acc, resources, REQUEST_TIMEOUT, argument(invocation));
+            } else if (BACKOFF_STRATEGY_MATCHER.matches(invocation)
+                && invocation.getArguments().get(0) instanceof J.NewClass backoff
+                && EXPONENTIAL_BACKOFF_MATCHER.matches(backoff)) {
+              addDuration(
+                  acc,
+                  resources,
+                  POLL_INTERVAL,
+                  constantNumber(
+                      new Cursor(
+                          new Cursor(getCursor(), backoff),
+                          Objects.requireNonNull(backoff.getArguments()).get(0))));
+            }
+            return super.visitMethodInvocation(invocation, ctx);
+          }
+
+          @Override
+          public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+            if (ENABLE_CLIENT_MATCHER.matches(annotation)) {
+              Path resources = getCursor().getNearestMessage(RESOURCES_MESSAGE);
+              addCount(acc, resources, MAX_JOBS_ACTIVE, attribute(getCursor(), "maxTasks"));
+              addDuration(acc, resources, TIMEOUT, attribute(getCursor(), "lockDuration"));
+              addDuration(
+                  acc, resources, REQUEST_TIMEOUT, attribute(getCursor(), "asyncResponseTimeout"));
+            }
+            return super.visitAnnotation(annotation, ctx);
+          }
+
+          private @Nullable Long argument(J.MethodInvocation invocation) {
+            return constantNumber(new Cursor(getCursor(), invocation.getArguments().get(0)));
+          }
+        };
+
+    return new TreeVisitor<>() {
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        if (tree instanceof SourceFile sourceFile && isApplicationYaml(sourceFile)) {
+          acc.addApplicationYaml(sourceFile.getSourcePath().getParent());
+        } else if (tree instanceof SourceFile sourceFile && isApplicationProperties(sourceFile)) {
+          acc.addApplicationProperties(sourceFile.getSourcePath().getParent());
+        }
+        return tree instanceof J.CompilationUnit ? javaScanner.visit(tree, ctx) : tree;
+      }
+    };
+  }
+
+  @Override
+  public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+    List<SourceFile> generated = new ArrayList<>();
+    for (Path resources : acc.resources()) {
+      String workerDefaults = toYaml(acc.workerDefaults(resources));
+      if (workerDefaults != null
+          && !acc.hasApplicationYaml(resources)
+          && !acc.hasApplicationProperties(resources)) {
+        YamlParser.builder()
+            .build()
+            .parse(workerDefaults)
+            .<SourceFile>map(yaml -> yaml.withSourcePath(resources.resolve(APPLICATION_YAML)))
+            .forEach(generated::add);
+      }
+    }
+    return generated;
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+    return new TreeVisitor<>() {
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        if (!(tree instanceof SourceFile sourceFile)) {
+          return tree;
+        }
+        Path resources = sourceFile.getSourcePath().getParent();
+        if (isApplicationYaml(sourceFile)) {
+          String workerDefaults = toYaml(acc.workerDefaults(resources));
+          return workerDefaults == null
+              ? tree
+              : new MergeYaml("$", workerDefaults, true, null, null).getVisitor().visit(tree, ctx);
+        }
+        // the properties are only the configuration of the module without an application.yaml
+        if (isApplicationProperties(sourceFile) && !acc.hasApplicationYaml(resources)) {
+          Tree properties = tree;
+          for (Map.Entry<String, String> setting : acc.workerDefaults(resources).entrySet()) {
+            properties =
+                new AddProperty(WORKER_DEFAULTS + setting.getKey(), setting.getValue(), null, null)
+                    .getVisitor()
+                    .visit(properties, ctx);
+          }
+          return properties;
+        }
+        return tree;
+      }
+    };
+  }
+
+  private static boolean isApplicationYaml(SourceFile sourceFile) {
+    String fileName = sourceFile.getSourcePath().getFileName().toString();
+    return fileName.equals(APPLICATION_YAML) || fileName.equals("application.yml");
+  }
+
+  private static boolean isApplicationProperties(SourceFile sourceFile) {
+    return sourceFile.getSourcePath().getFileName().toString().equals(APPLICATION_PROPERTIES);
+  }
+
+  /**
+   * The {@code src/main/resources} of the module the Java source belongs to, or null for test and
+   * other non-main sources. Sources outside a {@code src} directory belong to the root module.
+   */
+  static @Nullable Path mainResources(Path sourcePath) {
+    for (int i = 0; i < sourcePath.getNameCount() - 1; i++) {
+      if (sourcePath.getName(i).toString().equals("src")) {
+        if (!sourcePath.getName(i + 1).toString().equals("main")) {
+          return null;
+        }
+        Path module = sourcePath.getRoot() == null ? Path.of("") : sourcePath.getRoot();
+        return (i == 0 ? module : module.resolve(sourcePath.subpath(0, i)))
+            .resolve(MAIN_RESOURCES);
+      }
+    }
+    return Path.of(MAIN_RESOURCES);
+  }
+
+  private static void addCount(
+      Accumulator acc, Path resources, String key, @Nullable Long value) {
+    if (value != null && value > 0) {
+      acc.add(resources, key, value.toString());
+    }
+  }
+
+  private static void addDuration(
+      Accumulator acc, Path resources, String key, @Nullable Long millis) {
+    if (millis != null && millis > 0) {
+      acc.add(resources, key, Duration.ofMillis(millis).toString());
+    }
+  }
+
+  /**
+   * The constant value of the attribute of the annotation at the cursor, or null if it is not set
+   * or not constant.
+   */
+  static @Nullable Long attribute(Cursor annotation, String name) {
+    J.Annotation value = annotation.getValue();
+    for (Expression argument : Optional.ofNullable(value.getArguments()).orElse(List.of())) {
+      if (argument instanceof J.Assignment assignment
+          && assignment.getVariable() instanceof J.Identifier variable
+          && variable.getSimpleName().equals(name)) {
+        return constantNumber(
+            new Cursor(new Cursor(annotation, assignment), assignment.getAssignment()));
+      }
+    }
+    return null;
+  }
+
+  /** The constant integral value at the cursor, a literal or a constant, or null if it is none. */
+  static @Nullable Long constantNumber(Cursor expression) {
+    Object value =
+        expression.getValue() instanceof J.Literal literal
+            ? literal.getValue()
+            : ConstantFold.findConstantLiteral(expression)
+                .bind(constant -> constant.getValue())
+                .toNull();
+    return value instanceof Integer || value instanceof Long ? ((Number) value).longValue() : null;
+  }
+}
@@ -1,22 +1,44 @@
 package org.camunda.migration.rewrite.recipes.external;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
+import org.camunda.migration.rewrite.recipes.sharedRecipes.ReplaceJobVariableReadsWithParametersRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMatcherProvider;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
 public class MigrateExternalWorkerRecipe extends Recipe {
 
+  @Option(
+      displayName = "Variable parameters",
+      description =
+          "Bind the variables the job worker reads to `@Variable` parameters, instead of reading them with `job.getVariable(name)`, which deserializes all variables of the job on every call. Reads them from the job if not set.",
+      required = false,
+      example = "true")
+  private final @Nullable Boolean variableParameters;
+
   /** Instantiates a new instance. */
-  public MigrateExternalWorkerRecipe() {}
+  public MigrateExternalWorkerRecipe() {
+    this(null);
+  }
+
+  @JsonCreator
+  public MigrateExternalWorkerRecipe(@JsonProperty("variableParameters") @Nullable Boolean variableParameters) {
+    this.variableParameters = variableParameters;
+  }
 
   @Override
   public String getDisplayName() {
@@ -30,13 +52,22 @@ public class MigrateExternalWorkerRecipe extends Recipe {
 
   @Override
   public List<Recipe> getRecipeList() {
-    return List.of(
-        new CopyExternalWorkerToJobWorkerRecipe(),
-        new MigrateExternalTaskMethodsInJobWorker(),
-        new MigrateExternalWorkerBPMNErrorAndExceptionInJobWorker());
+    List<Recipe> recipes =
+        new ArrayList<>(
+            List.of(
+                new CopyExternalWorkerToJobWorkerRecipe(),
+                new MigrateExternalTaskMethodsInJobWorker(),
+                new MigrateExternalWorkerBPMNErrorAndExceptionInJobWorker()));
+    if (Boolean.TRUE.equals(variableParameters)) {
+      recipes.add(new ReplaceJobVariableReadsWithParametersRecipe());
+    }
+    return recipes;
   }
 
-  private static class CopyExternalWorkerToJobWorkerRecipe extends Recipe {
+  private static class CopyExternalWorkerToJobWorkerRecipe
+      extends ScanningRecipe<MigrationMetrics.Totals> {
+
+    private final transient MigrationMetrics metrics = new MigrationMetrics(this);
 
     /** Instantiates a new instance. */
     public CopyExternalWorkerToJobWorkerRecipe() {}
@@ -52,15 +83,26 @@ public class MigrateExternalWorkerRecipe extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+      return new MigrationMetrics.Totals();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+      return metrics.scanner(totals, getVisitor(totals));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
 
       // define preconditions
       TreeVisitor<?, ExecutionContext> check =
           Preconditions.and(
-              new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-              new UsesType<>("org.camunda.bpm.client.task.ExternalTask", true));
+              CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+              CamundaUsageIndex.usesCamundaType("org.camunda.bpm.client.task.ExternalTask"));
 
-      return Preconditions.check(
+      return metrics.check(
+          totals,
           check,
           new JavaIsoVisitor<>() {
 
@@ -132,8 +174,8 @@ public class MigrateExternalWorkerRecipe extends Recipe {
     @Override
     protected TreeVisitor<?, ExecutionContext> preconditions() {
       return Preconditions.and(
-          new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-          new UsesType<>("org.camunda.bpm.client.task.ExternalTask", true));
+          CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+          CamundaUsageIndex.usesCamundaType("org.camunda.bpm.client.task.ExternalTask"));
     }
 
     @Override
@@ -148,10 +190,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
     protected List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations() {
       return List.of(
           new ReplacementUtils.SimpleReplacementSpec(
-                  new MethodMatcher(
+                  new SpecMethodMatcher(
                   // "getVariable(String variableName)"
                   "org.camunda.bpm.client.task.ExternalTask getVariable(java.lang.String)"),
-                  RecipeUtils.createSimpleJavaTemplate(
+                  RecipeUtils.lazyJavaTemplate(
                   "#{job:any(io.camunda.client.api.response.ActivatedJob)}.getVariable(#{any(java.lang.String)})"),
                   RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -162,10 +204,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                       "variableName", 0)),
                   Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getProcessInstanceId()"
                   "org.camunda.bpm.client.task.ExternalTask getProcessInstanceId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getProcessInstanceKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -174,10 +216,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getProcessDefinitionId()"
                   "org.camunda.bpm.client.task.ExternalTask getProcessDefinitionId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getProcessDefinitionKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -186,10 +228,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getCurrentActivityId()"
                   "org.camunda.bpm.client.task.ExternalTask getActivityId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "#{any(io.camunda.client.api.response.ActivatedJob)}.getElementId()"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -198,10 +240,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
               Collections.emptyList(),
               Collections.emptyList()),
           new ReplacementUtils.SimpleReplacementSpec(
-              new MethodMatcher(
+              new SpecMethodMatcher(
                   // "getActivityInstanceId()"
                   "org.camunda.bpm.client.task.ExternalTask getActivityInstanceId()"),
-              RecipeUtils.createSimpleJavaTemplate(
+              RecipeUtils.lazyJavaTemplate(
                   "String.valueOf(#{any(io.camunda.client.api.response.ActivatedJob)}.getElementInstanceKey())"),
               RecipeUtils.createSimpleIdentifier(
                   "job", "io.camunda.client.api.response.ActivatedJob"),
@@ -228,7 +270,11 @@ public class MigrateExternalWorkerRecipe extends Recipe {
     }
   }
 
-  private static class MigrateExternalWorkerBPMNErrorAndExceptionInJobWorker extends Recipe {
+  private static class MigrateExternalWorkerBPMNErrorAndExceptionInJobWorker
+      extends ScanningRecipe<MigrationMetrics.Totals>
+      implements SpecMatcherProvider {
+
+    private final transient MigrationMetrics metrics = new MigrationMetrics(this);
 
     /** Instantiates a new instance. */
     public MigrateExternalWorkerBPMNErrorAndExceptionInJobWorker() {}
@@ -247,9 +293,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
         List.of(
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleBpmnError(ExternalTask externalTask, String errorCode)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleBpmnError(org.camunda.bpm.client.task.ExternalTask, java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, \"Add an error message here\")",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -261,9 +307,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleBpmnError(ExternalTask externalTask, String errorCode, String errorMessage)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleBpmnError(org.camunda.bpm.client.task.ExternalTask, java.lang.String, java.lang.String)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, #{any(java.lang.String)})",
                     "io.camunda.spring.client.exception.CamundaError"),
                 RecipeUtils.createSimpleIdentifier(
@@ -278,9 +324,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleBpmnError(ExternalTask externalTask, String errorCode, String errorMessage,
                 // Map<String, Object> variableMap)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleBpmnError(org.camunda.bpm.client.task.ExternalTask, java.lang.String, java.lang.String, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, #{any(java.lang.String)}, #{any(java.util.Map)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Map"),
@@ -298,9 +344,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleBpmnError(String externalTaskId, String errorCode, String errorMessage,
                 // Map<String, Object> variableMap)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleBpmnError(java.lang.String, java.lang.String, java.lang.String, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.bpmnError(#{any(java.lang.String)}, #{any(java.lang.String)}, #{any(java.util.Map)})",
                     "io.camunda.spring.client.exception.CamundaError",
                     "java.util.Map"),
@@ -318,9 +364,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleFailure(ExternalTask externalTask, String errorMessage, String
                 // errorDetails, int retries, long duration)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleFailure(org.camunda.bpm.client.task.ExternalTask, java.lang.String, java.lang.String, int, long)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)}, Collections.emptyMap(), Integer.valueOf(#{any()}), Duration.ofMillis(#{any()}))",
                     "io.camunda.spring.client.exception.CamundaError", "java.util.Collections", "java.time.Duration"),
                 RecipeUtils.createSimpleIdentifier(
@@ -336,9 +382,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
             new ReplacementUtils.SimpleReplacementSpec(
                 // handleFailure(String externalTaskId, String errorMessage, String
                 // errorDetails, int retries, long duration)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleFailure(java.lang.String, java.lang.String, java.lang.String, int, long)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)}, Collections.emptyMap(), Integer.valueOf(#{any()}), Duration.ofMillis(#{any()}))",
                     "io.camunda.spring.client.exception.CamundaError", "java.util.Collections", "java.time.Duration"),
                 RecipeUtils.createSimpleIdentifier(
@@ -355,9 +401,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                 // handleFailure(String externalTaskId, String errorMessage, String
                 // errorDetails, int retries, long duration, Map<String, Object> variables,
                 // Map<String, Object> localVariables)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleFailure(java.lang.String, java.lang.String, java.lang.String, int, long, java.util.Map, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)}, #{any(java.util.Map)}, Integer.valueOf(#{any()}), Duration.ofMillis(#{any()}))",
                     "io.camunda.spring.client.exception.CamundaError", "java.util.Map", "java.time.Duration"),
                 RecipeUtils.createSimpleIdentifier(
@@ -376,9 +422,9 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                 // handleFailure(String externalTaskId, String errorMessage, String
                 // errorDetails, int retries, long duration, Map<String, Object> variables,
                 // Map<String, Object> localVariables)
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     "org.camunda.bpm.client.task.ExternalTaskService handleFailure(java.lang.String, java.lang.String, java.lang.String, int, long, java.util.Map, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate(
+                RecipeUtils.lazyJavaTemplate(
                     "throw #{any(io.camunda.spring.client.exception.CamundaError)}.jobError(#{any(java.lang.String)}, #{any(java.util.Map)}, Integer.valueOf(#{any()}), Duration.ofMillis(#{any()}))",
                     "io.camunda.spring.client.exception.CamundaError", "java.util.Map", "java.time.Duration"),
                 RecipeUtils.createSimpleIdentifier(
@@ -398,8 +444,8 @@ public class MigrateExternalWorkerRecipe extends Recipe {
         List.of(
             new ReplacementUtils.SimpleReplacementSpec(
                 // getRetries()
-                new MethodMatcher("org.camunda.bpm.client.task.ExternalTask getRetries()"),
-                RecipeUtils.createSimpleJavaTemplate(
+                new SpecMethodMatcher("org.camunda.bpm.client.task.ExternalTask getRetries()"),
+                RecipeUtils.lazyJavaTemplate(
                     "#{job:any(io.camunda.client.api.response.ActivatedJob)}.getRetries()",
                     "io.camunda.client.api.response.ActivatedJob"),
                 RecipeUtils.createSimpleIdentifier(
@@ -409,10 +455,10 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                 Collections.emptyList(),
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     // "complete(ExternalTask externalTask, Map<String, Object> variableMap)"
                     "org.camunda.bpm.client.task.ExternalTaskService complete(org.camunda.bpm.client.task.ExternalTask, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate("return #{any(java.util.Map)}"),
+                RecipeUtils.lazyJavaTemplate("return #{any(java.util.Map)}"),
                 null,
                 "java.util.Map",
                 ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
@@ -421,11 +467,11 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                         "variableMap", 1)),
                 Collections.emptyList()),
             new ReplacementUtils.SimpleReplacementSpec(
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     // "complete(ExternalTask externalTask, Map<String, Object> variableMap,
                     // Map<String, Object> localVariables)"
                     "org.camunda.bpm.client.task.ExternalTaskService complete(org.camunda.bpm.client.task.ExternalTask, java.util.Map, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate("return #{any(java.util.Map)}"),
+                RecipeUtils.lazyJavaTemplate("return #{any(java.util.Map)}"),
                 null,
                 "java.util.Map",
                 ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
@@ -434,11 +480,11 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                         "variableMap", 1)),
                 List.of(" local variables were removed")),
             new ReplacementUtils.SimpleReplacementSpec(
-                new MethodMatcher(
+                new SpecMethodMatcher(
                     // "complete(String externalTaskId, Map<String, Object> variableMap, Map<String,
                     // Object> localVariables)"
                     "org.camunda.bpm.client.task.ExternalTaskService complete(java.lang.String, java.util.Map, java.util.Map)"),
-                RecipeUtils.createSimpleJavaTemplate("return #{any(java.util.Map)}"),
+                RecipeUtils.lazyJavaTemplate("return #{any(java.util.Map)}"),
                 null,
                 "java.util.Map",
                 ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
@@ -448,18 +494,45 @@ public class MigrateExternalWorkerRecipe extends Recipe {
                 List.of(" local variables were removed")));
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
+    public List<MethodMatcher> specMatchers() {
+      return Stream.concat(errorSpecs.stream(), invocationSpecs.stream())
+          .map(ReplacementUtils.SimpleReplacementSpec::matcher)
+          .toList();
+    }
+
+    @Override
+    public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+      return new MigrationMetrics.Totals();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+      return metrics.scanner(totals, getVisitor(totals));
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
 
       // define preconditions
       TreeVisitor<?, ExecutionContext> check =
           Preconditions.and(
-              new UsesType<>("io.camunda.spring.client.annotation.JobWorker", true),
-              new UsesType<>("org.camunda.bpm.client.task.ExternalTask", true));
+              CamundaUsageIndex.usesCamundaType("io.camunda.spring.client.annotation.JobWorker"),
+              CamundaUsageIndex.usesCamundaType("org.camunda.bpm.client.task.ExternalTask"));
+
+      MigrationMetrics.Recorder recorder = metrics.recorder(totals);
 
-      return Preconditions.check(
+      return metrics.check(
+          totals,
           check,
           new JavaVisitor<>() {
 
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+              J visited = super.visitCompilationUnit(compilationUnit, ctx);
+              recorder.flush(compilationUnit, ctx);
+              return visited;
+            }
+
             @Override
             public J visitMethodInvocation(J.MethodInvocation invocation, ExecutionContext ctx) {
               if (isInsideExternalWorkerMethod()) {
@@ -467,14 +540,20 @@ public class MigrateExternalWorkerRecipe extends Recipe {
               }
 
               for (ReplacementUtils.SimpleReplacementSpec spec : invocationSpecs) {
-                if (spec.matcher().matches(invocation)) {
-
-                  return spec.template()
-                      .apply(
-                          getCursor(),
-                          invocation.getCoordinates().replace(),
-                          ReplacementUtils.createArgs(
-                              invocation, spec.baseIdentifier(), spec.argumentIndexes()))
+                if (recorder.matches(spec.matcher(), invocation)) {
+
+                  return recorder
+                      .template(
+                          spec.matcher(),
+                          () ->
+                              spec.template().get()
+                                  .<J>apply(
+                                      getCursor(),
+                                      invocation.getCoordinates().replace(),
+                                      ReplacementUtils.createArgs(
+                                          invocation,
+                                          spec.baseIdentifier(),
+                                          spec.argumentIndexes())))
                       .withComments(
                           Stream.concat(
                                   invocation.getComments().stream(),
@@ -487,16 +566,22 @@ public class MigrateExternalWorkerRecipe extends Recipe {
               }
 
               for (ReplacementUtils.SimpleReplacementSpec spec : errorSpecs) {
-                if (spec.matcher().matches(invocation)) {
+                if (recorder.matches(spec.matcher(), invocation)) {
                   maybeAddImport("io.camunda.spring.client.exception.CamundaError");
 
                   J.Throw throwStmt =
-                      spec.template()
-                          .apply(
-                              getCursor(),
-                              invocation.getCoordinates().replace(),
-                              ReplacementUtils.createArgs(
-                                  invocation, spec.baseIdentifier(), spec.argumentIndexes()))
+                      recorder
+                          .template(
+                              spec.matcher(),
+                              () ->
+                                  spec.template().get()
+                                      .<J.Throw>apply(
+                                          getCursor(),
+                                          invocation.getCoordinates().replace(),
+                                          ReplacementUtils.createArgs(
+                                              invocation,
+                                              spec.baseIdentifier(),
+                                              spec.argumentIndexes())))
                           .withComments(
                               Stream.concat(
                                       invocation.getComments().stream(),
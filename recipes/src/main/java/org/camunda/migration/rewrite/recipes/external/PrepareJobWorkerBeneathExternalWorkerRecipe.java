@@ -2,10 +2,12 @@ package org.camunda.migration.rewrite.recipes.external;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.FetchVariables;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
 public class PrepareJobWorkerBeneathExternalWorkerRecipe extends Recipe {
@@ -29,8 +31,9 @@ public class PrepareJobWorkerBeneathExternalWorkerRecipe extends Recipe {
     // define preconditions
     TreeVisitor<?, ExecutionContext> check =
         Preconditions.and(
-            Preconditions.not(new UsesType<>("io.camunda.client.api.response.ActivatedJob", true)),
-            new UsesType<>("org.camunda.bpm.client.task.ExternalTask", true));
+            Preconditions.not(CamundaUsageIndex.usesCamundaType(
+                "io.camunda.client.api.response.ActivatedJob")),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.client.task.ExternalTask"));
 
     return Preconditions.check(
         check,
@@ -39,6 +42,10 @@ public class PrepareJobWorkerBeneathExternalWorkerRecipe extends Recipe {
           final AnnotationMatcher configurationMatcher =
               new AnnotationMatcher("@org.springframework.context.annotation.Configuration");
 
+          final AnnotationMatcher subscriptionMatcher =
+              new AnnotationMatcher(
+                  "@org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription");
+
           final JavaTemplate componentTemplate =
               RecipeUtils.createSimpleJavaTemplate(
                   "@org.springframework.stereotype.Component",
@@ -95,10 +102,28 @@ public class PrepareJobWorkerBeneathExternalWorkerRecipe extends Recipe {
                 maybeAddImport("io.camunda.spring.client.annotation.JobWorker");
                 maybeAddImport("io.camunda.client.api.response.ActivatedJob");
 
+                // fetch only the variables the handler reads, if they are known
+                List<String> fetchVariables =
+                    FetchVariables.readBy(
+                        new Cursor(new Cursor(getCursor(), classDeclaration.getBody()), methDecl),
+                        FetchVariables.EXTERNAL_TASK);
+                String attributes =
+                    fetchVariables == null || fetchVariables.isEmpty()
+                        ? ""
+                        : ", fetchVariables = {"
+                            + FetchVariables.annotationValue(fetchVariables)
+                            + "}";
+
+                // the lock duration of the subscription is the timeout of the job
+                Long lockDuration = subscriptionLockDuration(classDeclaration);
+                if (lockDuration != null) {
+                  attributes += ", timeout = " + lockDuration;
+                }
+
                 // Insert the new field at the bottom of the class body
                 return RecipeUtils.createSimpleJavaTemplate(
                         """
-                      @JobWorker(type = \"#{}\", autoComplete = true)
+                      @JobWorker(type = \"#{}\", autoComplete = true#{})
                       public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
                           Map<String, Object> resultMap = new HashMap<>();
                           return resultMap;
@@ -111,11 +136,23 @@ public class PrepareJobWorkerBeneathExternalWorkerRecipe extends Recipe {
                     .apply(
                         updateCursor(classDeclaration),
                         classDeclaration.getBody().getCoordinates().lastStatement(),
-                        workerName);
+                        workerName,
+                        attributes);
               }
             }
             return classDeclaration;
           }
+
+          /** The constant lock duration of the external task subscription of the class. */
+          private @Nullable Long subscriptionLockDuration(J.ClassDeclaration classDeclaration) {
+            for (J.Annotation annotation : classDeclaration.getLeadingAnnotations()) {
+              if (subscriptionMatcher.matches(annotation)) {
+                return MigrateExternalTaskClientSettingsRecipe.attribute(
+                    new Cursor(getCursor(), annotation), "lockDuration");
+              }
+            }
+            return null;
+          }
         });
   }
 }
@@ -4,14 +4,23 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.camunda.migration.rewrite.recipes.utils.BlockSymbols;
+import org.camunda.migration.rewrite.recipes.utils.DeferredFormatting;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecDispatchIndex;
+import org.camunda.migration.rewrite.recipes.utils.SpecMatcherProvider;
+import org.camunda.migration.rewrite.recipes.utils.TypeName;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.tree.*;
 
-public abstract class AbstractMigrationRecipe extends Recipe {
+public abstract class AbstractMigrationRecipe extends ScanningRecipe<MigrationMetrics.Totals>
+    implements SpecMatcherProvider {
 
   /** Instantiates a new instance. */
   public AbstractMigrationRecipe() {}
@@ -26,6 +35,9 @@ public abstract class AbstractMigrationRecipe extends Recipe {
     return "This recipe can be used to migrate variable declarations, stand-along method invocations, and method invocations of returned variables based on rule sets. The rules are provided to the recipe by extension.";
   }
 
+  /** Timing and match counters of the specs, see {@link MigrationMetrics}. */
+  protected final transient MigrationMetrics metrics = new MigrationMetrics(this);
+
   protected abstract TreeVisitor<?, ExecutionContext> preconditions();
 
   protected Predicate<Cursor> visitorSkipCondition() {
@@ -34,27 +46,173 @@ public abstract class AbstractMigrationRecipe extends Recipe {
 
   protected abstract List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations();
 
-  protected abstract List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations();
+  protected abstract List<? extends ReplacementUtils.BuilderSpecResolver>
+      builderMethodInvocations();
 
   protected abstract List<ReplacementUtils.ReturnReplacementSpec> returnMethodInvocations();
 
   protected abstract List<ReplacementUtils.RenameReplacementSpec> renameMethodInvocations();
 
+  /** Specs indexed by method name and arity, built once per recipe instance. */
+  private record SpecIndexes(
+      SpecDispatchIndex<ReplacementUtils.ReplacementSpec> commonSpecs,
+      SpecDispatchIndex<ReplacementUtils.SimpleReplacementSpec> simpleSpecs,
+      SpecDispatchIndex<Map.Entry<MethodMatcher, List<ReplacementUtils.BuilderSpecResolver>>>
+          builderSpecGroups,
+      SpecDispatchIndex<ReplacementUtils.ReturnReplacementSpec> returnSpecs,
+      SpecDispatchIndex<ReplacementUtils.RenameReplacementSpec> renameSpecs) {}
+
+  private transient volatile SpecIndexes specIndexes;
+
+  private SpecIndexes specIndexes() {
+    SpecIndexes indexes = specIndexes;
+    if (indexes == null) {
+      synchronized (this) {
+        indexes = specIndexes;
+        if (indexes == null) {
+          List<ReplacementUtils.SimpleReplacementSpec> simpleSpecs = simpleMethodInvocations();
+          List<? extends ReplacementUtils.BuilderSpecResolver> builderSpecs =
+              builderMethodInvocations();
+
+          // join specs - possible because we don't touch the method invocations
+          List<ReplacementUtils.ReplacementSpec> commonSpecs =
+              Stream.concat(
+                      simpleSpecs.stream().map(spec -> (ReplacementUtils.ReplacementSpec) spec),
+                      builderSpecs.stream()
+                          .map(spec -> (ReplacementUtils.ReplacementSpec) spec.defaultSpec()))
+                  .toList();
+
+          // group builder specs by the matcher of the last method invocation of the chain
+          Map<MethodMatcher, List<ReplacementUtils.BuilderSpecResolver>> builderSpecMap =
+              builderSpecs.stream()
+                  .collect(
+                      Collectors.groupingBy(
+                          ReplacementUtils.BuilderSpecResolver::matcher,
+                          LinkedHashMap::new,
+                          Collectors.toList()));
+
+          indexes =
+              new SpecIndexes(
+                  new SpecDispatchIndex<>(commonSpecs, ReplacementUtils.ReplacementSpec::matcher),
+                  new SpecDispatchIndex<>(
+                      simpleSpecs, ReplacementUtils.SimpleReplacementSpec::matcher),
+                  new SpecDispatchIndex<>(
+                      new ArrayList<>(builderSpecMap.entrySet()), Map.Entry::getKey),
+                  new SpecDispatchIndex<>(
+                      returnMethodInvocations(), ReplacementUtils.ReturnReplacementSpec::matcher),
+                  new SpecDispatchIndex<>(
+                      renameMethodInvocations(), ReplacementUtils.RenameReplacementSpec::matcher));
+          specIndexes = indexes;
+        }
+      }
+    }
+    return indexes;
+  }
+
+  @Override
+  public List<MethodMatcher> specMatchers() {
+    return Stream.of(
+            simpleMethodInvocations().stream()
+                .map(ReplacementUtils.SimpleReplacementSpec::matcher),
+            builderMethodInvocations().stream()
+                .map(ReplacementUtils.BuilderSpecResolver::matcher),
+            returnMethodInvocations().stream()
+                .map(ReplacementUtils.ReturnReplacementSpec::matcher),
+            renameMethodInvocations().stream()
+                .map(ReplacementUtils.RenameReplacementSpec::matcher))
+        .flatMap(matchers -> matchers)
+        .distinct()
+        .toList();
+  }
+
+  @Override
+  public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+    return new MigrationMetrics.Totals();
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+    return metrics.scanner(totals, getVisitor(totals));
+  }
+
+  /**
+   * Recipes run on every source file after the specs of this recipe. They take the place of a
+   * recipe list, which a scanning recipe cannot have.
+   */
+  protected List<Recipe> followUpRecipes() {
+    return Collections.emptyList();
+  }
+
   @Override
-  public TreeVisitor<?, ExecutionContext> getVisitor() {
+  public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
+    TreeVisitor<?, ExecutionContext> migration = migrationVisitor(totals);
+    List<Recipe> followUps = followUpRecipes();
+    if (followUps.isEmpty()) {
+      return migration;
+    }
+    return new TreeVisitor<Tree, ExecutionContext>() {
+
+      @Override
+      public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+        return migration.isAcceptable(sourceFile, ctx);
+      }
+
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        Tree visited = migration.visit(tree, ctx, getCursor());
+        for (Recipe followUp : followUps) {
+          TreeVisitor<?, ExecutionContext> visitor = followUp.getVisitor();
+          if (visited instanceof SourceFile sourceFile && visitor.isAcceptable(sourceFile, ctx)) {
+            visited = visitor.visit(visited, ctx, getCursor());
+          }
+        }
+        return visited;
+      }
+    };
+  }
 
-    return Preconditions.check(
+  private TreeVisitor<?, ExecutionContext> migrationVisitor(MigrationMetrics.Totals totals) {
+
+    SpecIndexes indexes = specIndexes();
+    MigrationMetrics.Recorder recorder = metrics.recorder(totals);
+
+    return metrics.check(
+        totals,
         preconditions(),
         new JavaIsoVisitor<>() {
 
-          // join specs - possible because we don't touch the method invocations
-          final List<ReplacementUtils.ReplacementSpec> commonSpecs =
-              Stream.concat(
-                      simpleMethodInvocations().stream()
-                          .map(spec -> (ReplacementUtils.ReplacementSpec) spec),
-                      builderMethodInvocations().stream()
-                          .map(spec -> (ReplacementUtils.ReplacementSpec) spec))
-                  .toList();
+          private boolean deferFormatting;
+
+          // migrated variable types, and invocations whose comments went to the enclosing statement
+          private final BlockSymbols symbols = new BlockSymbols();
+          private final Set<UUID> commentedInvocations = new HashSet<>();
+
+          /** Formats the replacement now, or marks it for the pass at the end of the file. */
+          private <T extends J> T formatReplacement(
+              @Nullable MethodMatcher matcher, T before, T after, ExecutionContext ctx) {
+            if (deferFormatting) {
+              return DeferredFormatting.mark(before, after);
+            }
+            return matcher == null
+                ? maybeAutoFormat(before, after, ctx)
+                : recorder.autoFormat(matcher, () -> maybeAutoFormat(before, after, ctx));
+          }
+
+          @Override
+          public J.CompilationUnit visitCompilationUnit(
+              J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            deferFormatting = DeferredFormatting.isEnabled(ctx);
+            symbols.clear();
+            commentedInvocations.clear();
+            J.CompilationUnit visited = super.visitCompilationUnit(compilationUnit, ctx);
+            if (deferFormatting && visited != compilationUnit) {
+              J.CompilationUnit replaced = visited;
+              visited =
+                  recorder.deferredFormat(() -> DeferredFormatting.formatMarked(replaced, ctx));
+            }
+            recorder.flush(compilationUnit, ctx);
+            return visited;
+          }
 
           /**
            * Variable declarations are visited. Types are adjusted appropriately. Initializers are
@@ -78,11 +236,12 @@ public abstract class AbstractMigrationRecipe extends Recipe {
             if (originalInitializer instanceof J.MethodInvocation invocation) {
 
               // run through prepared migration rules
-              for (ReplacementUtils.ReplacementSpec spec : commonSpecs) {
+              for (ReplacementUtils.ReplacementSpec spec :
+                  indexes.commonSpecs().candidates(invocation)) {
 
                 // if match is found for the invocation, check returnTypeFqn to adjust variable
                 // declaration type
-                if (spec.matcher().matches(invocation)) {
+                if (recorder.matches(spec.matcher(), invocation)) {
 
                   // nothing to do if type stays the same
                   if (spec.returnTypeStrategy()
@@ -105,32 +264,34 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                   // invocation as is
                   assert resolvedFqn != null;
 
-                  String shortName = RecipeUtils.getShortName(resolvedFqn);
-                  String genericLongName = RecipeUtils.getGenericLongName(resolvedFqn);
+                  TypeName resolvedType = TypeName.of(resolvedFqn);
 
-                  J.VariableDeclarations modifiedDeclarations =
+                  JavaTemplate template =
                       RecipeUtils.createSimpleJavaTemplate(
-                              (modifiers == null || modifiers.isEmpty()
-                                      ? ""
-                                      : modifiers.stream()
-                                          .map(J.Modifier::toString)
-                                          .collect(Collectors.joining(" ", "", " ")))
-                                  + shortName
-                                  + " "
-                                  + originalName.getSimpleName()
-                                  + " = #{any(java.lang.Object)}",
-                              genericLongName)
-                          .apply(getCursor(), declarations.getCoordinates().replace(), invocation);
-
-                  maybeAddImport(genericLongName);
+                          (modifiers == null || modifiers.isEmpty()
+                                  ? ""
+                                  : modifiers.stream()
+                                      .map(J.Modifier::toString)
+                                      .collect(Collectors.joining(" ", "", " ")))
+                              + resolvedType.shortName()
+                              + " "
+                              + originalName.getSimpleName()
+                              + " = #{any(java.lang.Object)}",
+                          resolvedType.imports().toArray(String[]::new));
+                  J.VariableDeclarations modifiedDeclarations =
+                      recorder.template(
+                          spec.matcher(),
+                          () ->
+                              template.apply(
+                                  getCursor(), declarations.getCoordinates().replace(), invocation));
+
+                  resolvedType.imports().forEach(this::maybeAddImport);
 
                   // ensure comments are added here, not on method invocation
-                  getCursor().putMessage(invocation.getId().toString(), "comments added");
+                  commentedInvocations.add(invocation.getId());
 
                   // record fqn of identifier for later uses
-                  getCursor()
-                      .dropParentUntil(parent -> parent instanceof J.Block)
-                      .putMessage(originalName.toString(), resolvedFqn);
+                  symbols.declare(originalName.getSimpleName(), resolvedFqn);
 
                   // merge comments
                   modifiedDeclarations =
@@ -144,22 +305,24 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                               .toList());
 
                   // visit method invocations
-                  modifiedDeclarations = super.visitVariableDeclarations(modifiedDeclarations, ctx);
+                  J.VariableDeclarations visitedDeclarations =
+                      super.visitVariableDeclarations(modifiedDeclarations, ctx);
 
                   maybeRemoveImport(
                       RecipeUtils.getGenericLongName(
                           declarations.getTypeAsFullyQualified().toString()));
 
-                  return maybeAutoFormat(declarations, modifiedDeclarations, ctx);
+                  return formatReplacement(spec.matcher(), declarations, visitedDeclarations, ctx);
                 }
               }
 
               // transform access to lists
-              if (invocation.getSelect() instanceof J.Identifier ident
-                  && invocation.getSimpleName().equals("get")
-                  && getCursor().getNearestMessage(ident.getSimpleName()) != null) {
-
-                String listMessage = getCursor().getNearestMessage(ident.getSimpleName());
+              String listMessage =
+                  invocation.getSelect() instanceof J.Identifier ident
+                          && invocation.getSimpleName().equals("get")
+                      ? symbols.typeOf(ident.getSimpleName())
+                      : null;
+              if (listMessage != null) {
 
                 String shortName = RecipeUtils.getGenericShortName(listMessage);
                 String longName = RecipeUtils.getGenericLongName(listMessage);
@@ -176,15 +339,13 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                 maybeAddImport(longName);
 
                 // record fqn of identifier for later uses
-                getCursor()
-                    .dropParentUntil(parent -> parent instanceof J.Block)
-                    .putMessage(
-                        originalName.getSimpleName(), RecipeUtils.getGenericLongName(listMessage));
+                symbols.declare(
+                    originalName.getSimpleName(), RecipeUtils.getGenericLongName(listMessage));
 
                 // visit method invocations
                 modifiedDeclarations = super.visitVariableDeclarations(modifiedDeclarations, ctx);
 
-                return maybeAutoFormat(declarations, modifiedDeclarations, ctx);
+                return formatReplacement(null, declarations, modifiedDeclarations, ctx);
               }
             }
 
@@ -211,11 +372,12 @@ public abstract class AbstractMigrationRecipe extends Recipe {
             }
 
             // run through prepared migration rules
-            for (ReplacementUtils.ReplacementSpec spec : commonSpecs) {
+            for (ReplacementUtils.ReplacementSpec spec :
+                indexes.commonSpecs().candidates(invocation)) {
 
               // if match is found for the invocation, check returnTypeFqn to adjust variable
               // declaration type
-              if (spec.matcher().matches(invocation)) {
+              if (recorder.matches(spec.matcher(), invocation)) {
 
                 // nothing to do if type stays the same
                 if (spec.returnTypeStrategy()
@@ -233,26 +395,30 @@ public abstract class AbstractMigrationRecipe extends Recipe {
 
                 // Create simple java template to adjust variable declaration type, but keep
                 // invocation as is
-                J.Assignment modifiedAssignment =
+                JavaTemplate template =
                     RecipeUtils.createSimpleJavaTemplate(
-                            originalName.getSimpleName() + " = #{any()}", resolvedFqn)
-                        .apply(getCursor(), assignment.getCoordinates().replace(), invocation);
+                        originalName.getSimpleName() + " = #{any()}", resolvedFqn);
+                J.Assignment modifiedAssignment =
+                    recorder.template(
+                        spec.matcher(),
+                        () ->
+                            template.apply(
+                                getCursor(), assignment.getCoordinates().replace(), invocation));
 
                 assert resolvedFqn != null;
+                JavaType resolvedType = TypeName.of(resolvedFqn).type();
                 modifiedAssignment =
                     modifiedAssignment.withVariable(
-                        modifiedAssignment.getVariable().withType(JavaType.buildType(resolvedFqn)));
-                modifiedAssignment = modifiedAssignment.withType(JavaType.buildType(resolvedFqn));
+                        modifiedAssignment.getVariable().withType(resolvedType));
+                modifiedAssignment = modifiedAssignment.withType(resolvedType);
 
                 maybeAddImport(resolvedFqn);
 
                 // ensure comments are added here, not on method invocation
-                getCursor().putMessage(invocation.getId().toString(), "comments added");
+                commentedInvocations.add(invocation.getId());
 
                 // record fqn of identifier for later uses
-                getCursor()
-                    .dropParentUntil(parent -> parent instanceof J.Block)
-                    .putMessage(originalName.toString(), resolvedFqn);
+                symbols.declare(originalName.getSimpleName(), resolvedFqn);
 
                 // merge comments
                 modifiedAssignment =
@@ -264,28 +430,18 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                             .toList());
 
                 // visit method invocations
-                modifiedAssignment = (J.Assignment) super.visitAssignment(modifiedAssignment, ctx);
+                J.Assignment visitedAssignment = super.visitAssignment(modifiedAssignment, ctx);
 
                 if (originalName.getType() instanceof JavaType.FullyQualified fqn) {
                   maybeRemoveImport(fqn);
                 }
 
-                return maybeAutoFormat(assignment, modifiedAssignment, ctx);
+                return formatReplacement(spec.matcher(), assignment, visitedAssignment, ctx);
               }
             }
             return super.visitAssignment(assignment, ctx);
           }
 
-          final List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations =
-              simpleMethodInvocations();
-
-          final Map<MethodMatcher, List<ReplacementUtils.BuilderReplacementSpec>> builderSpecMap =
-              builderMethodInvocations().stream()
-                  .collect(Collectors.groupingBy(ReplacementUtils.BuilderReplacementSpec::matcher));
-
-          final List<ReplacementUtils.ReturnReplacementSpec> returnMethodInvocations =
-              returnMethodInvocations();
-
           /** Method invocations are visited and replaced */
           @Override
           public J.MethodInvocation visitMethodInvocation(
@@ -297,35 +453,41 @@ public abstract class AbstractMigrationRecipe extends Recipe {
             }
 
             // visit simple method invocations
-            for (ReplacementUtils.SimpleReplacementSpec spec : simpleMethodInvocations) {
+            for (ReplacementUtils.SimpleReplacementSpec spec :
+                indexes.simpleSpecs().candidates(invocation)) {
 
-              if (spec.matcher().matches(invocation)) {
+              if (recorder.matches(spec.matcher(), invocation)) {
 
                 spec.maybeRemoveImports().forEach(this::maybeRemoveImport);
                 spec.maybeAddImports().forEach(this::maybeAddImport);
 
                 J.MethodInvocation modifiedInvocation =
-                    (J.MethodInvocation)
-                        RecipeUtils.applyTemplate(
-                            spec.template(),
-                            invocation,
-                            getCursor(),
-                            ReplacementUtils.createArgs(
-                                invocation, spec.baseIdentifier(), spec.argumentIndexes()),
-                            getCursor().getNearestMessage(invocation.getId().toString()) != null
-                                ? Collections.emptyList()
-                                : spec.textComments());
-
-                return maybeAutoFormat(
-                    invocation, super.visitMethodInvocation(modifiedInvocation, ctx), ctx);
+                    recorder.template(
+                        spec.matcher(),
+                        () ->
+                            (J.MethodInvocation)
+                                RecipeUtils.applyTemplate(
+                                    spec.template().get(),
+                                    invocation,
+                                    getCursor(),
+                                    ReplacementUtils.createArgs(
+                                        invocation, spec.baseIdentifier(), spec.argumentIndexes()),
+                                    commentedInvocations.contains(invocation.getId())
+                                        ? Collections.emptyList()
+                                        : spec.textComments()));
+
+                J.MethodInvocation visitedInvocation =
+                    super.visitMethodInvocation(modifiedInvocation, ctx);
+
+                return formatReplacement(spec.matcher(), invocation, visitedInvocation, ctx);
               }
             }
 
             // loop through builder pattern groups
-            for (Map.Entry<MethodMatcher, List<ReplacementUtils.BuilderReplacementSpec>> entry :
-                builderSpecMap.entrySet()) {
+            for (Map.Entry<MethodMatcher, List<ReplacementUtils.BuilderSpecResolver>> entry :
+                indexes.builderSpecGroups().candidates(invocation)) {
               MethodMatcher matcher = entry.getKey();
-              if (matcher.matches(invocation)) {
+              if (recorder.matches(matcher, invocation)) {
                 Map<String, Expression> collectedArgs = new HashMap<>();
                 Expression current = invocation.getSelect();
 
@@ -340,8 +502,10 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                 }
 
                 // loop through pattern options
-                for (ReplacementUtils.BuilderReplacementSpec spec : entry.getValue()) {
-                  if (collectedArgs.keySet().equals(spec.methodNamesToExtractParameters())) {
+                for (ReplacementUtils.BuilderSpecResolver resolver : entry.getValue()) {
+                  ReplacementUtils.BuilderReplacementSpec spec =
+                      resolver.resolve(collectedArgs.keySet());
+                  if (spec != null) {
 
                     spec.maybeRemoveImports().forEach(this::maybeRemoveImport);
                     spec.maybeAddImports().forEach(this::maybeAddImport);
@@ -353,36 +517,42 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                                 .map(collectedArgs::get)
                                 .toArray());
 
-                    return maybeAutoFormat(
-                        invocation,
-                        (J.MethodInvocation)
-                            RecipeUtils.applyTemplate(
-                                spec.template(),
-                                invocation,
-                                getCursor(),
-                                args,
-                                getCursor().getNearestMessage(invocation.getId().toString()) != null
-                                    ? Collections.emptyList()
-                                    : spec.textComments()),
-                        ctx);
+                    J.MethodInvocation modifiedInvocation =
+                        recorder.template(
+                            matcher,
+                            () ->
+                                (J.MethodInvocation)
+                                    RecipeUtils.applyTemplate(
+                                        spec.template().get(),
+                                        invocation,
+                                        getCursor(),
+                                        args,
+                                        commentedInvocations.contains(invocation.getId())
+                                            ? Collections.emptyList()
+                                            : spec.textComments()));
+
+                    return formatReplacement(matcher, invocation, modifiedInvocation, ctx);
                   }
                 }
               }
             }
 
-            // migrate methods based on returned variable declaration identifier
+            // migrate methods based on returned variable declaration identifier, selects that were
+            // not declared or assigned by a migrated invocation, like lambda parameters, are kept
             if (invocation.getSelect() != null
                 && invocation.getSelect() instanceof J.Identifier currentSelect
-                && currentSelect.getType() instanceof JavaType.FullyQualified currentFQN) {
+                && currentSelect.getType() instanceof JavaType.FullyQualified currentFQN
+                && symbols.typeOf(currentSelect.getSimpleName()) != null) {
 
-              // get returnTypeFqn from cursor message
-              String returnTypeFqn = getCursor().getNearestMessage(currentSelect.getSimpleName());
+              // get returnTypeFqn recorded by the declaration or assignment
+              String returnTypeFqn = symbols.typeOf(currentSelect.getSimpleName());
 
               // loop through return replacement specs
-              for (ReplacementUtils.ReturnReplacementSpec spec : returnMethodInvocations) {
+              for (ReplacementUtils.ReturnReplacementSpec spec :
+                  indexes.returnSpecs().candidates(invocation)) {
 
                 // matching old identifier and method invocation
-                if (spec.matcher().matches(invocation)) {
+                if (recorder.matches(spec.matcher(), invocation)) {
 
                   // create new identifier from new returnTypeFqn
                   J.Identifier newSelect =
@@ -394,22 +564,26 @@ public abstract class AbstractMigrationRecipe extends Recipe {
                   spec.maybeAddImports().forEach(this::maybeAddImport);
                   spec.maybeRemoveImports().forEach(this::maybeRemoveImport);
 
-                  return maybeAutoFormat(
-                      invocation,
-                      (J.MethodInvocation)
-                          RecipeUtils.applyTemplate(
-                              spec.template(),
-                              invocation,
-                              getCursor(),
-                              new Object[] {newSelect},
-                              Collections.emptyList()),
-                      ctx);
+                  J.MethodInvocation modifiedInvocation =
+                      recorder.template(
+                          spec.matcher(),
+                          () ->
+                              (J.MethodInvocation)
+                                  RecipeUtils.applyTemplate(
+                                      spec.template().get(),
+                                      invocation,
+                                      getCursor(),
+                                      new Object[] {newSelect},
+                                      Collections.emptyList()));
+
+                  return formatReplacement(spec.matcher(), invocation, modifiedInvocation, ctx);
                 }
               }
             }
 
-            for (ReplacementUtils.RenameReplacementSpec spec : renameMethodInvocations()) {
-              if (spec.matcher().matches(invocation)) {
+            for (ReplacementUtils.RenameReplacementSpec spec :
+                indexes.renameSpecs().candidates(invocation)) {
+              if (recorder.matches(spec.matcher(), invocation)) {
                 return super.visitMethodInvocation(
                     invocation.withName(
                         RecipeUtils.createSimpleIdentifier(
@@ -422,10 +596,20 @@ public abstract class AbstractMigrationRecipe extends Recipe {
             return super.visitMethodInvocation(invocation, ctx);
           }
 
+          @Override
+          public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+            symbols.enterBlock();
+            try {
+              return super.visitBlock(block, ctx);
+            } finally {
+              symbols.exitBlock();
+            }
+          }
+
           @Override
           public J.Identifier visitIdentifier(J.Identifier identifier, ExecutionContext ctx) {
 
-            return (J.Identifier) RecipeUtils.updateType(getCursor(), identifier);
+            return (J.Identifier) RecipeUtils.updateType(symbols, identifier);
           }
         });
   }
@@ -0,0 +1,66 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.openrewrite.*;
+
+/**
+ * Runs the specs of several migration recipes in a single traversal. The simple, builder, return
+ * and rename specs of the composed recipes are merged in recipe order, and a file is visited if the
+ * preconditions of any composed recipe hold.
+ *
+ * <p>The composed recipes must not have overlapping specs, as only the first matching spec is
+ * applied. A visited element is skipped only if all composed recipes would skip it. The follow-up
+ * recipes of the composed recipes are not run, a composite declares its own follow-up recipes so
+ * that each of them runs once.
+ */
+public abstract class CompositeMigrationRecipe extends AbstractMigrationRecipe {
+
+  private final List<AbstractMigrationRecipe> recipes;
+
+  protected CompositeMigrationRecipe(List<AbstractMigrationRecipe> recipes) {
+    this.recipes = List.copyOf(recipes);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected TreeVisitor<?, ExecutionContext> preconditions() {
+    return Preconditions.or(
+        recipes.stream()
+            .map(AbstractMigrationRecipe::preconditions)
+            .toArray(TreeVisitor[]::new));
+  }
+
+  @Override
+  protected Predicate<Cursor> visitorSkipCondition() {
+    List<Predicate<Cursor>> skipConditions =
+        recipes.stream().map(AbstractMigrationRecipe::visitorSkipCondition).toList();
+    return cursor -> skipConditions.stream().allMatch(condition -> condition.test(cursor));
+  }
+
+  @Override
+  protected List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations() {
+    return merge(AbstractMigrationRecipe::simpleMethodInvocations);
+  }
+
+  @Override
+  protected List<? extends ReplacementUtils.BuilderSpecResolver> builderMethodInvocations() {
+    return merge(AbstractMigrationRecipe::builderMethodInvocations);
+  }
+
+  @Override
+  protected List<ReplacementUtils.ReturnReplacementSpec> returnMethodInvocations() {
+    return merge(AbstractMigrationRecipe::returnMethodInvocations);
+  }
+
+  @Override
+  protected List<ReplacementUtils.RenameReplacementSpec> renameMethodInvocations() {
+    return merge(AbstractMigrationRecipe::renameMethodInvocations);
+  }
+
+  private <S> List<S> merge(Function<AbstractMigrationRecipe, List<? extends S>> specs) {
+    return recipes.stream().<S>flatMap(recipe -> specs.apply(recipe).stream()).toList();
+  }
+}
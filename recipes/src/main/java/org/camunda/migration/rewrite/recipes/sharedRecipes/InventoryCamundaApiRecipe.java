@@ -0,0 +1,155 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import java.util.*;
+import org.camunda.migration.rewrite.recipes.client.MigrateMessageMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.client.MigrateStartProcessInstanceMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.client.MigrateUserTaskMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.delegate.MigrateExecutionRecipe;
+import org.camunda.migration.rewrite.recipes.external.MigrateExternalWorkerRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiUsage;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.SpecDispatchIndex;
+import org.camunda.migration.rewrite.recipes.utils.SpecMatcherProvider;
+import org.openrewrite.*;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.MethodCall;
+
+/**
+ * Reports the Camunda 7 API calls the migration recipes would touch, without changing anything.
+ * Every call is tested against the spec matchers of the migration recipes, and calls of Camunda 7
+ * methods no spec matches are reported as unmatched. Templates are never applied, so the recipe
+ * costs little more than a traversal of the files that reference Camunda at all.
+ */
+public class InventoryCamundaApiRecipe extends Recipe {
+
+  private static final String CAMUNDA_7_PACKAGE = "org.camunda.bpm.";
+
+  private final transient CamundaApiUsage usage = new CamundaApiUsage(this);
+
+  /** A spec matcher and the migration recipe it belongs to. */
+  private record InventorySpec(String recipe, MethodMatcher matcher) {}
+
+  private transient volatile SpecDispatchIndex<InventorySpec> specIndex;
+
+  /** Instantiates a new instance. */
+  public InventoryCamundaApiRecipe() {}
+
+  @Override
+  public String getDisplayName() {
+    return "Inventory Camunda 7 API usage";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Counts the Camunda 7 API call sites per file that the migration recipes cover, and the ones they do not cover. Does not change any code.";
+  }
+
+  /**
+   * The recipes whose specs are inventoried, including their nested recipes. The specs only hold
+   * their templates as suppliers, so neither the templates nor their parser are created here.
+   */
+  private static List<Recipe> migrationRecipes() {
+    return List.of(
+        new MigrateStartProcessInstanceMethodsRecipe(),
+        new MigrateMessageMethodsRecipe(),
+        new MigrateSignalMethodsRecipe(),
+        new MigrateUserTaskMethodsRecipe(),
+        new MigrateExecutionRecipe(),
+        new MigrateExternalWorkerRecipe(),
+        new ReplaceTypedValueAPIRecipe());
+  }
+
+  private SpecDispatchIndex<InventorySpec> specIndex() {
+    SpecDispatchIndex<InventorySpec> index = specIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = specIndex;
+        if (index == null) {
+          List<InventorySpec> specs = new ArrayList<>();
+          for (Recipe recipe : migrationRecipes()) {
+            collectSpecs(recipe.getName(), recipe, specs);
+          }
+          index = new SpecDispatchIndex<>(specs, InventorySpec::matcher);
+          specIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private static void collectSpecs(String recipeName, Recipe recipe, List<InventorySpec> specs) {
+    if (recipe instanceof SpecMatcherProvider provider) {
+      for (MethodMatcher matcher : provider.specMatchers()) {
+        specs.add(new InventorySpec(recipeName, matcher));
+      }
+    }
+    for (Recipe nested : recipe.getRecipeList()) {
+      collectSpecs(recipeName, nested, specs);
+    }
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor() {
+
+    SpecDispatchIndex<InventorySpec> index = specIndex();
+
+    return new JavaIsoVisitor<>() {
+
+      // call sites of the current file by recipe and pattern
+      private final Map<List<String>, Integer> callSites = new LinkedHashMap<>();
+
+      @Override
+      public J.CompilationUnit visitCompilationUnit(
+          J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+        if (CamundaUsageIndex.of(compilationUnit, ctx).isEmpty()) {
+          return compilationUnit;
+        }
+        callSites.clear();
+        super.visitCompilationUnit(compilationUnit, ctx);
+        String sourcePath = compilationUnit.getSourcePath().toString();
+        callSites.forEach(
+            (key, count) ->
+                usage.insertRow(
+                    ctx, new CamundaApiUsage.Row(sourcePath, key.get(0), key.get(1), count)));
+        return compilationUnit;
+      }
+
+      @Override
+      public J.MethodInvocation visitMethodInvocation(
+          J.MethodInvocation invocation, ExecutionContext ctx) {
+        count(invocation, index.candidates(invocation));
+        return super.visitMethodInvocation(invocation, ctx);
+      }
+
+      @Override
+      public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+        count(newClass, index.candidates(newClass));
+        return super.visitNewClass(newClass, ctx);
+      }
+
+      /** Counts the first matching spec of every recipe, or the call as unmatched. */
+      private void count(MethodCall call, List<InventorySpec> candidates) {
+        Set<String> matchedRecipes = new HashSet<>();
+        for (InventorySpec spec : candidates) {
+          if (!matchedRecipes.contains(spec.recipe()) && spec.matcher().matches(call)) {
+            matchedRecipes.add(spec.recipe());
+            callSites.merge(List.of(spec.recipe(), spec.matcher().toString()), 1, Integer::sum);
+          }
+        }
+        JavaType.Method method = call.getMethodType();
+        if (matchedRecipes.isEmpty()
+            && method != null
+            && method.getDeclaringType().getFullyQualifiedName().startsWith(CAMUNDA_7_PACKAGE)) {
+          callSites.merge(
+              List.of(CamundaApiUsage.UNMATCHED, MethodMatcher.methodPattern(method)),
+              1,
+              Integer::sum);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,341 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import java.util.*;
+import javax.lang.model.SourceVersion;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
+import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.analysis.constantfold.ConstantFold;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+/**
+ * Binds the variables a job worker reads to {@code @Variable} parameters. {@code
+ * job.getVariable(name)} deserializes the variables of the job on every call, a parameter is
+ * deserialized once per job.
+ *
+ * <p>Every read of a constant variable name with the activated job of the worker is replaced with a
+ * parameter named like the variable. The parameter has the type the read was cast to, or {@code
+ * Object} without a cast. Variables read with different casts, and variables whose name is not a
+ * free Java identifier in the method, even with a {@code Variable} suffix, stay reads.
+ */
+public class ReplaceJobVariableReadsWithParametersRecipe
+    extends ScanningRecipe<MigrationMetrics.Totals> {
+
+  private static final String ACTIVATED_JOB = "io.camunda.client.api.response.ActivatedJob";
+
+  private static final String VARIABLE = "io.camunda.spring.client.annotation.Variable";
+
+  private static final String GET_VARIABLE = ACTIVATED_JOB + " getVariable(java.lang.String)";
+
+  private static final MethodMatcher GET_VARIABLE_MATCHER = new MethodMatcher(GET_VARIABLE);
+
+  private static final AnnotationMatcher JOB_WORKER_MATCHER =
+      new AnnotationMatcher("@io.camunda.spring.client.annotation.JobWorker");
+
+  private final transient MigrationMetrics metrics = new MigrationMetrics(this);
+
+  /** Instantiates a new instance. */
+  public ReplaceJobVariableReadsWithParametersRecipe() {}
+
+  @Override
+  public String getDisplayName() {
+    return "Bind job variables to worker parameters";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Replaces `job.getVariable(\"name\")` in job workers with a `@Variable` parameter per variable, so each variable is deserialized once per job.";
+  }
+
+  /** The reads of one variable, with the type of the parameter replacing them. */
+  private static final class Reads {
+    @Nullable TypeTree castType;
+    boolean uncast;
+    boolean conflicting;
+
+    void add(@Nullable TypeTree type) {
+      if (type == null) {
+        uncast = true;
+      } else if (castType == null) {
+        castType = type;
+      } else if (!TypeUtils.isOfType(castType.getType(), type.getType())) {
+        conflicting = true;
+      }
+      conflicting |= uncast && castType != null;
+    }
+  }
+
+  @Override
+  public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+    return new MigrationMetrics.Totals();
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+    return metrics.scanner(totals, getVisitor(totals));
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
+    MigrationMetrics.Recorder recorder = metrics.recorder(totals);
+
+    return metrics.check(
+        totals,
+        CamundaUsageIndex.usesCamundaMethod(GET_VARIABLE),
+        new JavaIsoVisitor<>() {
+
+          @Override
+          public J.CompilationUnit visitCompilationUnit(
+              J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            J.CompilationUnit visited = super.visitCompilationUnit(compilationUnit, ctx);
+            recorder.flush(compilationUnit, ctx);
+            return visited;
+          }
+
+          @Override
+          public J.MethodDeclaration visitMethodDeclaration(
+              J.MethodDeclaration method, ExecutionContext ctx) {
+            J.MethodDeclaration visited = super.visitMethodDeclaration(method, ctx);
+            String job = jobParameter(visited);
+            if (job == null
+                || visited.getBody() == null
+                || visited.getLeadingAnnotations().stream().noneMatch(JOB_WORKER_MATCHER::matches)) {
+              return visited;
+            }
+
+            // collect the reads by variable name, in the order of their first read
+            Map<String, Reads> reads = new LinkedHashMap<>();
+            Set<String> identifiers = new HashSet<>();
+            new JavaIsoVisitor<Integer>() {
+              @Override
+              public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                identifiers.add(identifier.getSimpleName());
+                return super.visitIdentifier(identifier, p);
+              }
+
+              @Override
+              public J.MethodInvocation visitMethodInvocation(
+                  J.MethodInvocation invocation, Integer p) {
+                String name =
+                    recorder.matches(GET_VARIABLE_MATCHER, invocation)
+                        ? variableName(getCursor(), job)
+                        : null;
+                if (name != null) {
+                  reads
+                      .computeIfAbsent(name, n -> new Reads())
+                      .add(
+                          getCursor().getParentTreeCursor().getValue() instanceof J.TypeCast cast
+                              ? cast.getClazz().getTree()
+                              : null);
+                }
+                return super.visitMethodInvocation(invocation, p);
+              }
+            }.visit(visited, 0, getCursor().getParentOrThrow());
+
+            // name the parameters
+            Map<String, J.Identifier> parameters = new LinkedHashMap<>();
+            for (Map.Entry<String, Reads> read : reads.entrySet()) {
+              String parameterName = parameterName(read.getKey(), identifiers);
+              if (read.getValue().conflicting || parameterName == null) {
+                continue;
+              }
+              identifiers.add(parameterName);
+              TypeTree castType = read.getValue().castType;
+              parameters.put(
+                  read.getKey(),
+                  new J.Identifier(
+                      Tree.randomId(),
+                      Space.EMPTY,
+                      Markers.EMPTY,
+                      Collections.emptyList(),
+                      parameterName,
+                      castType == null ? JavaType.ShallowClass.build("java.lang.Object")
+                          : castType.getType(),
+                      null));
+            }
+            if (parameters.isEmpty()) {
+              return visited;
+            }
+
+            J.MethodDeclaration replaced =
+                (J.MethodDeclaration)
+                    new JavaVisitor<Integer>() {
+                      @Override
+                      public J visitTypeCast(J.TypeCast cast, Integer p) {
+                        J.Identifier parameter =
+                            parameterOf(
+                                new Cursor(getCursor(), cast.getExpression()),
+                                job,
+                                parameters);
+                        return parameter == null
+                            ? super.visitTypeCast(cast, p)
+                            : parameter.withPrefix(cast.getPrefix());
+                      }
+
+                      @Override
+                      public J visitMethodInvocation(J.MethodInvocation invocation, Integer p) {
+                        J.Identifier parameter = parameterOf(getCursor(), job, parameters);
+                        return parameter == null
+                            ? super.visitMethodInvocation(invocation, p)
+                            : parameter.withPrefix(invocation.getPrefix());
+                      }
+                    }.visitNonNull(visited, 0, getCursor().getParentOrThrow());
+
+            maybeAddImport(VARIABLE);
+            List<Statement> newParameters = new ArrayList<>(replaced.getParameters());
+            JavaType.Method methodType = replaced.getMethodType();
+            List<String> parameterNames =
+                methodType == null ? null : new ArrayList<>(methodType.getParameterNames());
+            List<JavaType> parameterTypes =
+                methodType == null ? null : new ArrayList<>(methodType.getParameterTypes());
+            for (Map.Entry<String, J.Identifier> parameter : parameters.entrySet()) {
+              TypeTree castType = reads.get(parameter.getKey()).castType;
+              newParameters.add(variableParameter(parameter.getKey(), parameter.getValue(), castType));
+              if (methodType != null) {
+                parameterNames.add(parameter.getValue().getSimpleName());
+                parameterTypes.add(parameter.getValue().getType());
+              }
+            }
+            return replaced
+                .withParameters(newParameters)
+                .withMethodType(
+                    methodType == null
+                        ? null
+                        : methodType
+                            .withParameterNames(parameterNames)
+                            .withParameterTypes(parameterTypes));
+          }
+        });
+  }
+
+  /** The name of the activated job parameter of the method, or null if it has none. */
+  private static @Nullable String jobParameter(J.MethodDeclaration method) {
+    for (Statement parameter : method.getParameters()) {
+      if (parameter instanceof J.VariableDeclarations declarations
+          && TypeUtils.isOfClassType(declarations.getType(), ACTIVATED_JOB)) {
+        return declarations.getVariables().get(0).getSimpleName();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The constant variable name read by the invocation at the cursor, or null if it is no read with
+   * the job of the worker or the name is not constant.
+   */
+  private static @Nullable String variableName(Cursor cursor, String job) {
+    if (!(cursor.getValue() instanceof J.MethodInvocation invocation)
+        || !GET_VARIABLE_MATCHER.matches(invocation)
+        || !(invocation.getSelect() instanceof J.Identifier select)
+        || !select.getSimpleName().equals(job)) {
+      return null;
+    }
+    Expression argument = invocation.getArguments().get(0);
+    if (argument instanceof J.Literal literal && literal.getValue() instanceof String name) {
+      return name;
+    }
+    return ConstantFold.findConstantLiteralValue(new Cursor(cursor, argument), String.class)
+        .toNull();
+  }
+
+  private static J.@Nullable Identifier parameterOf(
+      Cursor cursor, String job, Map<String, J.Identifier> parameters) {
+    String name = variableName(cursor, job);
+    return name == null ? null : parameters.get(name);
+  }
+
+  /**
+   * The variable name, or the variable name with a {@code Variable} suffix, whichever is a Java
+   * identifier not yet used in the method, or null if neither is.
+   */
+  private static @Nullable String parameterName(String variableName, Set<String> identifiers) {
+    for (String candidate : List.of(variableName, variableName + "Variable")) {
+      if (SourceVersion.isIdentifier(candidate)
+          && !SourceVersion.isKeyword(candidate)
+          && !identifiers.contains(candidate)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /** {@code @Variable(name = "variableName") Type parameterName}. */
+  private static J.VariableDeclarations variableParameter(
+      String variableName, J.Identifier parameterName, @Nullable TypeTree castType) {
+    J.Annotation annotation =
+        new J.Annotation(
+            Tree.randomId(),
+            Space.EMPTY,
+            Markers.EMPTY,
+            RecipeUtils.createSimpleIdentifier("Variable", VARIABLE),
+            JContainer.build(
+                Space.EMPTY,
+                List.of(
+                    JRightPadded.<Expression>build(
+                        new J.Assignment(
+                            Tree.randomId(),
+                            Space.EMPTY,
+                            Markers.EMPTY,
+                            new J.Identifier(
+                                Tree.randomId(),
+                                Space.EMPTY,
+                                Markers.EMPTY,
+                                Collections.emptyList(),
+                                "name",
+                                JavaType.Primitive.String,
+                                null),
+                            JLeftPadded.build(
+                                    (Expression)
+                                        new J.Literal(
+                                            Tree.randomId(),
+                                            Space.SINGLE_SPACE,
+                                            Markers.EMPTY,
+                                            variableName,
+                                            '"'
+                                                + variableName
+                                                    .replace("\\", "\\\\")
+                                                    .replace("\"", "\\\"")
+                                                + '"',
+                                            null,
+                                            JavaType.Primitive.String))
+                                .withBefore(Space.SINGLE_SPACE),
+                            JavaType.Primitive.String))),
+                Markers.EMPTY));
+    TypeTree type =
+        castType == null
+            ? RecipeUtils.createSimpleIdentifier("Object", "java.lang.Object")
+            : castType.withPrefix(Space.SINGLE_SPACE);
+    return new J.VariableDeclarations(
+        Tree.randomId(),
+        Space.SINGLE_SPACE,
+        Markers.EMPTY,
+        List.of(annotation),
+        Collections.emptyList(),
+        type.withPrefix(Space.SINGLE_SPACE),
+        null,
+        Collections.emptyList(),
+        List.of(
+            JRightPadded.build(
+                new J.VariableDeclarations.NamedVariable(
+                    Tree.randomId(),
+                    Space.SINGLE_SPACE,
+                    Markers.EMPTY,
+                    parameterName,
+                    Collections.emptyList(),
+                    null,
+                    new JavaType.Variable(
+                        null,
+                        0L,
+                        parameterName.getSimpleName(),
+                        null,
+                        parameterName.getType(),
+                        Collections.emptyList())))));
+  }
+}
@@ -3,20 +3,177 @@ package org.camunda.migration.rewrite.recipes.sharedRecipes;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.camunda.migration.rewrite.recipes.utils.BlockSymbols;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
+import org.camunda.migration.rewrite.recipes.utils.DeferredFormatting;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMatcherProvider;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
+import org.camunda.migration.rewrite.recipes.utils.TypeName;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesMethod;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 
-public class ReplaceTypedValueAPIRecipe extends Recipe {
+public class ReplaceTypedValueAPIRecipe extends ScanningRecipe<MigrationMetrics.Totals>
+    implements SpecMatcherProvider {
+
+  /** Timing and match counters of the specs, see {@link MigrationMetrics}. */
+  private final transient MigrationMetrics metrics = new MigrationMetrics(this);
 
   /** Instantiates a new instance. */
   public ReplaceTypedValueAPIRecipe() {}
 
+  private final transient List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations =
+      List.of(
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "booleanValue(Boolean bool)"
+                  "org.camunda.bpm.engine.variable.Variables booleanValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Boolean)}"),
+              null,
+              "java.lang.Boolean",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(
+                  new ReplacementUtils.SimpleReplacementSpec.NamedArg("booleanValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "stringValue(String string)"
+                  "org.camunda.bpm.engine.variable.Variables stringValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Boolean)}"),
+              null,
+              "java.lang.String",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(
+                  new ReplacementUtils.SimpleReplacementSpec.NamedArg("stringValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "integerValue(Integer integer)"
+                  "org.camunda.bpm.engine.variable.Variables integerValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Integer)}"),
+              null,
+              "java.lang.Integer",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(
+                  new ReplacementUtils.SimpleReplacementSpec.NamedArg("integerValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "longValue(Long long)"
+                  "org.camunda.bpm.engine.variable.Variables longValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Long)}"),
+              null,
+              "java.lang.Long",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("longValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "shortValue(Short short)"
+                  "org.camunda.bpm.engine.variable.Variables shortValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Short)}"),
+              null,
+              "java.lang.Short",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("shortValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "doubleValue(Double double)"
+                  "org.camunda.bpm.engine.variable.Variables doubleValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Double)}"),
+              null,
+              "java.lang.Double",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(
+                  new ReplacementUtils.SimpleReplacementSpec.NamedArg("doubleValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "floatValue(Float float)"
+                  "org.camunda.bpm.engine.variable.Variables floatValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Float)}"),
+              null,
+              "java.lang.Float",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("floatValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "byteArrayValue(java.lang.Byte[] bytes)"
+                  "org.camunda.bpm.engine.variable.Variables byteArrayValue(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Byte[])}"),
+              null,
+              "java.lang.Byte[]",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(
+                  new ReplacementUtils.SimpleReplacementSpec.NamedArg("byteArrayValue", 0)),
+              Collections.emptyList()),
+          new ReplacementUtils.SimpleReplacementSpec(
+              new SpecMethodMatcher(
+                  // "fromMap(java.util.Map map)"
+                  "org.camunda.bpm.engine.variable.Variables fromMap(..)"),
+              RecipeUtils.lazyJavaTemplate("#{any(java.lang.Map)}"),
+              null,
+              "java.util.Map<String, Object>",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("fromMap", 0)),
+              Collections.emptyList()));
+
+  // "org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)"
+
+  private final transient List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations =
+      List.of(
+          new ReplacementUtils.BuilderReplacementSpec(
+              new SpecMethodMatcher(
+                  "org.camunda.bpm.engine.variable.value.builder.TypedValueBuilder create()"),
+              Set.of("objectValue"),
+              List.of("objectValue"),
+              RecipeUtils.lazyJavaTemplate("#{any()}"),
+              null,
+              "java.lang.Object",
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              List.of(" type set to java.lang.Object")));
+
+  // join specs - possible because we don't touch the method invocations
+  private final transient List<ReplacementUtils.ReplacementSpec> commonSpecs =
+      Stream.concat(
+              simpleMethodInvocations.stream()
+                  .map(spec -> (ReplacementUtils.ReplacementSpec) spec),
+              builderMethodInvocations.stream()
+                  .map(spec -> (ReplacementUtils.ReplacementSpec) spec))
+          .toList();
+
+  private final transient Map<MethodMatcher, List<ReplacementUtils.BuilderReplacementSpec>>
+      builderSpecMap =
+          builderMethodInvocations.stream()
+              .collect(Collectors.groupingBy(ReplacementUtils.BuilderReplacementSpec::matcher));
+
+  private final transient List<MethodMatcher> typedGetterMatchers =
+      List.of(
+          new SpecMethodMatcher(
+              "org.camunda.bpm.engine.delegate.VariableScope getVariableTyped(..)"),
+          new SpecMethodMatcher(
+              "org.camunda.bpm.engine.delegate.VariableScope getVariableLocalTyped(..)"),
+          new SpecMethodMatcher("org.camunda.bpm.client.task.ExternalTask getVariableTyped(..)"),
+          new SpecMethodMatcher(
+              "org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)"),
+          new SpecMethodMatcher("org.camunda.bpm.engine.TaskService getVariableLocalTyped(..)"),
+          new SpecMethodMatcher("org.camunda.bpm.engine.TaskService getVariableTyped(..)"));
+
+  @Override
+  public List<MethodMatcher> specMatchers() {
+    return Stream.concat(
+            commonSpecs.stream().map(ReplacementUtils.ReplacementSpec::matcher),
+            typedGetterMatchers.stream())
+        .toList();
+  }
+
   @Override
   public String getDisplayName() {
     return "Convert typed value api to java object api";
@@ -28,160 +185,94 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
   }
 
   @Override
-  public TreeVisitor<?, ExecutionContext> getVisitor() {
+  public MigrationMetrics.Totals getInitialValue(ExecutionContext ctx) {
+    return new MigrationMetrics.Totals();
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getScanner(MigrationMetrics.Totals totals) {
+    return metrics.scanner(totals, getVisitor(totals));
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor(MigrationMetrics.Totals totals) {
 
     // define preconditions
     TreeVisitor<?, ExecutionContext> check =
         Preconditions.or(
-            new UsesType<>("org.camunda.bpm.engine.variable.Variables", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.VariableMap", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.TypedValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.BooleanValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.ObjectValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.StringValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.IntegerValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.LongValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.ShortValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.DoubleValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.FloatValue", true),
-            new UsesType<>("org.camunda.bpm.engine.variable.value.BytesValue", true),
-            new UsesMethod<>("org.camunda.bpm.engine.delegate.VariableScope getVariableTyped(..)"),
-            new UsesMethod<>(
-                "org.camunda.bpm.engine.delegate.VariableScope getVariableLocalTyped(..)"),
-            new UsesMethod<>("org.camunda.bpm.client.task.ExternalTask getVariableTyped(..)"),
-            new UsesMethod<>("org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)"),
-            new UsesMethod<>("org.camunda.bpm.engine.TaskService getVariableLocalTyped(..)"),
-            new UsesMethod<>("org.camunda.bpm.engine.TaskService getVariableTyped(..)"));
-
-    return Preconditions.check(
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.Variables"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.VariableMap"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.TypedValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.BooleanValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.ObjectValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.StringValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.IntegerValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.LongValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.ShortValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.DoubleValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.FloatValue"),
+            CamundaUsageIndex.usesCamundaType("org.camunda.bpm.engine.variable.value.BytesValue"),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.engine.delegate.VariableScope getVariableTyped(..)", false),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.engine.delegate.VariableScope getVariableLocalTyped(..)", false),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.client.task.ExternalTask getVariableTyped(..)", false),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)", false),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.engine.TaskService getVariableLocalTyped(..)", false),
+            CamundaUsageIndex.usesCamundaMethod(
+                "org.camunda.bpm.engine.TaskService getVariableTyped(..)", false));
+
+    MigrationMetrics.Recorder recorder = metrics.recorder(totals);
+
+    return metrics.check(
+        totals,
         check,
         new JavaVisitor<ExecutionContext>() {
 
-          private final List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations =
-              List.of(
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "booleanValue(Boolean bool)"
-                          "org.camunda.bpm.engine.variable.Variables booleanValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Boolean)}"),
-                      null,
-                      "java.lang.Boolean",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(
-                          new ReplacementUtils.SimpleReplacementSpec.NamedArg("booleanValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "stringValue(String string)"
-                          "org.camunda.bpm.engine.variable.Variables stringValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Boolean)}"),
-                      null,
-                      "java.lang.String",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(
-                          new ReplacementUtils.SimpleReplacementSpec.NamedArg("stringValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "integerValue(Integer integer)"
-                          "org.camunda.bpm.engine.variable.Variables integerValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Integer)}"),
-                      null,
-                      "java.lang.Integer",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(
-                          new ReplacementUtils.SimpleReplacementSpec.NamedArg("integerValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "longValue(Long long)"
-                          "org.camunda.bpm.engine.variable.Variables longValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Long)}"),
-                      null,
-                      "java.lang.Long",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("longValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "shortValue(Short short)"
-                          "org.camunda.bpm.engine.variable.Variables shortValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Short)}"),
-                      null,
-                      "java.lang.Short",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("shortValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "doubleValue(Double double)"
-                          "org.camunda.bpm.engine.variable.Variables doubleValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Double)}"),
-                      null,
-                      "java.lang.Double",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(
-                          new ReplacementUtils.SimpleReplacementSpec.NamedArg("doubleValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "floatValue(Float float)"
-                          "org.camunda.bpm.engine.variable.Variables floatValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Float)}"),
-                      null,
-                      "java.lang.Float",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("floatValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "byteArrayValue(java.lang.Byte[] bytes)"
-                          "org.camunda.bpm.engine.variable.Variables byteArrayValue(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Byte[])}"),
-                      null,
-                      "java.lang.Byte[]",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(
-                          new ReplacementUtils.SimpleReplacementSpec.NamedArg("byteArrayValue", 0)),
-                      Collections.emptyList()),
-                  new ReplacementUtils.SimpleReplacementSpec(
-                      new MethodMatcher(
-                          // "fromMap(java.util.Map map)"
-                          "org.camunda.bpm.engine.variable.Variables fromMap(..)"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any(java.lang.Map)}"),
-                      null,
-                      "java.util.Map<String, Object>",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(new ReplacementUtils.SimpleReplacementSpec.NamedArg("fromMap", 0)),
-                      Collections.emptyList()));
-
-          // "org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)"
-
-          private final List<ReplacementUtils.BuilderReplacementSpec> builderMethodInvocations =
-              List.of(
-                  new ReplacementUtils.BuilderReplacementSpec(
-                      new MethodMatcher(
-                          "org.camunda.bpm.engine.variable.value.builder.TypedValueBuilder create()"),
-                      Set.of("objectValue"),
-                      List.of("objectValue"),
-                      RecipeUtils.createSimpleJavaTemplate("#{any()}"),
-                      null,
-                      "java.lang.Object",
-                      ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                      List.of(" type set to java.lang.Object")));
-
-          // join specs - possible because we don't touch the method invocations
-          final List<ReplacementUtils.ReplacementSpec> commonSpecs =
-              Stream.concat(
-                      simpleMethodInvocations.stream()
-                          .map(spec -> (ReplacementUtils.ReplacementSpec) spec),
-                      builderMethodInvocations.stream()
-                          .map(spec -> (ReplacementUtils.ReplacementSpec) spec))
-                  .toList();
-
-          final Map<MethodMatcher, List<ReplacementUtils.BuilderReplacementSpec>> builderSpecMap =
-              builderMethodInvocations.stream()
-                  .collect(Collectors.groupingBy(ReplacementUtils.BuilderReplacementSpec::matcher));
+          /** Returns the matcher of the typed variable getter that is invoked, or null. */
+          private MethodMatcher typedGetterMatcher(J.MethodInvocation invocation) {
+            for (MethodMatcher matcher : typedGetterMatchers) {
+              if (recorder.matches(matcher, invocation)) {
+                return matcher;
+              }
+            }
+            return null;
+          }
+
+          private boolean deferFormatting;
+
+          // migrated variable types, and invocations whose comments went to the enclosing statement
+          private final BlockSymbols symbols = new BlockSymbols();
+          private final Set<UUID> commentedInvocations = new HashSet<>();
+
+          /** Formats the replacement now, or marks it for the pass at the end of the file. */
+          private <T extends J> T formatReplacement(
+              @Nullable MethodMatcher matcher, T before, T after, ExecutionContext ctx) {
+            if (deferFormatting) {
+              return DeferredFormatting.mark(before, after);
+            }
+            return matcher == null
+                ? maybeAutoFormat(before, after, ctx)
+                : recorder.autoFormat(matcher, () -> maybeAutoFormat(before, after, ctx));
+          }
+
+          @Override
+          public J visitCompilationUnit(J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+            deferFormatting = DeferredFormatting.isEnabled(ctx);
+            symbols.clear();
+            commentedInvocations.clear();
+            J visited = super.visitCompilationUnit(compilationUnit, ctx);
+            if (deferFormatting && visited != compilationUnit) {
+              J.CompilationUnit replaced = (J.CompilationUnit) visited;
+              visited =
+                  recorder.deferredFormat(() -> DeferredFormatting.formatMarked(replaced, ctx));
+            }
+            recorder.flush(compilationUnit, ctx);
+            return visited;
+          }
 
           public static String mapTypedValueToNewFqn(JavaType type) {
             if (!(type instanceof JavaType.FullyQualified fqType)) {
@@ -236,37 +327,40 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
 
                 // if match is found for the invocation, check returnTypeFqn to adjust variable
                 // declaration type
-                if (spec.matcher().matches(invocation)) {
+                if (recorder.matches(spec.matcher(), invocation)) {
 
                   // get modifiers
                   List<J.Modifier> modifiers = declarations.getModifiers();
 
                   // Create simple java template to adjust variable declaration type, but keep
                   // invocation as is
-                  J.VariableDeclarations modifiedDeclarations =
+                  JavaTemplate template =
                       RecipeUtils.createSimpleJavaTemplate(
-                              (modifiers == null || modifiers.isEmpty()
-                                      ? ""
-                                      : modifiers.stream()
-                                          .map(J.Modifier::toString)
-                                          .collect(Collectors.joining(" ", "", " ")))
-                                  + spec.returnTypeFqn()
-                                      .substring(spec.returnTypeFqn().lastIndexOf('.') + 1)
-                                  + " "
-                                  + originalName.getSimpleName()
-                                  + " = #{any()}",
-                              spec.returnTypeFqn())
-                          .apply(getCursor(), declarations.getCoordinates().replace(), invocation);
+                          (modifiers == null || modifiers.isEmpty()
+                                  ? ""
+                                  : modifiers.stream()
+                                      .map(J.Modifier::toString)
+                                      .collect(Collectors.joining(" ", "", " ")))
+                              + spec.returnTypeFqn()
+                                  .substring(spec.returnTypeFqn().lastIndexOf('.') + 1)
+                              + " "
+                              + originalName.getSimpleName()
+                              + " = #{any()}",
+                          spec.returnTypeFqn());
+                  J.VariableDeclarations modifiedDeclarations =
+                      recorder.template(
+                          spec.matcher(),
+                          () ->
+                              template.apply(
+                                  getCursor(), declarations.getCoordinates().replace(), invocation));
 
                   maybeAddImport(spec.returnTypeFqn());
 
                   // ensure comments are added here, not on method invocation
-                  getCursor().putMessage(invocation.getId().toString(), "comments added");
+                  commentedInvocations.add(invocation.getId());
 
                   // record fqn of identifier for later uses
-                  getCursor()
-                      .dropParentUntil(parent -> parent instanceof J.Block)
-                      .putMessage(originalName.toString(), spec.returnTypeFqn());
+                  symbols.declare(originalName.getSimpleName(), spec.returnTypeFqn());
 
                   // merge comments
                   modifiedDeclarations =
@@ -280,34 +374,18 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                               .toList());
 
                   // visit method invocations
-                  modifiedDeclarations =
+                  J.VariableDeclarations visitedDeclarations =
                       (J.VariableDeclarations)
                           super.visitVariableDeclarations(modifiedDeclarations, ctx);
 
                   maybeRemoveImport(declarations.getTypeAsFullyQualified());
 
-                  return maybeAutoFormat(declarations, modifiedDeclarations, ctx);
+                  return formatReplacement(spec.matcher(), declarations, visitedDeclarations, ctx);
                 }
               }
 
-              if (new MethodMatcher(
-                          "org.camunda.bpm.engine.delegate.VariableScope getVariableTyped(..)")
-                      .matches(invocation)
-                  || new MethodMatcher(
-                          "org.camunda.bpm.engine.delegate.VariableScope getVariableLocalTyped(..)")
-                      .matches(invocation)
-                  || new MethodMatcher(
-                          "org.camunda.bpm.client.task.ExternalTask getVariableTyped(..)")
-                      .matches(invocation)
-                  || new MethodMatcher(
-                          "org.camunda.bpm.client.task.ExternalTask getAllVariablesTyped(..)")
-                      .matches(invocation)
-                  || new MethodMatcher(
-                      "org.camunda.bpm.engine.TaskService getVariableLocalTyped(..)")
-                          .matches(invocation)
-                  || new MethodMatcher(
-                      "org.camunda.bpm.engine.TaskService getVariableTyped(..)")
-                          .matches(invocation)) {
+              MethodMatcher typedGetter = typedGetterMatcher(invocation);
+              if (typedGetter != null) {
 
                 // get modifiers
                 List<J.Modifier> modifiers = declarations.getModifiers();
@@ -316,26 +394,29 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
 
                 // Create simple java template to adjust variable declaration type, but keep
                 // invocation as is
-                J.VariableDeclarations modifiedDeclarations =
+                JavaTemplate template =
                     RecipeUtils.createSimpleJavaTemplate(
-                            (modifiers == null || modifiers.isEmpty()
-                                    ? ""
-                                    : modifiers.stream()
-                                        .map(J.Modifier::toString)
-                                        .collect(Collectors.joining(" ", "", " ")))
-                                + newFqn.substring(newFqn.lastIndexOf('.') + 1)
-                                + " "
-                                + originalName.getSimpleName()
-                                + " = #{any()}",
-                            "java.lang.Object")
-                        .apply(getCursor(), declarations.getCoordinates().replace(), invocation);
+                        (modifiers == null || modifiers.isEmpty()
+                                ? ""
+                                : modifiers.stream()
+                                    .map(J.Modifier::toString)
+                                    .collect(Collectors.joining(" ", "", " ")))
+                            + newFqn.substring(newFqn.lastIndexOf('.') + 1)
+                            + " "
+                            + originalName.getSimpleName()
+                            + " = #{any()}",
+                        "java.lang.Object");
+                J.VariableDeclarations modifiedDeclarations =
+                    recorder.template(
+                        typedGetter,
+                        () ->
+                            template.apply(
+                                getCursor(), declarations.getCoordinates().replace(), invocation));
 
                 maybeAddImport(newFqn);
 
                 // record fqn of identifier for later uses
-                getCursor()
-                    .dropParentUntil(parent -> parent instanceof J.Block)
-                    .putMessage(originalName.toString(), newFqn);
+                symbols.declare(originalName.getSimpleName(), newFqn);
 
                 // merge comments
                 modifiedDeclarations =
@@ -348,7 +429,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                             .toList());
 
                 // visit method invocations
-                modifiedDeclarations =
+                J.VariableDeclarations visitedDeclarations =
                     (J.VariableDeclarations)
                         super.visitVariableDeclarations(modifiedDeclarations, ctx);
 
@@ -356,7 +437,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                   maybeRemoveImport(oldFqn);
                 }
 
-                return maybeAutoFormat(declarations, modifiedDeclarations, ctx);
+                return formatReplacement(typedGetter, declarations, visitedDeclarations, ctx);
               }
             }
 
@@ -369,7 +450,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
             // the unneeded block is subsequently removed
             if (TypeUtils.isOfType(
                 declarations.getType(),
-                JavaType.ShallowClass.build("org.camunda.bpm.engine.variable.VariableMap"))) {
+                TypeName.of("org.camunda.bpm.engine.variable.VariableMap").shallowClass())) {
 
               List<Object> putValues = new ArrayList<>();
 
@@ -409,9 +490,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                       originalName.getSimpleName(), mapPutLines.toString().stripTrailing());
 
               // record fqn of identifier for later uses
-              getCursor()
-                  .dropParentUntil(parent -> parent instanceof J.Block)
-                  .putMessage(originalName.toString(), "java.util.Map");
+              symbols.declare(originalName.getSimpleName(), "java.util.Map");
 
               J.Block newBlock =
                   RecipeUtils.createSimpleJavaTemplate(
@@ -447,13 +526,12 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
               if (newFqn != null) {
 
                 // record fqn of identifier for later uses
-                getCursor()
-                    .dropParentUntil(parent -> parent instanceof J.Block)
-                    .putMessage(originalName.toString(), newFqn);
+                symbols.declare(originalName.getSimpleName(), newFqn);
 
                 maybeRemoveImport(declarations.getTypeAsFullyQualified());
 
-                return maybeAutoFormat(
+                return formatReplacement(
+                    null,
                     declarations,
                     RecipeUtils.createSimpleJavaTemplate(
                             newFqn.substring(newFqn.lastIndexOf('.') + 1)
@@ -483,32 +561,33 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
 
               // if match is found for the invocation, check returnTypeFqn to adjust variable
               // declaration type
-              if (spec.matcher().matches(invocation)) {
+              if (recorder.matches(spec.matcher(), invocation)) {
 
                 // Create simple java template to adjust variable declaration type, but keep
                 // invocation as is
-                J.Assignment modifiedAssignment =
+                JavaTemplate template =
                     RecipeUtils.createSimpleJavaTemplate(
-                            originalName.getSimpleName() + " = #{any()}", spec.returnTypeFqn())
-                        .apply(getCursor(), assignment.getCoordinates().replace(), invocation);
+                        originalName.getSimpleName() + " = #{any()}", spec.returnTypeFqn());
+                J.Assignment modifiedAssignment =
+                    recorder.template(
+                        spec.matcher(),
+                        () ->
+                            template.apply(
+                                getCursor(), assignment.getCoordinates().replace(), invocation));
 
+                JavaType returnType = TypeName.of(spec.returnTypeFqn()).type();
                 modifiedAssignment =
                     modifiedAssignment.withVariable(
-                        modifiedAssignment
-                            .getVariable()
-                            .withType(JavaType.buildType(spec.returnTypeFqn())));
-                modifiedAssignment =
-                    modifiedAssignment.withType(JavaType.buildType(spec.returnTypeFqn()));
+                        modifiedAssignment.getVariable().withType(returnType));
+                modifiedAssignment = modifiedAssignment.withType(returnType);
 
                 maybeAddImport(spec.returnTypeFqn());
 
                 // ensure comments are added here, not on method invocation
-                getCursor().putMessage(invocation.getId().toString(), "comments added");
+                commentedInvocations.add(invocation.getId());
 
                 // record fqn of identifier for later uses
-                getCursor()
-                    .dropParentUntil(parent -> parent instanceof J.Block)
-                    .putMessage(originalName.toString(), spec.returnTypeFqn());
+                symbols.declare(originalName.getSimpleName(), spec.returnTypeFqn());
 
                 // merge comments
                 modifiedAssignment =
@@ -520,13 +599,14 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                             .toList());
 
                 // visit method invocations
-                modifiedAssignment = (J.Assignment) super.visitAssignment(modifiedAssignment, ctx);
+                J.Assignment visitedAssignment =
+                    (J.Assignment) super.visitAssignment(modifiedAssignment, ctx);
 
                 if (originalName.getType() instanceof JavaType.FullyQualified fqn) {
                   maybeRemoveImport(fqn);
                 }
 
-                return maybeAutoFormat(assignment, modifiedAssignment, ctx);
+                return formatReplacement(spec.matcher(), assignment, visitedAssignment, ctx);
               }
             }
             return super.visitAssignment(assignment, ctx);
@@ -538,30 +618,34 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
 
             // visit simple method invocations
             for (ReplacementUtils.SimpleReplacementSpec spec : simpleMethodInvocations) {
-              if (spec.matcher().matches(invocation)) {
+              if (recorder.matches(spec.matcher(), invocation)) {
 
                 if (invocation.getType() instanceof JavaType.FullyQualified fqn) {
                   maybeRemoveImport(fqn);
                 }
 
                 Expression modifiedInvocation =
-                    RecipeUtils.applyTemplate(
-                        spec.template(),
-                        invocation,
-                        getCursor(),
-                        spec.argumentIndexes().stream()
-                            .map(i -> invocation.getArguments().get(i.index()))
-                            .toArray(),
-                        getCursor().getNearestMessage(invocation.getId().toString()) != null
-                            ? Collections.emptyList()
-                            : spec.textComments());
+                    recorder.template(
+                        spec.matcher(),
+                        () ->
+                            RecipeUtils.applyTemplate(
+                                spec.template().get(),
+                                invocation,
+                                getCursor(),
+                                spec.argumentIndexes().stream()
+                                    .map(i -> invocation.getArguments().get(i.index()))
+                                    .toArray(),
+                                commentedInvocations.contains(invocation.getId())
+                                    ? Collections.emptyList()
+                                    : spec.textComments()));
 
                 if (modifiedInvocation instanceof J.MethodInvocation) {
                   modifiedInvocation =
                       (Expression)
                           super.visitMethodInvocation((J.MethodInvocation) modifiedInvocation, ctx);
                 }
-                return maybeAutoFormat(invocation, modifiedInvocation, ctx);
+                Expression visitedInvocation = modifiedInvocation;
+                return formatReplacement(spec.matcher(), invocation, visitedInvocation, ctx);
               }
             }
 
@@ -569,7 +653,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
             for (Map.Entry<MethodMatcher, List<ReplacementUtils.BuilderReplacementSpec>> entry :
                 builderSpecMap.entrySet()) {
               MethodMatcher matcher = entry.getKey();
-              if (matcher.matches(invocation)) {
+              if (recorder.matches(matcher, invocation)) {
                 Map<String, Expression> collectedArgs = new HashMap<>();
                 Expression current = invocation.getSelect();
 
@@ -596,14 +680,17 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                     }
 
                     Expression modifiedInvocation =
-                        RecipeUtils.applyTemplate(
-                            spec.template(),
-                            invocation,
-                            getCursor(),
-                            args,
-                            getCursor().getNearestMessage(invocation.getId().toString()) != null
-                                ? Collections.emptyList()
-                                : spec.textComments());
+                        recorder.template(
+                            matcher,
+                            () ->
+                                RecipeUtils.applyTemplate(
+                                    spec.template().get(),
+                                    invocation,
+                                    getCursor(),
+                                    args,
+                                    commentedInvocations.contains(invocation.getId())
+                                        ? Collections.emptyList()
+                                        : spec.textComments()));
 
                     if (modifiedInvocation instanceof J.MethodInvocation) {
                       modifiedInvocation =
@@ -611,7 +698,8 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                               super.visitMethodInvocation(
                                   (J.MethodInvocation) modifiedInvocation, ctx);
                     }
-                    return maybeAutoFormat(invocation, modifiedInvocation, ctx);
+                    Expression visitedInvocation = modifiedInvocation;
+                    return formatReplacement(matcher, invocation, visitedInvocation, ctx);
                   }
                 }
               }
@@ -622,7 +710,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
             if (invocation.getMethodType() != null
                 && TypeUtils.isOfType(
                     invocation.getMethodType().getDeclaringType(),
-                    JavaType.ShallowClass.build("org.camunda.bpm.engine.variable.VariableMap"))
+                    TypeName.of("org.camunda.bpm.engine.variable.VariableMap").shallowClass())
                 && (invocation.getSimpleName().equals("putValueTyped")
                     || invocation.getSimpleName().equals("putValue"))) {
 
@@ -650,18 +738,14 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                         + ")";
 
                 JavaTemplate mapOfEntries =
-                    JavaTemplate.builder(mapOfEntriesCode)
-                        .javaParser(
-                            JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()))
-                        .imports("java.util.Map")
-                        .build();
+                    RecipeUtils.createSimpleJavaTemplate(mapOfEntriesCode, "java.util.Map");
 
                 Collections.reverse(putValues);
 
                 List<Expression> args = new ArrayList<>();
                 for (J.MethodInvocation put : putValues) {
-                  args.add(RecipeUtils.updateType(getCursor(), put.getArguments().get(0)));
-                  args.add(RecipeUtils.updateType(getCursor(), put.getArguments().get(1)));
+                  args.add(RecipeUtils.updateType(symbols, put.getArguments().get(0)));
+                  args.add(RecipeUtils.updateType(symbols, put.getArguments().get(1)));
                 }
 
                 maybeAddImport("java.util.Map");
@@ -684,15 +768,15 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
                       getCursor(),
                       invocation.getCoordinates().replace(),
                       newIdent,
-                      RecipeUtils.updateType(getCursor(), invocation.getArguments().get(0)),
-                      RecipeUtils.updateType(getCursor(), invocation.getArguments().get(1)));
+                      RecipeUtils.updateType(symbols, invocation.getArguments().get(0)),
+                      RecipeUtils.updateType(symbols, invocation.getArguments().get(1)));
             }
 
             if (invocation.getSimpleName().equals("getValue")
                 && invocation.getSelect() instanceof J.Identifier select) {
 
-              // get returnTypeFqn from cursor message
-              String returnTypeFqn = getCursor().getNearestMessage(select.getSimpleName());
+              // get returnTypeFqn recorded by the declaration
+              String returnTypeFqn = symbols.typeOf(select.getSimpleName());
 
               return RecipeUtils.createSimpleJavaTemplate("#{any()}")
                   .apply(
@@ -720,7 +804,7 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
           @Override
           public J.Identifier visitIdentifier(J.Identifier identifier, ExecutionContext ctx) {
 
-            return (J.Identifier) RecipeUtils.updateType(getCursor(), identifier);
+            return (J.Identifier) RecipeUtils.updateType(symbols, identifier);
           }
 
           /**
@@ -729,7 +813,13 @@ public class ReplaceTypedValueAPIRecipe extends Recipe {
            */
           @Override
           public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
-            J.Block bl = (J.Block) super.visitBlock(block, ctx);
+            J.Block bl;
+            symbols.enterBlock();
+            try {
+              bl = (J.Block) super.visitBlock(block, ctx);
+            } finally {
+              symbols.exitBlock();
+            }
             J directParent = getCursor().getParentTreeCursor().getValue();
             if (directParent instanceof J.NewClass || directParent instanceof J.ClassDeclaration) {
               // If the direct parent is an initializer block or a static block, skip it
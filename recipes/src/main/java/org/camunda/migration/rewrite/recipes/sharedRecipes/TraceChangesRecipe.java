@@ -0,0 +1,186 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.camunda.migration.rewrite.recipes.utils.DiffTraceWriter;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+
+/**
+ * Debugging hook that appends the changes of the preceding recipes in a recipe list to a file as
+ * unified diffs. Only changed subtrees are diffed: the package and import section, and each
+ * top-level class whose tree was replaced. Unchanged subtrees keep their identity in the LST, so
+ * they are skipped without printing.
+ *
+ * <p>Printing and diffing happen on the background thread of a {@link DiffTraceWriter}, the
+ * visitor only compares references and queues the trees. Files can be sampled, so tracing can
+ * stay enabled on large repositories.
+ */
+public class TraceChangesRecipe extends ScanningRecipe<TraceChangesRecipe.Accumulator> {
+
+  @Option(
+      displayName = "Output file",
+      description = "The file the unified diffs are appended to.",
+      example = "target/rewrite-trace.diff")
+  private final String outputFile;
+
+  @Option(
+      displayName = "Sample every",
+      description = "Only every n-th Java source file is traced. Traces every file if not set.",
+      required = false,
+      example = "100")
+  private final @Nullable Integer sampleEvery;
+
+  @Option(
+      displayName = "Class name pattern",
+      description =
+          "Regular expression on the fully qualified names of top-level classes. Only matching classes are traced.",
+      required = false,
+      example = "org\\.example\\..*Delegate")
+  private final @Nullable String classNamePattern;
+
+  @JsonCreator
+  public TraceChangesRecipe(
+      @JsonProperty("outputFile") String outputFile,
+      @JsonProperty("sampleEvery") @Nullable Integer sampleEvery,
+      @JsonProperty("classNamePattern") @Nullable String classNamePattern) {
+    this.outputFile = outputFile;
+    this.sampleEvery = sampleEvery;
+    this.classNamePattern = classNamePattern;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return "Trace changes as unified diffs";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Appends the subtrees changed by the preceding recipes to a file as unified diffs. Add it at the end of a recipe list to debug it.";
+  }
+
+  @Override
+  public Validated<Object> validate() {
+    return super.validate()
+        .and(
+            Validated.test(
+                "sampleEvery",
+                "must be positive",
+                sampleEvery,
+                every -> every == null || every > 0));
+  }
+
+  /** Trees of the sampled source files before the recipe list ran, keyed by source path. */
+  public static class Accumulator {
+    private final AtomicLong javaSourceFiles = new AtomicLong();
+    private final Map<Path, JavaSourceFile> before = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public Accumulator getInitialValue(ExecutionContext ctx) {
+    return new Accumulator();
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+    return new TreeVisitor<Tree, ExecutionContext>() {
+      @Override
+      public Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        if (tree instanceof JavaSourceFile sourceFile) {
+          long index = acc.javaSourceFiles.getAndIncrement();
+          if (sampleEvery == null || index % sampleEvery == 0) {
+            acc.before.put(sourceFile.getSourcePath(), sourceFile);
+          }
+        }
+        return tree;
+      }
+    };
+  }
+
+  @Override
+  public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+    DiffTraceWriter writer = DiffTraceWriter.forFile(Path.of(outputFile));
+    Pattern classNames = classNamePattern == null ? null : Pattern.compile(classNamePattern);
+
+    return new JavaIsoVisitor<>() {
+      @Override
+      public J.CompilationUnit visitCompilationUnit(
+          J.CompilationUnit after, ExecutionContext ctx) {
+        if (!(acc.before.remove(after.getSourcePath()) instanceof J.CompilationUnit before)
+            || before == after) {
+          return after;
+        }
+
+        Path path = after.getSourcePath();
+        Cursor parent = new Cursor(null, Cursor.ROOT_VALUE);
+
+        if (classNames == null
+            && (before.getPackageDeclaration() != after.getPackageDeclaration()
+                || before.getPadding().getImports() != after.getPadding().getImports())) {
+          writer.offer(
+              () ->
+                  Result.diff(
+                      before.withClasses(Collections.emptyList()).printAll(),
+                      after.withClasses(Collections.emptyList()).printAll(),
+                      path));
+        }
+
+        Map<UUID, J.ClassDeclaration> classesBefore = new HashMap<>();
+        before.getClasses().forEach(classDecl -> classesBefore.put(classDecl.getId(), classDecl));
+
+        for (J.ClassDeclaration classAfter : after.getClasses()) {
+          J.ClassDeclaration classBefore = classesBefore.get(classAfter.getId());
+          if (classBefore == classAfter || !isTraced(classNames, classAfter)) {
+            continue;
+          }
+          writer.offer(
+              () ->
+                  Result.diff(
+                      classBefore == null
+                          ? ""
+                          : classBefore.printTrimmed(new Cursor(parent, before)),
+                      classAfter.printTrimmed(new Cursor(parent, after)),
+                      path));
+        }
+        return after;
+      }
+    };
+  }
+
+  private static boolean isTraced(@Nullable Pattern classNames, J.ClassDeclaration classDecl) {
+    if (classNames == null) {
+      return true;
+    }
+    String className =
+        classDecl.getType() != null
+            ? classDecl.getType().getFullyQualifiedName()
+            : classDecl.getSimpleName();
+    return classNames.matcher(className).matches();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TraceChangesRecipe that)) {
+      return false;
+    }
+    return outputFile.equals(that.outputFile)
+        && Objects.equals(sampleEvery, that.sampleEvery)
+        && Objects.equals(classNamePattern, that.classNamePattern);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(outputFile, sampleEvery, classNamePattern);
+  }
+}
@@ -3,15 +3,14 @@ package org.camunda.migration.rewrite.recipes.testing;
 import java.util.Collections;
 import java.util.List;
 import org.camunda.migration.rewrite.recipes.sharedRecipes.AbstractMigrationRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaUsageIndex;
 import org.camunda.migration.rewrite.recipes.utils.RecipeUtils;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils;
+import org.camunda.migration.rewrite.recipes.utils.SpecMethodMatcher;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils.BuilderReplacementSpec;
 import org.camunda.migration.rewrite.recipes.utils.ReplacementUtils.ReturnReplacementSpec;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesType;
-import org.openrewrite.java.search.UsesMethod;
 
 public class ReplaceAssertionsRecipe extends AbstractMigrationRecipe {
 
@@ -27,7 +26,8 @@ public class ReplaceAssertionsRecipe extends AbstractMigrationRecipe {
 
   @Override
   protected TreeVisitor<?, ExecutionContext> preconditions() {
-    return new UsesMethod<>("org.camunda.bpm.engine.test.assertions.ProcessEngineTests assertThat(..)", true);
+    return CamundaUsageIndex.usesCamundaMethod(
+        "org.camunda.bpm.engine.test.assertions.ProcessEngineTests assertThat(..)");
   }
 
   // Check how to handle variables - can we add MapAssert to C8 assertions?
@@ -38,9 +38,9 @@ public class ReplaceAssertionsRecipe extends AbstractMigrationRecipe {
   protected List<ReplacementUtils.SimpleReplacementSpec> simpleMethodInvocations() {
     return List.of(
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.test.assertions.ProcessEngineTests assertThat(org.camunda.bpm.engine.runtime.ProcessInstance)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 "CamundaAssert.assertThat(#{processInstance:any(io.camunda.client.api.response.ProcessInstanceEvent)})",
                 "io.camunda.process.test.api.CamundaAssert"),
             null,
@@ -53,9 +53,9 @@ public class ReplaceAssertionsRecipe extends AbstractMigrationRecipe {
             List.of("org.camunda.bpm.engine.test.assertions.ProcessEngineTests.assertThat"),
             List.of("io.camunda.process.test.api.CamundaAssert")),
         new ReplacementUtils.SimpleReplacementSpec(
-            new MethodMatcher(
+            new SpecMethodMatcher(
                 "org.camunda.bpm.engine.test.assertions.ProcessEngineTests assertThat(org.camunda.bpm.engine.task.Task)"),
-            RecipeUtils.createSimpleJavaTemplate(
+            RecipeUtils.lazyJavaTemplate(
                 "CamundaAssert.assertThat(io.camunda.process.test.api.assertions.UserTaskSelectors.byTaskName(#{task:any(io.camunda.client.api.search.response.UserTask)}.getName()))",
                 "io.camunda.process.test.api.CamundaAssert",
                 "io.camunda.process.test.api.assertions.UserTaskSelectors"),
@@ -96,16 +96,17 @@ public class ReplaceAssertionsRecipe extends AbstractMigrationRecipe {
         rename("hasVariables(..)", "hasVariableNames"),
         rename("variables()", "isCreated"),
         new ReplacementUtils.RenameReplacementSpec(
-                new MethodMatcher("org.assertj.core.api.AbstractMapAssert containsEntry(..)"),
+                new SpecMethodMatcher("org.assertj.core.api.AbstractMapAssert containsEntry(..)"),
                 "hasVariable"),
         new ReplacementUtils.RenameReplacementSpec(
-            new MethodMatcher("org.camunda.bpm.engine.test.assertions.bpmn.TaskAssert isAssignedTo(..)"),
+            new SpecMethodMatcher(
+                "org.camunda.bpm.engine.test.assertions.bpmn.TaskAssert isAssignedTo(..)"),
             "hasAssignee"));
   }
 
   private ReplacementUtils.RenameReplacementSpec rename(String methodC7, String methodC8) {
     return new ReplacementUtils.RenameReplacementSpec(
-        new MethodMatcher(
+        new SpecMethodMatcher(
             "org.camunda.bpm.engine.test.assertions.bpmn.ProcessInstanceAssert " + methodC7),
         methodC8);
   }
@@ -0,0 +1,79 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.*;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+/**
+ * The migrated types of variables, by simple name, scoped to the {@link J.Block} that declares
+ * them. A type is visible from its declaration to the end of the block, including nested blocks,
+ * and a declaration in a nested block shadows the outer one until the nested block ends.
+ *
+ * <p>Visitors call {@link #enterBlock()} and {@link #exitBlock()} around every block they visit and
+ * {@link #clear()} for every compilation unit. Lookups are a single map access, independent of how
+ * deeply the identifier is nested, and are skipped entirely while the table {@link #isEmpty()},
+ * which is the case for most identifiers of most files.
+ */
+public final class BlockSymbols {
+
+  /** The visible types by name, innermost declaration first. */
+  private final Map<String, Deque<String>> types = new HashMap<>();
+
+  /** The names declared by each open block, innermost block first. */
+  private final Deque<List<String>> blocks = new ArrayDeque<>();
+
+  /** Instantiates an empty table. */
+  public BlockSymbols() {
+    clear();
+  }
+
+  /** Drops all declarations, for the next compilation unit. */
+  public void clear() {
+    types.clear();
+    blocks.clear();
+    // declarations outside any block, which Java does not have, end up in this root scope
+    blocks.push(new ArrayList<>());
+  }
+
+  public void enterBlock() {
+    blocks.push(new ArrayList<>());
+  }
+
+  /** Removes the declarations of the innermost block. */
+  public void exitBlock() {
+    if (blocks.size() == 1) {
+      return;
+    }
+    for (String name : blocks.pop()) {
+      Deque<String> declared = types.get(name);
+      declared.pop();
+      if (declared.isEmpty()) {
+        types.remove(name);
+      }
+    }
+  }
+
+  /** Declares the migrated type of a variable in the innermost block. */
+  public void declare(String name, String fqn) {
+    types.computeIfAbsent(name, key -> new ArrayDeque<>()).push(fqn);
+    blocks.peek().add(name);
+  }
+
+  /** True while no declaration is visible, so no identifier needs a lookup. */
+  public boolean isEmpty() {
+    return types.isEmpty();
+  }
+
+  /** The migrated type of the variable, or null if no visible declaration recorded one. */
+  public @Nullable String typeOf(String name) {
+    Deque<String> declared = types.get(name);
+    return declared == null ? null : declared.peek();
+  }
+
+  /** Like {@link #typeOf}, but as the interned type of the name, see {@link TypeName}. */
+  public @Nullable JavaType javaTypeOf(String name) {
+    String fqn = typeOf(name);
+    return fqn == null ? null : TypeName.of(fqn).type();
+  }
+}
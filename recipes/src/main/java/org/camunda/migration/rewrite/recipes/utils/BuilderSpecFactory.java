@@ -1,13 +1,18 @@
 package org.camunda.migration.rewrite.recipes.utils;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.openrewrite.java.MethodMatcher;
 
 public class BuilderSpecFactory {
 
-  public static List<ReplacementUtils.BuilderReplacementSpec> createBuilderSpecs(
+  /**
+   * Creates one lazy spec covering every combination of the base method and the matchable builder
+   * methods. The spec of a combination is only built once it is found in code.
+   */
+  public static ReplacementUtils.LazyBuilderReplacementSpec createBuilderSpecs(
       String methodPattern,
       String baseMethodName,
       List<String> matchableMethodNames,
@@ -17,50 +22,51 @@ public class BuilderSpecFactory {
       String suffix,
       String returnTypeFqn,
       List<String> additionalTextComments) {
-    List<List<String>> allOrderedCombinations =
-        generateAllOrderedCombinations(baseMethodName, matchableMethodNames);
-
-    return allOrderedCombinations.stream()
-        .map(
-            matches -> {
-              List<String> intersection =
-                  matches.stream().filter(extractableMethodNames::containsKey).toList();
-
-              List<String> nonExtractables =
-                  matches.stream()
-                      .filter(name -> !extractableMethodNames.containsKey(name))
-                      .toList();
-
-              return new ReplacementUtils.BuilderReplacementSpec(
-                  new MethodMatcher(methodPattern),
-                  new HashSet<>(matches),
-                  intersection,
-                  RecipeUtils.createSimpleJavaTemplate(
-                      prefix
-                          + extractableMethodNames.get(intersection.get(0))
-                          + (infix.isEmpty() ? "" : "\n\t")
-                          + infix
-                          + (intersection.size() > 1
-                              ? intersection.stream()
-                                  .skip(1)
-                                  .map(extractableMethodNames::get) // get value from map
-                                  .collect(Collectors.joining("\n\t", "\n\t", "\n\t"))
-                              : "\n\t")
-                          + suffix),
-                  RecipeUtils.createSimpleIdentifier(
-                      "camundaClient", "io.camunda.client.CamundaClient"),
-                  returnTypeFqn,
-                  ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                  Stream.concat(
-                          nonExtractables.stream()
-                              .map(methodName -> " " + methodName + " was removed"),
-                          additionalTextComments.stream())
-                      .toList());
-            })
-        .toList();
+    MethodMatcher matcher = new SpecMethodMatcher(methodPattern);
+
+    return new ReplacementUtils.LazyBuilderReplacementSpec(
+        matcher,
+        baseMethodName,
+        matchableMethodNames,
+        matches -> {
+          List<String> intersection =
+              matches.stream().filter(extractableMethodNames::containsKey).toList();
+
+          List<String> nonExtractables =
+              matches.stream()
+                  .filter(name -> !extractableMethodNames.containsKey(name))
+                  .toList();
+
+          return new ReplacementUtils.BuilderReplacementSpec(
+              matcher,
+              new HashSet<>(matches),
+              intersection,
+              RecipeUtils.lazyJavaTemplate(
+                  prefix
+                      + extractableMethodNames.get(intersection.get(0))
+                      + (infix.isEmpty() ? "" : "\n\t")
+                      + infix
+                      + (intersection.size() > 1
+                          ? intersection.stream()
+                              .skip(1)
+                              .map(extractableMethodNames::get) // get value from map
+                              .collect(Collectors.joining("\n\t", "\n\t", "\n\t"))
+                          : "\n\t")
+                      + suffix),
+              RecipeUtils.createSimpleIdentifier(
+                  "camundaClient", "io.camunda.client.CamundaClient"),
+              returnTypeFqn,
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              Stream.concat(
+                      nonExtractables.stream()
+                          .map(methodName -> " " + methodName + " was removed"),
+                      additionalTextComments.stream())
+                  .toList());
+        });
   }
 
-  public static List<ReplacementUtils.BuilderReplacementSpec> createBuilderFilterSpecs(
+  /** Same as {@link #createBuilderSpecs}, translating the builder methods to a search filter. */
+  public static ReplacementUtils.LazyBuilderReplacementSpec createBuilderFilterSpecs(
       String methodPattern,
       String baseMethodName,
       List<String> matchableMethodNames,
@@ -70,80 +76,86 @@ public class BuilderSpecFactory {
       String returnTypeFqn,
       List<String> additionalTextComments,
       Map<String, String> maybeImport) {
-    List<List<String>> allOrderedCombinations =
-        generateAllOrderedCombinations(baseMethodName, matchableMethodNames);
-
-    return allOrderedCombinations.stream()
-        .map(
-            matches -> {
-              List<String> intersection =
-                  matches.stream().filter(extractableMethodNames::containsKey).toList();
-
-              List<String> nonExtractables =
-                  matches.stream()
-                      .filter(name -> !extractableMethodNames.containsKey(name))
-                      .toList();
-
-              List<String> imports =
-                  intersection.stream()
-                      .map(maybeImport::get) // lookup each key in the map
-                      .filter(Objects::nonNull) // optional: skip keys that aren't present
-                      .toList();
-
-              String javaTemplateCode =
-                  prefix
-                      + (!intersection.isEmpty()
-                          ? ".filter(filter -> filter"
-                              + intersection.stream()
-                                  .map(extractableMethodNames::get) // get value from map
-                                  .collect(Collectors.joining("\n\t"))
-                              + ")\n\t"
-                          : "")
-                      + suffix;
-
-              return new ReplacementUtils.BuilderReplacementSpec(
-                  new MethodMatcher(methodPattern),
-                  new HashSet<>(matches),
-                  intersection,
-                  imports.isEmpty()
-                      ? RecipeUtils.createSimpleJavaTemplate(javaTemplateCode)
-                      : RecipeUtils.createSimpleJavaTemplate(
-                          javaTemplateCode, imports.toArray(new String[0])),
-                  RecipeUtils.createSimpleIdentifier(
-                      "camundaClient", "io.camunda.client.CamundaClient"),
-                  returnTypeFqn,
-                  ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
-                  Stream.concat(
-                          nonExtractables.stream()
-                              .map(methodName -> " " + methodName + " was removed"),
-                          additionalTextComments.stream())
-                      .toList(),
-                  Collections.emptyList(),
-                  imports);
-            })
-        .toList();
+    return createBuilderFilterSpecs(
+        methodPattern,
+        baseMethodName,
+        matchableMethodNames,
+        extractableMethodNames,
+        filter -> prefix + filter + suffix,
+        returnTypeFqn,
+        additionalTextComments,
+        Collections.emptyList(),
+        maybeImport);
   }
 
-  public static List<List<String>> generateAllOrderedCombinations(
-      String baseMethodName, List<String> matchableMethodNames) {
-
-    List<List<String>> result = new ArrayList<>();
-    int n = matchableMethodNames.size();
-
-    // Iterate over all subsets (including empty subset)
-    for (int mask = 0; mask < (1 << n); mask++) {
-      List<String> combo = new ArrayList<>();
-      if (baseMethodName != null) {
-        combo.add(baseMethodName);
-      }
-      for (int i = 0; i < n; i++) {
-        if ((mask & (1 << i)) != 0) {
-          combo.add(matchableMethodNames.get(i));
-        }
-      }
-      result.add(combo);
-    }
-
-    return result;
+  /**
+   * Same as {@link #createBuilderFilterSpecs(String, String, List, Map, String, String, String,
+   * List, Map)}, with the template code built around the search filter by {@code code}, for
+   * templates using the filter more than once. The filter is empty if no builder method is
+   * translated. The {@code imports} are added whichever builder methods are translated.
+   */
+  public static ReplacementUtils.LazyBuilderReplacementSpec createBuilderFilterSpecs(
+      String methodPattern,
+      String baseMethodName,
+      List<String> matchableMethodNames,
+      Map<String, String> extractableMethodNames,
+      UnaryOperator<String> code,
+      String returnTypeFqn,
+      List<String> additionalTextComments,
+      List<String> imports,
+      Map<String, String> maybeImport) {
+    MethodMatcher matcher = new SpecMethodMatcher(methodPattern);
+
+    return new ReplacementUtils.LazyBuilderReplacementSpec(
+        matcher,
+        baseMethodName,
+        matchableMethodNames,
+        matches -> {
+          List<String> intersection =
+              matches.stream().filter(extractableMethodNames::containsKey).toList();
+
+          List<String> nonExtractables =
+              matches.stream()
+                  .filter(name -> !extractableMethodNames.containsKey(name))
+                  .toList();
+
+          List<String> templateImports =
+              Stream.concat(
+                      imports.stream(),
+                      intersection.stream()
+                          .map(maybeImport::get) // lookup each key in the map
+                          .filter(Objects::nonNull)) // optional: skip keys that aren't present
+                  .toList();
+
+          String javaTemplateCode =
+              code.apply(
+                  !intersection.isEmpty()
+                      ? ".filter(filter -> filter"
+                          + intersection.stream()
+                              .map(extractableMethodNames::get) // get value from map
+                              .collect(Collectors.joining("\n\t"))
+                          + ")\n\t"
+                      : "");
+
+          return new ReplacementUtils.BuilderReplacementSpec(
+              matcher,
+              new HashSet<>(matches),
+              intersection,
+              templateImports.isEmpty()
+                  ? RecipeUtils.lazyJavaTemplate(javaTemplateCode)
+                  : RecipeUtils.lazyJavaTemplate(
+                      javaTemplateCode, templateImports.toArray(new String[0])),
+              RecipeUtils.createSimpleIdentifier(
+                  "camundaClient", "io.camunda.client.CamundaClient"),
+              returnTypeFqn,
+              ReplacementUtils.ReturnTypeStrategy.USE_SPECIFIED_TYPE,
+              Stream.concat(
+                      nonExtractables.stream()
+                          .map(methodName -> " " + methodName + " was removed"),
+                      additionalTextComments.stream())
+                  .toList(),
+              Collections.emptyList(),
+              templateImports);
+        });
   }
 }
@@ -0,0 +1,93 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.nio.file.Path;
+import java.util.*;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+
+/**
+ * Stubs of the Camunda 7 and Camunda 8 APIs the recipes reference, bundled as jars in {@code
+ * META-INF/rewrite/classpath}. The stubs only hold the public and protected signatures of the API
+ * packages, without method bodies, so parsers built from them attribute templates and user sources
+ * without reading every jar on the runtime classpath.
+ *
+ * <p>The stubs are generated from the dependencies of this module by {@code
+ * CamundaApiStubsGenerator} in the test sources and checked in. Regenerate them with {@code mvn -pl
+ * recipes -Papi-stubs process-test-classes} after changing the Camunda versions or {@link #STUBS}.
+ */
+public final class CamundaApiStubs {
+
+  /**
+   * Packages of a dependency copied to a stub jar. Packages are resource name prefixes, {@code
+   * impl} and {@code internal} subpackages are only copied as shells.
+   */
+  record Source(String artifactId, List<String> packages) {}
+
+  /** A stub jar, versioned like its first source, so a new version is extracted again. */
+  record Stub(String name, List<Source> sources) {}
+
+  static final List<Stub> STUBS =
+      List.of(
+          new Stub(
+              "camunda7-api",
+              List.of(
+                  new Source("camunda-engine", List.of("org/camunda/bpm/engine/")),
+                  new Source(
+                      "camunda-commons-typed-values", List.of("org/camunda/bpm/engine/variable/")),
+                  new Source(
+                      "camunda-bpm-assert", List.of("org/camunda/bpm/engine/test/assertions/")),
+                  new Source("camunda-external-task-client", List.of("org/camunda/bpm/client/")),
+                  new Source(
+                      "camunda-external-task-client-spring", List.of("org/camunda/bpm/client/")),
+                  new Source("camunda-spin-core", List.of("org/camunda/spin/")),
+                  // the AssertJ map assertions bpm-assert returns for process variables
+                  new Source(
+                      "assertj-core",
+                      List.of(
+                          "org/assertj/core/api/AbstractMapAssert",
+                          "org/assertj/core/api/MapAssert")))),
+          new Stub(
+              "camunda8-api",
+              List.of(
+                  new Source("camunda-client-java", List.of("io/camunda/client/")),
+                  new Source(
+                      "spring-boot-starter-camunda-sdk", List.of("io/camunda/spring/client/")),
+                  new Source("camunda-process-test-java", List.of("io/camunda/process/test/")))),
+          // the Spring annotations the recipes add to job workers and their clients
+          new Stub(
+              "spring-annotations",
+              List.of(
+                  new Source(
+                      "spring-context",
+                      List.of(
+                          "org/springframework/stereotype/",
+                          "org/springframework/context/annotation/")),
+                  new Source(
+                      "spring-beans", List.of("org/springframework/beans/factory/annotation/")))));
+
+  private CamundaApiStubs() {}
+
+  /** The artifact names to pass to {@link JavaParser.Builder#classpathFromResources}. */
+  public static String[] artifactNames() {
+    return STUBS.stream().map(Stub::name).toArray(String[]::new);
+  }
+
+  /**
+   * A parser attributing against the stubs.
+   *
+   * @throws IllegalArgumentException if the stubs are not on the classpath
+   */
+  public static JavaParser.Builder<?, ?> javaParser() {
+    return JavaParser.fromJavaVersion().classpath(classpath());
+  }
+
+  /**
+   * The stub jars, for parsers that combine them with further classpath entries. The jars are
+   * extracted to the parser classpath directory of OpenRewrite on first use.
+   *
+   * @throws IllegalArgumentException if the stubs are not on the classpath
+   */
+  public static List<Path> classpath() {
+    return JavaParser.dependenciesFromResources(new InMemoryExecutionContext(), artifactNames());
+  }
+}
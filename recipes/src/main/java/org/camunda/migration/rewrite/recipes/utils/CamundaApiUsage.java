@@ -0,0 +1,37 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+/**
+ * Camunda 7 API call sites per source file and spec, as found by the inventory recipe. Call sites
+ * of Camunda 7 methods that no spec matches are reported with the recipe {@link #UNMATCHED} and the
+ * pattern of the invoked method, so they can be turned into new specs.
+ */
+public class CamundaApiUsage extends DataTable<CamundaApiUsage.Row> {
+
+  public static final String UNMATCHED = "<unmatched>";
+
+  public CamundaApiUsage(Recipe recipe) {
+    super(
+        recipe,
+        "Camunda API usage",
+        "Camunda 7 API call sites per source file and migration spec, including calls no spec covers.");
+  }
+
+  public record Row(
+      @Column(displayName = "Source path", description = "The source file containing the calls.")
+          String sourcePath,
+      @Column(
+              displayName = "Recipe",
+              description = "The recipe whose spec matches the calls, or `<unmatched>`.")
+          String recipe,
+      @Column(
+              displayName = "Spec pattern",
+              description =
+                  "The method pattern of the spec matcher, or of the invoked method for unmatched calls.")
+          String specPattern,
+      @Column(displayName = "Call sites", description = "Number of matching call sites in the file.")
+          int callSites) {}
+}
@@ -0,0 +1,190 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.SearchResult;
+
+/**
+ * Camunda types and methods referenced by one compilation unit. The index is computed once per
+ * compilation unit and cached in the execution context, so the preconditions of all recipes in a
+ * run are simple set lookups instead of separate scans of the type tables. The cache holds the
+ * compilation units weakly, an index is dropped with the last version of its compilation unit.
+ *
+ * <p>Only types in the {@code org.camunda} and {@code io.camunda} packages are recorded, including
+ * Camunda supertypes of any type in use. Lookups for other types never match.
+ */
+public class CamundaUsageIndex {
+
+  private static final String CACHE_KEY = CamundaUsageIndex.class.getName();
+
+  private static final List<String> CAMUNDA_PACKAGES = List.of("org.camunda.", "io.camunda.");
+
+  private final Set<String> types = new HashSet<>();
+
+  private final Map<String, List<JavaType.Method>> methodsByName = new HashMap<>();
+
+  private record CachedIndex(WeakReference<JavaSourceFile> sourceFile, CamundaUsageIndex index) {}
+
+  private CamundaUsageIndex(JavaSourceFile sourceFile) {
+    for (JavaType type : sourceFile.getTypesInUse().getTypesInUse()) {
+      addType(TypeUtils.asFullyQualified(type), new HashSet<>());
+    }
+    for (J.Import anImport : sourceFile.getImports()) {
+      // static imports name the declaring type, star imports of packages name no type
+      if (anImport.isStatic() || !"*".equals(anImport.getQualid().getSimpleName())) {
+        addTypeName(anImport.getTypeName());
+      }
+    }
+    for (JavaType.Method method : sourceFile.getTypesInUse().getUsedMethods()) {
+      if (method.hasFlags(Flag.Static)) {
+        addType(method.getDeclaringType(), new HashSet<>());
+      }
+      if (isCamundaType(method.getDeclaringType(), new HashSet<>())) {
+        methodsByName.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(method);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the compilation unit. It is only rebuilt when an earlier recipe changed
+   * the compilation unit.
+   */
+  public static CamundaUsageIndex of(JavaSourceFile sourceFile, ExecutionContext ctx) {
+    // trees are equal by id, so the entry of an earlier version is found and checked for identity
+    Map<JavaSourceFile, CachedIndex> cache = ctx.getMessage(CACHE_KEY);
+    if (cache == null) {
+      cache = Collections.synchronizedMap(new WeakHashMap<>());
+      ctx.putMessage(CACHE_KEY, cache);
+    }
+    CachedIndex cached = cache.get(sourceFile);
+    if (cached != null && cached.sourceFile().get() == sourceFile) {
+      return cached.index();
+    }
+    CamundaUsageIndex index = new CamundaUsageIndex(sourceFile);
+    // removed first, as put keeps the key of the earlier version, which may be collected any time
+    cache.remove(sourceFile);
+    cache.put(sourceFile, new CachedIndex(new WeakReference<>(sourceFile), index));
+    return index;
+  }
+
+  /** Returns true if no Camunda type or method is referenced at all. */
+  public boolean isEmpty() {
+    return types.isEmpty() && methodsByName.isEmpty();
+  }
+
+  /** Returns true if the type or a subtype of it is referenced. */
+  public boolean usesType(String fullyQualifiedType) {
+    return types.contains(fullyQualifiedType);
+  }
+
+  /** Returns true if a method matching the matcher is invoked or referenced. */
+  public boolean usesMethod(SpecMethodMatcher matcher) {
+    String methodName = matcher.methodName();
+    Collection<List<JavaType.Method>> candidates =
+        methodName != null
+            ? List.of(methodsByName.getOrDefault(methodName, Collections.emptyList()))
+            : methodsByName.values();
+    for (List<JavaType.Method> methods : candidates) {
+      for (JavaType.Method method : methods) {
+        if (matcher.matches(method)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Index backed replacement for {@code new UsesType<>(fullyQualifiedType, true)}. */
+  public static TreeVisitor<?, ExecutionContext> usesCamundaType(String fullyQualifiedType) {
+    return new IndexLookup() {
+      @Override
+      boolean matches(CamundaUsageIndex index) {
+        return index.usesType(fullyQualifiedType);
+      }
+    };
+  }
+
+  /** Index backed replacement for {@code new UsesMethod<>(methodPattern, true)}. */
+  public static TreeVisitor<?, ExecutionContext> usesCamundaMethod(String methodPattern) {
+    return usesCamundaMethod(methodPattern, true);
+  }
+
+  /** Index backed replacement for {@code new UsesMethod<>(methodPattern, matchOverrides)}. */
+  public static TreeVisitor<?, ExecutionContext> usesCamundaMethod(
+      String methodPattern, boolean matchOverrides) {
+    SpecMethodMatcher matcher = new SpecMethodMatcher(methodPattern, matchOverrides);
+    return new IndexLookup() {
+      @Override
+      boolean matches(CamundaUsageIndex index) {
+        return index.usesMethod(matcher);
+      }
+    };
+  }
+
+  private abstract static class IndexLookup extends JavaIsoVisitor<ExecutionContext> {
+
+    abstract boolean matches(CamundaUsageIndex index);
+
+    @Override
+    public J visit(Tree tree, ExecutionContext ctx) {
+      if (tree instanceof JavaSourceFile sourceFile) {
+        CamundaUsageIndex index = of(sourceFile, ctx);
+        if (!index.isEmpty() && matches(index)) {
+          return SearchResult.found(sourceFile);
+        }
+      }
+      return (J) tree;
+    }
+  }
+
+  private void addTypeName(String fullyQualifiedName) {
+    if (isCamundaName(fullyQualifiedName)) {
+      types.add(fullyQualifiedName);
+    }
+  }
+
+  // records the type and all of its Camunda supertypes, so subtypes match like implicit usages
+  private void addType(JavaType.FullyQualified type, Set<String> visited) {
+    if (type == null || !visited.add(type.getFullyQualifiedName())) {
+      return;
+    }
+    addTypeName(type.getFullyQualifiedName());
+    addType(type.getSupertype(), visited);
+    for (JavaType.FullyQualified anInterface : type.getInterfaces()) {
+      addType(anInterface, visited);
+    }
+  }
+
+  private static boolean isCamundaType(JavaType.FullyQualified type, Set<String> visited) {
+    if (type == null || !visited.add(type.getFullyQualifiedName())) {
+      return false;
+    }
+    if (isCamundaName(type.getFullyQualifiedName())) {
+      return true;
+    }
+    if (isCamundaType(type.getSupertype(), visited)) {
+      return true;
+    }
+    for (JavaType.FullyQualified anInterface : type.getInterfaces()) {
+      if (isCamundaType(anInterface, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isCamundaName(String fullyQualifiedName) {
+    for (String camundaPackage : CAMUNDA_PACKAGES) {
+      if (fullyQualifiedName.startsWith(camundaPackage)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,81 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.UUID;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.marker.Marker;
+import org.openrewrite.marker.Markers;
+
+/**
+ * Formats replaced subtrees once per compilation unit instead of after every replacement. In
+ * deferred mode, a replacement is only marked with {@link FormatPending}; after all specs have been
+ * applied, {@link #formatMarked} formats each marked subtree in its final position and removes the
+ * markers. Nested marks are covered by the outermost one.
+ *
+ * <p>The mode is enabled by the execution context message or system property {@link #ENABLED},
+ * the message takes precedence.
+ */
+public class DeferredFormatting {
+
+  public static final String ENABLED = "org.camunda.migration.rewrite.deferredFormatting";
+
+  /** Marks a replaced subtree as not yet formatted. */
+  public record FormatPending(UUID id) implements Marker {
+
+    @Override
+    public UUID getId() {
+      return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <M extends Marker> M withId(UUID id) {
+      return (M) new FormatPending(id);
+    }
+  }
+
+  public static boolean isEnabled(ExecutionContext ctx) {
+    Object enabled = ctx.getMessage(ENABLED);
+    if (enabled != null) {
+      return Boolean.parseBoolean(enabled.toString());
+    }
+    return Boolean.getBoolean(ENABLED);
+  }
+
+  /** Marks the replacement for formatting, unless nothing was replaced. */
+  public static <T extends J> T mark(T before, T after) {
+    if (before == after || after == null) {
+      return after;
+    }
+    return after.withMarkers(after.getMarkers().addIfAbsent(new FormatPending(Tree.randomId())));
+  }
+
+  /** Formats all marked subtrees of the compilation unit and removes the markers. */
+  public static J.CompilationUnit formatMarked(
+      J.CompilationUnit compilationUnit, ExecutionContext ctx) {
+    return (J.CompilationUnit) new FormatMarkedVisitor().visitNonNull(compilationUnit, ctx);
+  }
+
+  private static class FormatMarkedVisitor extends JavaIsoVisitor<ExecutionContext> {
+
+    @Override
+    public J preVisit(J tree, ExecutionContext ctx) {
+      if (tree.getMarkers().findFirst(FormatPending.class).isEmpty()) {
+        return tree;
+      }
+      stopAfterPreVisit();
+      J unmarked = new RemoveMarksVisitor().visitNonNull(tree, ctx, getCursor().getParentOrThrow());
+      return autoFormat(unmarked, ctx, getCursor().getParentOrThrow());
+    }
+  }
+
+  private static class RemoveMarksVisitor extends JavaIsoVisitor<ExecutionContext> {
+
+    @Override
+    public Markers visitMarkers(Markers markers, ExecutionContext ctx) {
+      return markers.removeByType(FormatPending.class);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Appends traces to a file on a background thread. Traces are queued as suppliers, so printing and
+ * diffing happen on the writer thread as well. The queue is bounded: if the writer falls behind,
+ * new traces are dropped instead of blocking the visitor, and the number of dropped traces is
+ * written to the file.
+ *
+ * <p>There is one writer per file and JVM. Queued traces are written when the JVM shuts down.
+ */
+public class DiffTraceWriter {
+
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private static final Map<Path, DiffTraceWriter> WRITERS = new ConcurrentHashMap<>();
+
+  private final Path file;
+
+  private final BlockingQueue<Supplier<String>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private BufferedWriter writer;
+
+  private DiffTraceWriter(Path file) {
+    this.file = file;
+  }
+
+  /** Returns the writer of the file, starting it on first use. */
+  public static DiffTraceWriter forFile(Path file) {
+    return WRITERS.computeIfAbsent(
+        file.toAbsolutePath().normalize(),
+        path -> {
+          DiffTraceWriter writer = new DiffTraceWriter(path);
+          Thread thread = new Thread(writer::run, "diff-trace-writer-" + path.getFileName());
+          thread.setDaemon(true);
+          thread.start();
+          Runtime.getRuntime()
+              .addShutdownHook(new Thread(writer::drain, "diff-trace-drain-" + path.getFileName()));
+          return writer;
+        });
+  }
+
+  /** Queues the trace without blocking. Returns false if the queue is full and it was dropped. */
+  public boolean offer(Supplier<String> trace) {
+    if (queue.offer(trace)) {
+      return true;
+    }
+    dropped.incrementAndGet();
+    return false;
+  }
+
+  /** Blocks until all traces queued so far are written to the file. */
+  public void flush() throws InterruptedException {
+    FlushMarker marker = new FlushMarker(new CountDownLatch(1));
+    queue.put(marker);
+    marker.written().await();
+  }
+
+  private record FlushMarker(CountDownLatch written) implements Supplier<String> {
+    @Override
+    public String get() {
+      return null;
+    }
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        write(queue.take());
+        if (queue.isEmpty()) {
+          flushWriter();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    Supplier<String> trace;
+    while ((trace = queue.poll()) != null) {
+      write(trace);
+    }
+    flushWriter();
+  }
+
+  // the writer thread and the shutdown hook may both write
+  private synchronized void write(Supplier<String> trace) {
+    try {
+      String text = trace.get();
+      long droppedTraces = dropped.getAndSet(0);
+      if (droppedTraces > 0) {
+        writer().write("# " + droppedTraces + " traces dropped, the trace queue was full\n");
+      }
+      if (text != null) {
+        writer().write(text);
+      }
+      if (trace instanceof FlushMarker && writer != null) {
+        writer.flush();
+      }
+    } catch (IOException | RuntimeException e) {
+      // tracing must never stop the migration
+      System.err.println("Could not write trace to " + file + ": " + e);
+    } finally {
+      if (trace instanceof FlushMarker marker) {
+        marker.written().countDown();
+      }
+    }
+  }
+
+  private synchronized void flushWriter() {
+    try {
+      if (writer != null) {
+        writer.flush();
+      }
+    } catch (IOException e) {
+      System.err.println("Could not write trace to " + file + ": " + e);
+    }
+  }
+
+  private BufferedWriter writer() throws IOException {
+    if (writer == null) {
+      Files.createDirectories(file.getParent());
+      writer =
+          Files.newBufferedWriter(
+              file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    return writer;
+  }
+}
@@ -0,0 +1,160 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.*;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.analysis.constantfold.ConstantFold;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.*;
+
+/**
+ * The process variables a Camunda 7 delegate or external task handler reads, for the {@code
+ * fetchVariables} of the job worker replacing it. Without them every activated job carries the
+ * whole variable scope of the process instance.
+ *
+ * <p>A variable is read by a {@code getVariable*} or {@code hasVariable*} method of the variable
+ * scope with the variable name as first argument. The name has to be constant, a literal or a value
+ * the data flow analysis folds to a literal, like a final local or a constant. The reads are
+ * unknown, and all variables have to be fetched, if
+ *
+ * <ul>
+ *   <li>a name is computed,
+ *   <li>all variables are read, e.g. with {@code getVariables()},
+ *   <li>the variable scope is passed to another method or constructor, which may read any
+ *       variable, or
+ *   <li>the variable scope is assigned to a field or array, where other methods may read it.
+ * </ul>
+ *
+ * <p>Passing the variable scope to the engine services or the {@code ExternalTaskService}, e.g. to
+ * {@code externalTaskService.complete(externalTask)}, does not read variables.
+ */
+public final class FetchVariables {
+
+  /** The variable scope of delegates, implemented by {@code DelegateExecution}. */
+  public static final String VARIABLE_SCOPE = "org.camunda.bpm.engine.delegate.VariableScope";
+
+  /** The variable scope of external task handlers. */
+  public static final String EXTERNAL_TASK = "org.camunda.bpm.client.task.ExternalTask";
+
+  /** The service external task handlers complete their tasks with. */
+  private static final String EXTERNAL_TASK_SERVICE =
+      "org.camunda.bpm.client.task.ExternalTaskService";
+
+  /** The package of the engine services, which only take the identity of a variable scope. */
+  private static final String ENGINE_SERVICES_PACKAGE = "org.camunda.bpm.engine";
+
+  private FetchVariables() {}
+
+  /**
+   * The names of the variables the method reads, in the order of their first read, or null if the
+   * method may read any variable.
+   *
+   * @param method the cursor of the method, the handler method of the delegate or external task
+   * @param scopeType the fully qualified name of the type declaring the variable getters
+   */
+  public static @Nullable List<String> readBy(Cursor method, String scopeType) {
+    J.MethodDeclaration declaration = method.getValue();
+    if (declaration.getBody() == null) {
+      return List.of();
+    }
+
+    Set<String> names = new LinkedHashSet<>();
+    boolean[] unknown = {false};
+    new JavaIsoVisitor<Integer>() {
+      @Override
+      public J.MethodInvocation visitMethodInvocation(J.MethodInvocation invocation, Integer p) {
+        JavaType.Method methodType = invocation.getMethodType();
+        if (methodType != null) {
+          if (passesScope(methodType, invocation.getArguments())) {
+            unknown[0] = true;
+          }
+          if (TypeUtils.isAssignableTo(scopeType, methodType.getDeclaringType())
+              && isRead(methodType.getName())) {
+            String name =
+                methodType.getParameterTypes().isEmpty()
+                        || !TypeUtils.isString(methodType.getParameterTypes().get(0))
+                    ? null
+                    : constantName(
+                        new Cursor(getCursor(), invocation.getArguments().get(0)));
+            if (name == null) {
+              unknown[0] = true;
+            } else {
+              names.add(name);
+            }
+          }
+        }
+        return unknown[0] ? invocation : super.visitMethodInvocation(invocation, p);
+      }
+
+      @Override
+      public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+        if (passesScope(newClass.getConstructorType(), newClass.getArguments())) {
+          unknown[0] = true;
+        }
+        return unknown[0] ? newClass : super.visitNewClass(newClass, p);
+      }
+
+      @Override
+      public J.Assignment visitAssignment(J.Assignment assignment, Integer p) {
+        if (TypeUtils.isAssignableTo(scopeType, assignment.getAssignment().getType())
+            && !isLocal(assignment.getVariable())) {
+          unknown[0] = true;
+        }
+        return unknown[0] ? assignment : super.visitAssignment(assignment, p);
+      }
+
+      private boolean passesScope(
+          JavaType.@Nullable Method methodType, List<Expression> arguments) {
+        if (methodType != null && isScopeNeutral(methodType.getDeclaringType())) {
+          return false;
+        }
+        for (Expression argument : arguments) {
+          if (TypeUtils.isAssignableTo(scopeType, argument.getType())) {
+            return true;
+          }
+        }
+        return false;
+      }
+    }.visit(declaration.getBody(), 0, method);
+
+    return unknown[0] ? null : List.copyOf(names);
+  }
+
+  /**
+   * The value of {@code fetchVariables}, the names as string literals, e.g. {@code "amount",
+   * "currency"}.
+   */
+  public static String annotationValue(List<String> names) {
+    StringJoiner value = new StringJoiner(", ");
+    for (String name : names) {
+      value.add('"' + name.replace("\\", "\\\\").replace("\"", "\\\"") + '"');
+    }
+    return value.toString();
+  }
+
+  private static boolean isScopeNeutral(JavaType.FullyQualified declaringType) {
+    return ENGINE_SERVICES_PACKAGE.equals(declaringType.getPackageName())
+        || TypeUtils.isAssignableTo(EXTERNAL_TASK_SERVICE, declaringType);
+  }
+
+  /** Local variables and parameters are owned by their method, fields by their class. */
+  private static boolean isLocal(Expression variable) {
+    return variable instanceof J.Identifier identifier
+        && identifier.getFieldType() != null
+        && identifier.getFieldType().getOwner() instanceof JavaType.Method;
+  }
+
+  private static boolean isRead(String methodName) {
+    return methodName.startsWith("getVariable")
+        || methodName.startsWith("hasVariable")
+        || methodName.startsWith("getAllVariables");
+  }
+
+  private static @Nullable String constantName(Cursor argument) {
+    if (argument.getValue() instanceof J.Literal literal
+        && literal.getValue() instanceof String name) {
+      return name;
+    }
+    return ConstantFold.findConstantLiteralValue(argument, String.class).toNull();
+  }
+}
@@ -0,0 +1,281 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.MethodCall;
+
+/**
+ * Matcher hits, template applications and the time spent in them, per recipe and spec matcher
+ * pattern. Counters are plain fields of a {@link Recorder} owned by a single visitor and are added
+ * to the {@link Totals} of the run once per source file, so recording costs a map lookup per
+ * matcher call and two {@link System#nanoTime()} calls per template application or format.
+ *
+ * <p>The totals are the accumulator of the recipe, which is a {@link ScanningRecipe}: its scanner
+ * counts the source files the recipe will visit, and once the last of them has been visited the
+ * totals are inserted into the table, a single row per recipe and pattern. Files skipped by the
+ * preconditions of a recipe are counted in the row with the pattern {@link #PRECONDITIONS}. The
+ * formatting pass of {@link DeferredFormatting} is recorded with the pattern {@link
+ * #DEFERRED_FORMAT}.
+ */
+public class MigrationMetrics extends DataTable<MigrationMetrics.Row> {
+
+  public static final String PRECONDITIONS = "<preconditions>";
+
+  public static final String DEFERRED_FORMAT = "<deferred format>";
+
+  private final String recipeName;
+
+  public MigrationMetrics(Recipe recipe) {
+    super(
+        recipe,
+        "Migration metrics",
+        "Matcher hits, template applications and time spent per recipe and spec matcher pattern, summed over all source files.");
+    this.recipeName = recipe.getName();
+  }
+
+  public record Row(
+      @Column(displayName = "Recipe", description = "The recipe that recorded the metrics.")
+          String recipe,
+      @Column(
+              displayName = "Spec pattern",
+              description =
+                  "The method pattern of the spec matcher, `<preconditions>` or `<deferred format>`.")
+          String specPattern,
+      @Column(
+              displayName = "Nodes visited",
+              description = "Number of nodes the matcher was tested against.")
+          long nodesVisited,
+      @Column(displayName = "Matcher hits", description = "Number of nodes the matcher matched.")
+          long matcherHits,
+      @Column(
+              displayName = "Template applications",
+              description = "Number of times the template of the spec was applied.")
+          long templateApplications,
+      @Column(
+              displayName = "Template time (ns)",
+              description = "Time spent in `JavaTemplate.apply` for the spec.")
+          long templateNanos,
+      @Column(
+              displayName = "Auto format time (ns)",
+              description = "Time spent in `maybeAutoFormat` after applying the spec.")
+          long autoFormatNanos,
+      @Column(
+              displayName = "Files skipped",
+              description = "Number of source files the preconditions of the recipe skipped.")
+          long filesSkipped) {
+
+    private Row plus(Row other) {
+      return new Row(
+          recipe,
+          specPattern,
+          nodesVisited + other.nodesVisited,
+          matcherHits + other.matcherHits,
+          templateApplications + other.templateApplications,
+          templateNanos + other.templateNanos,
+          autoFormatNanos + other.autoFormatNanos,
+          filesSkipped + other.filesSkipped);
+    }
+  }
+
+  /**
+   * The totals of one run of a recipe, the accumulator of the recipe. Like {@link #insertRow}, only
+   * the cycles up to the max cycle of the table are recorded.
+   */
+  public static final class Totals {
+
+    // keyed by pattern, in the order the patterns were first recorded
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+
+    // source files the recipe visits in the recorded cycles, and has not visited yet
+    private int pendingFiles;
+
+    private synchronized void add(Row counters) {
+      rows.merge(counters.specPattern(), counters, Row::plus);
+    }
+  }
+
+  /**
+   * The scanner of the recipe, counting the source files the visitor of the recipe accepts, so that
+   * the totals are inserted once the last of them has been visited.
+   */
+  public TreeVisitor<?, ExecutionContext> scanner(
+      Totals totals, TreeVisitor<?, ExecutionContext> visitor) {
+    return new TreeVisitor<Tree, ExecutionContext>() {
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        if (tree instanceof SourceFile sourceFile
+            && isRecorded(ctx)
+            && visitor.isAcceptable(sourceFile, ctx)) {
+          synchronized (totals) {
+            totals.pendingFiles++;
+          }
+        }
+        return tree;
+      }
+    };
+  }
+
+  /**
+   * Wraps the preconditions of a recipe, so that every source file they reject is recorded, and
+   * inserts the totals once the last source file has been visited. Use it in place of {@link
+   * Preconditions#check(TreeVisitor, TreeVisitor)}.
+   */
+  public TreeVisitor<?, ExecutionContext> check(
+      Totals totals,
+      TreeVisitor<?, ExecutionContext> preconditions,
+      TreeVisitor<?, ExecutionContext> visitor) {
+    TreeVisitor<?, ExecutionContext> checked =
+        Preconditions.check(
+            new TreeVisitor<Tree, ExecutionContext>() {
+              @Override
+              public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+                return preconditions.isAcceptable(sourceFile, ctx);
+              }
+
+              @Override
+              public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                Tree result = preconditions.visit(tree, ctx);
+                if (result == tree && tree instanceof SourceFile && isRecorded(ctx)) {
+                  totals.add(new Row(recipeName, PRECONDITIONS, 0, 0, 0, 0, 0, 1));
+                }
+                return result;
+              }
+            },
+            visitor);
+    return new TreeVisitor<Tree, ExecutionContext>() {
+      @Override
+      public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
+        return checked.isAcceptable(sourceFile, ctx);
+      }
+
+      @Override
+      public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+        try {
+          return checked.visit(tree, ctx, getCursor());
+        } finally {
+          if (tree instanceof SourceFile) {
+            visited(totals, ctx);
+          }
+        }
+      }
+    };
+  }
+
+  /** Counts a visited source file, and inserts the totals if it was the last one. */
+  private void visited(Totals totals, ExecutionContext ctx) {
+    if (!isRecorded(ctx)) {
+      return;
+    }
+    synchronized (totals) {
+      if (totals.pendingFiles > 0 && --totals.pendingFiles == 0) {
+        totals.rows.values().forEach(row -> insertRow(ctx, row));
+      }
+    }
+  }
+
+  private boolean isRecorded(ExecutionContext ctx) {
+    return ctx.getCycle() <= getMaxCycle();
+  }
+
+  /**
+   * Creates a recorder for one visitor, adding to the totals of the run. Like the visitor, it must
+   * not be shared across threads.
+   */
+  public Recorder recorder(Totals totals) {
+    return new Recorder(totals);
+  }
+
+  public final class Recorder {
+
+    private static final class Counters {
+      long nodesVisited;
+      long matcherHits;
+      long templateApplications;
+      long templateNanos;
+      long autoFormatNanos;
+    }
+
+    // keyed by matcher identity, the pattern string is only built when the rows are written
+    private final Map<Object, Counters> counters = new IdentityHashMap<>();
+
+    private final Totals totals;
+
+    private Recorder(Totals totals) {
+      this.totals = totals;
+    }
+
+    /** Tests the matcher against the call and counts the visit and the hit. */
+    public boolean matches(MethodMatcher matcher, MethodCall call) {
+      Counters counter = counters.computeIfAbsent(matcher, key -> new Counters());
+      counter.nodesVisited++;
+      if (matcher.matches(call)) {
+        counter.matcherHits++;
+        return true;
+      }
+      return false;
+    }
+
+    /** Applies the template of the spec with the matcher and records the time taken. */
+    public <T> T template(MethodMatcher matcher, Supplier<T> apply) {
+      long start = System.nanoTime();
+      try {
+        return apply.get();
+      } finally {
+        Counters counter = counters.computeIfAbsent(matcher, key -> new Counters());
+        counter.templateApplications++;
+        counter.templateNanos += System.nanoTime() - start;
+      }
+    }
+
+    /** Formats the result of the spec with the matcher and records the time taken. */
+    public <T> T autoFormat(MethodMatcher matcher, Supplier<T> format) {
+      long start = System.nanoTime();
+      try {
+        return format.get();
+      } finally {
+        counters.computeIfAbsent(matcher, key -> new Counters()).autoFormatNanos +=
+            System.nanoTime() - start;
+      }
+    }
+
+    /** Runs the deferred formatting pass of the source file and records the time taken. */
+    public <T> T deferredFormat(Supplier<T> format) {
+      long start = System.nanoTime();
+      try {
+        return format.get();
+      } finally {
+        counters.computeIfAbsent(DEFERRED_FORMAT, key -> new Counters()).autoFormatNanos +=
+            System.nanoTime() - start;
+      }
+    }
+
+    /** Adds the counters of the source file to the totals of the run and resets them. */
+    public void flush(SourceFile sourceFile, ExecutionContext ctx) {
+      if (counters.isEmpty()) {
+        return;
+      }
+      if (!isRecorded(ctx)) {
+        counters.clear();
+        return;
+      }
+      counters.forEach(
+          (key, counter) ->
+              totals.add(
+                  new Row(
+                      recipeName,
+                      key.toString(),
+                      counter.nodesVisited,
+                      counter.matcherHits,
+                      counter.templateApplications,
+                      counter.templateNanos,
+                      counter.autoFormatNanos,
+                      0)));
+      counters.clear();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.camunda.migration.rewrite.recipes.utils;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.openrewrite.Cursor;
 import org.openrewrite.Tree;
@@ -18,7 +19,7 @@ public class RecipeUtils {
         Markers.EMPTY,
         null,
         simpleName,
-        JavaType.ShallowClass.build(javaType),
+        TypeName.of(javaType).shallowClass(),
         null);
   }
 
@@ -26,17 +27,41 @@ public class RecipeUtils {
     return new TextComment(false, text, "\n" + statement.getPrefix().getIndent(), Markers.EMPTY);
   }
 
+  /**
+   * The parser is created lazily on first use and shared by all templates. It attributes against
+   * the {@link CamundaApiStubs}, or the runtime classpath when the recipes run without them.
+   */
+  private static class JavaParserHolder {
+    static final JavaParser.Builder<?, ?> JAVA_PARSER = createJavaParser();
+
+    private static JavaParser.Builder<?, ?> createJavaParser() {
+      try {
+        return CamundaApiStubs.javaParser();
+      } catch (IllegalArgumentException e) {
+        return JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath());
+      }
+    }
+  }
+
+  public static JavaParser.Builder<?, ?> sharedJavaParser() {
+    return JavaParserHolder.JAVA_PARSER;
+  }
+
   public static JavaTemplate createSimpleJavaTemplate(String code) {
-    return JavaTemplate.builder(code)
-        .javaParser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()))
-        .build();
+    return createSimpleJavaTemplate(code, new String[0]);
   }
 
   public static JavaTemplate createSimpleJavaTemplate(String code, String... imports) {
-    return JavaTemplate.builder(code)
-        .javaParser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()))
-        .imports(imports)
-        .build();
+    // built once per JVM, see TemplateSnippets
+    return TemplateSnippets.template(code, sharedJavaParser(), imports);
+  }
+
+  /**
+   * The template of a spec, built by {@link #createSimpleJavaTemplate} when the spec is applied.
+   * Neither the template nor the shared parser are created while the specs are only matched.
+   */
+  public static Supplier<JavaTemplate> lazyJavaTemplate(String code, String... imports) {
+    return () -> createSimpleJavaTemplate(code, imports);
   }
 
   public static Expression applyTemplate(
@@ -65,85 +90,30 @@ public class RecipeUtils {
                 .toList());
   }
 
-  public static Expression updateType(Cursor cursor, Expression input) {
+  public static Expression updateType(BlockSymbols symbols, Expression input) {
 
-    if (!(input instanceof J.Identifier identifier)) {
+    // nothing migrated in scope, which holds for almost every identifier
+    if (symbols.isEmpty() || !(input instanceof J.Identifier identifier)) {
       return input;
     }
 
-    String newFqn = cursor.getNearestMessage(identifier.getSimpleName());
+    JavaType newType = symbols.javaTypeOf(identifier.getSimpleName());
 
-    if (newFqn != null) {
-      return identifier.withType(JavaType.buildType(newFqn));
+    if (newType != null) {
+      return identifier.withType(newType);
     }
     return input;
   }
 
   public static String getShortName(String fqn) {
-    if (fqn == null || fqn.isEmpty()) {
-      return fqn;
-    }
-
-    int genericStart = fqn.indexOf('<');
-    if (genericStart == -1) {
-      // No generics, return the simple class name
-      return fqn.substring(fqn.lastIndexOf('.') + 1);
-    }
-
-    String rawType = fqn.substring(0, genericStart);
-    String genericPart = fqn.substring(genericStart + 1, fqn.length() - 1); // remove < and >
-
-    String rawShort = rawType.substring(rawType.lastIndexOf('.') + 1);
-    String[] genericTypes = genericPart.split("\\s*,\\s*");
-    StringJoiner joiner = new StringJoiner(", ");
-    for (String g : genericTypes) {
-      joiner.add(g.substring(g.lastIndexOf('.') + 1));
-    }
-
-    return rawShort + "<" + joiner + ">";
+    return fqn == null || fqn.isEmpty() ? fqn : TypeName.of(fqn).shortName();
   }
 
   public static String getGenericShortName(String fqn) {
-    if (fqn == null || fqn.isEmpty()) {
-      return fqn;
-    }
-
-    int genericStart = fqn.indexOf('<');
-    if (genericStart == -1) {
-      // No generics, return the simple class name
-      return fqn.substring(fqn.lastIndexOf('.') + 1);
-    }
-
-    String genericPart = fqn.substring(genericStart + 1, fqn.length() - 1); // remove < and >
-
-    String[] genericTypes = genericPart.split("\\s*,\\s*");
-    StringJoiner joiner = new StringJoiner(", ");
-    for (String g : genericTypes) {
-      joiner.add(g.substring(g.lastIndexOf('.') + 1));
-    }
-
-    return joiner + "";
+    return fqn == null || fqn.isEmpty() ? fqn : TypeName.of(fqn).argumentsShortName();
   }
 
   public static String getGenericLongName(String fqn) {
-    if (fqn == null || fqn.isEmpty()) {
-      return fqn;
-    }
-
-    int genericStart = fqn.indexOf('<');
-    if (genericStart == -1) {
-      // No generics, return the simple class name
-      return fqn;
-    }
-
-    String genericPart = fqn.substring(genericStart + 1, fqn.length() - 1); // remove < and >
-
-    String[] genericTypes = genericPart.split("\\s*,\\s*");
-    StringJoiner joiner = new StringJoiner(", ");
-    for (String g : genericTypes) {
-      joiner.add(g);
-    }
-
-    return joiner + "";
+    return fqn == null || fqn.isEmpty() ? fqn : TypeName.of(fqn).argumentsLongName();
   }
 }
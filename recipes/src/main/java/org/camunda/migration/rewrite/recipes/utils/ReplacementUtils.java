@@ -1,6 +1,9 @@
 package org.camunda.migration.rewrite.recipes.utils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.tree.*;
@@ -10,7 +13,8 @@ public class ReplacementUtils {
   public interface ReplacementSpec {
     MethodMatcher matcher();
 
-    JavaTemplate template();
+    /** Built when the spec is applied, so its matcher can be used without building the template. */
+    Supplier<JavaTemplate> template();
 
     J.Identifier baseIdentifier();
 
@@ -27,7 +31,7 @@ public class ReplacementUtils {
 
   public record SimpleReplacementSpec(
       MethodMatcher matcher,
-      JavaTemplate template,
+      Supplier<JavaTemplate> template,
       J.Identifier baseIdentifier,
       String returnTypeFqn,
       ReturnTypeStrategy returnTypeStrategy,
@@ -38,7 +42,7 @@ public class ReplacementUtils {
       implements ReplacementSpec {
     public SimpleReplacementSpec(
         MethodMatcher matcher,
-        JavaTemplate template,
+        Supplier<JavaTemplate> template,
         J.Identifier baseIdentifier,
         String returnTypeFqn,
         ReturnTypeStrategy returnTypeStrategy,
@@ -59,7 +63,7 @@ public class ReplacementUtils {
 
     public SimpleReplacementSpec(
         MethodMatcher matcher,
-        JavaTemplate template,
+        Supplier<JavaTemplate> template,
         J.Identifier baseIdentifier,
         String returnTypeFqn,
         ReturnTypeStrategy returnTypeStrategy,
@@ -84,23 +88,48 @@ public class ReplacementUtils {
     }
   }
 
+  /**
+   * Resolves the builder replacement spec for the set of builder method names collected from a
+   * matched method invocation chain.
+   */
+  public interface BuilderSpecResolver {
+    MethodMatcher matcher();
+
+    /** The spec used for variable declarations and assignments, independent of the chain. */
+    BuilderReplacementSpec defaultSpec();
+
+    /** Returns the spec for exactly these builder method names or null if none applies. */
+    BuilderReplacementSpec resolve(Set<String> collectedMethodNames);
+  }
+
   public record BuilderReplacementSpec(
       MethodMatcher matcher,
       Set<String> methodNamesToExtractParameters,
       List<String> extractedParametersToApply,
-      JavaTemplate template,
+      Supplier<JavaTemplate> template,
       J.Identifier baseIdentifier,
       String returnTypeFqn,
       ReturnTypeStrategy returnTypeStrategy,
       List<String> textComments,
       List<String> maybeRemoveImports,
       List<String> maybeAddImports)
-      implements ReplacementSpec {
+      implements ReplacementSpec, BuilderSpecResolver {
+
+    @Override
+    public BuilderReplacementSpec defaultSpec() {
+      return this;
+    }
+
+    @Override
+    public BuilderReplacementSpec resolve(Set<String> collectedMethodNames) {
+      return methodNamesToExtractParameters.equals(collectedMethodNames) ? this : null;
+    }
+
     public BuilderReplacementSpec(
         MethodMatcher matcher,
         Set<String> methodNamesToExtractParameters,
         List<String> extractedParametersToApply,
-        JavaTemplate template,
+        Supplier<JavaTemplate> template,
         J.Identifier baseIdentifier,
         String returnTypeFqn,
         ReturnTypeStrategy returnTypeStrategy,
@@ -123,7 +152,7 @@ public class ReplacementUtils {
         MethodMatcher matcher,
         Set<String> methodNamesToExtractParameters,
         List<String> extractedParametersToApply,
-        JavaTemplate template,
+        Supplier<JavaTemplate> template,
         J.Identifier baseIdentifier,
         String returnTypeFqn,
         ReturnTypeStrategy returnTypeStrategy) {
@@ -142,12 +171,95 @@ public class ReplacementUtils {
     }
   }
 
+  /**
+   * All builder replacement specs for one base method and any subset of optional builder methods.
+   * The collected builder method names are encoded as a bitmask over the optional methods, and the
+   * spec of a combination is only created the first time that combination is found in code.
+   */
+  public static final class LazyBuilderReplacementSpec implements BuilderSpecResolver {
+
+    private final MethodMatcher matcher;
+    private final String baseMethodName;
+    private final List<String> matchableMethodNames;
+    private final Map<String, Integer> bitByMethodName = new HashMap<>();
+    private final Function<List<String>, BuilderReplacementSpec> specFactory;
+    private final Map<Integer, BuilderReplacementSpec> specsByMask = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseMethodName method that is part of every combination, may be null
+     * @param matchableMethodNames optional builder methods, at most 30
+     * @param specFactory creates the spec of one ordered combination of method names
+     */
+    public LazyBuilderReplacementSpec(
+        MethodMatcher matcher,
+        String baseMethodName,
+        List<String> matchableMethodNames,
+        Function<List<String>, BuilderReplacementSpec> specFactory) {
+      if (matchableMethodNames.size() > 30) {
+        throw new IllegalArgumentException(
+            "Too many builder methods to combine: " + matchableMethodNames.size());
+      }
+      this.matcher = matcher;
+      this.baseMethodName = baseMethodName;
+      this.matchableMethodNames = List.copyOf(matchableMethodNames);
+      this.specFactory = specFactory;
+      for (int i = 0; i < matchableMethodNames.size(); i++) {
+        bitByMethodName.put(matchableMethodNames.get(i), i);
+      }
+    }
+
+    @Override
+    public MethodMatcher matcher() {
+      return matcher;
+    }
+
+    @Override
+    public BuilderReplacementSpec defaultSpec() {
+      return specForMask(0);
+    }
+
+    @Override
+    public BuilderReplacementSpec resolve(Set<String> collectedMethodNames) {
+      boolean baseMethodFound = baseMethodName == null;
+      int mask = 0;
+      for (String methodName : collectedMethodNames) {
+        if (methodName.equals(baseMethodName)) {
+          baseMethodFound = true;
+          continue;
+        }
+        Integer bit = bitByMethodName.get(methodName);
+        if (bit == null) {
+          return null;
+        }
+        mask |= 1 << bit;
+      }
+      return baseMethodFound ? specForMask(mask) : null;
+    }
+
+    private BuilderReplacementSpec specForMask(int mask) {
+      return specsByMask.computeIfAbsent(
+          mask,
+          m -> {
+            List<String> combination = new ArrayList<>();
+            if (baseMethodName != null) {
+              combination.add(baseMethodName);
+            }
+            for (int i = 0; i < matchableMethodNames.size(); i++) {
+              if ((m & (1 << i)) != 0) {
+                combination.add(matchableMethodNames.get(i));
+              }
+            }
+            return specFactory.apply(combination);
+          });
+    }
+  }
+
   public record ReturnReplacementSpec(
           MethodMatcher matcher,
-          JavaTemplate template,
+          Supplier<JavaTemplate> template,
           List<String> maybeRemoveImports,
           List<String> maybeAddImports) {
-    public ReturnReplacementSpec(MethodMatcher matcher, JavaTemplate template) {
+    public ReturnReplacementSpec(MethodMatcher matcher, Supplier<JavaTemplate> template) {
       this(matcher, template, Collections.emptyList(), Collections.emptyList());
     }
   }
@@ -181,7 +293,7 @@ public class ReplacementUtils {
                 i -> {
                   Expression expression = args.get(i.index());
                   if (i.fqn() != null) {
-                    return expression.withType(JavaType.buildType(i.fqn()));
+                    return expression.withType(TypeName.of(i.fqn()).type());
                   } else {
                     return expression;
                   }
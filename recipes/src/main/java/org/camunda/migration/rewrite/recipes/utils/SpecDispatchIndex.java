@@ -0,0 +1,92 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+
+/**
+ * Dispatch table from invoked method name and arity to the specs whose matcher can possibly match
+ * it. Only the returned candidates need to run through {@link MethodMatcher#matches}, and they are
+ * returned in declaration order, so the first matching spec still wins.
+ *
+ * <p>Name and arity are taken from {@link SpecMethodMatcher}s; specs with any other matcher are
+ * candidates for every invocation.
+ */
+public class SpecDispatchIndex<S> {
+
+  private static final String CONSTRUCTOR = "<constructor>";
+
+  private final List<Entry<S>> entries;
+
+  // candidates per invoked method name, resolved once per distinct name
+  private final Map<String, List<Entry<S>>> entriesByName = new ConcurrentHashMap<>();
+
+  private record Entry<S>(S spec, String methodName, int arity) {
+
+    boolean matchesName(String name) {
+      return methodName == null || methodName.equals(name);
+    }
+
+    boolean matchesArity(int invocationArity) {
+      return arity == SpecMethodMatcher.ANY_ARITY || arity == invocationArity;
+    }
+  }
+
+  public SpecDispatchIndex(List<S> specs, Function<S, MethodMatcher> matcherOf) {
+    this.entries =
+        specs.stream()
+            .map(
+                spec ->
+                    matcherOf.apply(spec) instanceof SpecMethodMatcher matcher
+                        ? new Entry<>(spec, matcher.methodName(), matcher.arity())
+                        : new Entry<>(spec, null, SpecMethodMatcher.ANY_ARITY))
+            .toList();
+  }
+
+  /** Returns the specs that can possibly match the invocation, in declaration order. */
+  public List<S> candidates(J.MethodInvocation invocation) {
+    return candidates(invocation.getSimpleName(), invocation.getArguments());
+  }
+
+  /** Returns the specs whose {@code <constructor>} matcher can possibly match the instantiation. */
+  public List<S> candidates(J.NewClass newClass) {
+    return candidates(CONSTRUCTOR, newClass.getArguments());
+  }
+
+  private List<S> candidates(String methodName, List<Expression> arguments) {
+    if (entries.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<Entry<S>> named =
+        entriesByName.computeIfAbsent(
+            methodName, name -> entries.stream().filter(entry -> entry.matchesName(name)).toList());
+
+    if (named.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    int arity = arityOf(arguments);
+    List<S> candidates = new ArrayList<>(named.size());
+    for (Entry<S> entry : named) {
+      if (entry.matchesArity(arity)) {
+        candidates.add(entry.spec());
+      }
+    }
+    return candidates;
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  private static int arityOf(List<Expression> arguments) {
+    if (arguments.size() == 1 && arguments.get(0) instanceof J.Empty) {
+      return 0;
+    }
+    return arguments.size();
+  }
+}
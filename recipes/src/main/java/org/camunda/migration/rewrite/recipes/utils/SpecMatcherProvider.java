@@ -0,0 +1,14 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.List;
+import org.openrewrite.java.MethodMatcher;
+
+/**
+ * A recipe that replaces method invocations and instantiations based on specs. The matchers let
+ * other recipes find the calls a migration would touch without applying any template.
+ */
+public interface SpecMatcherProvider {
+
+  /** The matchers of all specs, in the order the recipe tests them. */
+  List<MethodMatcher> specMatchers();
+}
@@ -0,0 +1,69 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import org.openrewrite.java.MethodMatcher;
+
+/**
+ * Matcher of a spec that keeps the method name and arity of its declared pattern, so that {@link
+ * SpecDispatchIndex} can sort the spec in without evaluating the matcher.
+ */
+public class SpecMethodMatcher extends MethodMatcher {
+
+  /**
+   * Arity of patterns with a {@code ..} or a trailing array argument, which can match any number of
+   * arguments, as the array may be varargs.
+   */
+  public static final int ANY_ARITY = -1;
+
+  // null if the name is a wildcard
+  private final String methodName;
+
+  private final int arity;
+
+  public SpecMethodMatcher(String methodPattern) {
+    this(methodPattern, false);
+  }
+
+  public SpecMethodMatcher(String methodPattern, boolean matchOverrides) {
+    super(methodPattern, matchOverrides);
+    int open = methodPattern.indexOf('(');
+    int close = methodPattern.lastIndexOf(')');
+    if (open < 0 || close < open) {
+      throw new IllegalArgumentException("Not a method pattern: " + methodPattern);
+    }
+    String name = methodPattern.substring(0, open).trim();
+    name = name.substring(Math.max(name.lastIndexOf(' '), name.lastIndexOf('#')) + 1);
+    this.methodName = name.contains("*") ? null : name;
+    this.arity = arityOf(methodPattern.substring(open + 1, close).trim());
+  }
+
+  /** The declared method name, {@code <constructor>} for instantiations, null for wildcards. */
+  public String methodName() {
+    return methodName;
+  }
+
+  /** The number of declared arguments, or {@link #ANY_ARITY}. */
+  public int arity() {
+    return arity;
+  }
+
+  private static int arityOf(String arguments) {
+    if (arguments.isEmpty()) {
+      return 0;
+    }
+    if (arguments.contains("..") || arguments.endsWith("[]")) {
+      return ANY_ARITY;
+    }
+    int arity = 1;
+    int depth = 0;
+    for (char c : arguments.toCharArray()) {
+      if (c == '<') {
+        depth++;
+      } else if (c == '>') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        arity++;
+      }
+    }
+    return arity;
+  }
+}
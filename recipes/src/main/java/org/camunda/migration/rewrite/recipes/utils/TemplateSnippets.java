@@ -0,0 +1,50 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.*;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+
+/**
+ * Templates of the recipes, shared by all source files of the JVM.
+ *
+ * <p>The templates of the recipes are context free, a template only depends on its code, its
+ * imports and the parser it attributes its snippets with. {@link #template} builds each of them
+ * once and hands the same {@link JavaTemplate} to every recipe and source file that uses it, so the
+ * template keeps the snippets it parsed for a source file while the file is visited.
+ *
+ * <p>Templates with values of the call site, like job types or variable names, are built per call
+ * site. The cache therefore keeps the {@link #MAX_TEMPLATES} most recently used templates, so the
+ * templates shared by many files stay while the ones of a single file are evicted again.
+ */
+public final class TemplateSnippets {
+
+  static final int MAX_TEMPLATES = 512;
+
+  /**
+   * The parser is compared by identity, the recipes pass the same shared builder for all their
+   * templates.
+   */
+  private record Key(String code, List<String> imports, JavaParser.Builder<?, ?> parser) {}
+
+  private static final Map<Key, JavaTemplate> TEMPLATES =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(MAX_TEMPLATES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, JavaTemplate> eldest) {
+              return size() > MAX_TEMPLATES;
+            }
+          });
+
+  private TemplateSnippets() {}
+
+  /**
+   * A context-free template, the cached counterpart of {@code
+   * JavaTemplate.builder(code).javaParser(parser).imports(imports).build()}.
+   */
+  public static JavaTemplate template(
+      String code, JavaParser.Builder<?, ?> parser, String... imports) {
+    return TEMPLATES.computeIfAbsent(
+        new Key(code, List.of(imports), parser),
+        key -> JavaTemplate.builder(code).javaParser(parser).imports(imports).build());
+  }
+}
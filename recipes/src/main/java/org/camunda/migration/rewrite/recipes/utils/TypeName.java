@@ -0,0 +1,88 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openrewrite.java.tree.JavaType;
+
+/**
+ * A type name as the specs write it, like {@code io.camunda.client.CamundaClient} or {@code
+ * List<io.camunda.client.api.search.response.UserTask>}, split into its parts once.
+ *
+ * <p>The specs use a few dozen distinct names for every replacement they make, so the names are
+ * interned by {@link #of}: the string splitting and the {@link JavaType} instances happen once per
+ * name and JVM, and all identifiers and arguments typed with a name share its types.
+ *
+ * @param fqn the name as given
+ * @param rawType the name without type arguments
+ * @param typeArguments the type arguments as given, empty if there are none
+ * @param shortName the simple names of the raw type and its type arguments, like {@code
+ *     List<UserTask>}
+ * @param argumentsShortName the simple names of the type arguments, separated by commas, or the
+ *     simple name if there are none
+ * @param argumentsLongName the type arguments, separated by commas, or the name if there are none
+ * @param imports the qualified names among the raw type and its type arguments
+ * @param type the type built by {@link JavaType#buildType}
+ * @param shallowClass the type built by {@link JavaType.ShallowClass#build}
+ */
+public record TypeName(
+    String fqn,
+    String rawType,
+    List<String> typeArguments,
+    String shortName,
+    String argumentsShortName,
+    String argumentsLongName,
+    List<String> imports,
+    JavaType type,
+    JavaType.ShallowClass shallowClass) {
+
+  private static final Map<String, TypeName> INTERNED = new ConcurrentHashMap<>();
+
+  /** The parsed name, shared by all callers passing an equal name. */
+  public static TypeName of(String fqn) {
+    return INTERNED.computeIfAbsent(fqn, TypeName::parse);
+  }
+
+  private static TypeName parse(String fqn) {
+    int genericStart = fqn.indexOf('<');
+    if (genericStart == -1) {
+      String simpleName = simpleName(fqn);
+      return new TypeName(
+          fqn,
+          fqn,
+          List.of(),
+          simpleName,
+          simpleName,
+          fqn,
+          fqn.indexOf('.') == -1 ? List.of() : List.of(fqn),
+          JavaType.buildType(fqn),
+          JavaType.ShallowClass.build(fqn));
+    }
+
+    String rawType = fqn.substring(0, genericStart);
+    // remove < and >
+    List<String> typeArguments =
+        List.of(fqn.substring(genericStart + 1, fqn.length() - 1).split("\\s*,\\s*"));
+    List<String> argumentsShortNames = typeArguments.stream().map(TypeName::simpleName).toList();
+
+    List<String> imports = new ArrayList<>();
+    if (rawType.indexOf('.') != -1) {
+      imports.add(rawType);
+    }
+    typeArguments.stream().filter(argument -> argument.indexOf('.') != -1).forEach(imports::add);
+
+    return new TypeName(
+        fqn,
+        rawType,
+        typeArguments,
+        simpleName(rawType) + "<" + String.join(", ", argumentsShortNames) + ">",
+        String.join(", ", argumentsShortNames),
+        String.join(", ", typeArguments),
+        List.copyOf(imports),
+        JavaType.buildType(fqn),
+        JavaType.ShallowClass.build(fqn));
+  }
+
+  private static String simpleName(String fqn) {
+    return fqn.substring(fqn.lastIndexOf('.') + 1);
+  }
+}
@@ -2,8 +2,8 @@ package org.camunda.migration.rewrite.recipes.client;
 
 import static org.openrewrite.java.Assertions.java;
 
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +13,7 @@ class ProcessEngineToCamundaClientTest implements RewriteTest {
   public void defaults(RecipeSpec spec) {
     spec.recipeFromResources(
             "org.camunda.migration.rewrite.recipes.AllClientRecipes")
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
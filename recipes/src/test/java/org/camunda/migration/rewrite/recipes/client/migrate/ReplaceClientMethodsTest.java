@@ -0,0 +1,144 @@
+package org.camunda.migration.rewrite.recipes.client.migrate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+import java.util.*;
+import org.camunda.migration.rewrite.recipes.client.*;
+import org.camunda.migration.rewrite.recipes.corpus.Camunda7CorpusGenerator;
+import org.camunda.migration.rewrite.recipes.corpus.Camunda7CorpusGenerator.GeneratedSource;
+import org.camunda.migration.rewrite.recipes.corpus.Camunda7CorpusGenerator.Shape;
+import org.camunda.migration.rewrite.recipes.testing.ReplaceAssertionsRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.test.RewriteTest;
+
+class ReplaceClientMethodsTest implements RewriteTest {
+
+  @Test
+  void replaceClientMethodsInSinglePassTest() {
+    rewriteRun(
+        spec -> spec.recipe(new MigrateClientMethodsRecipe()),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class ClientMethodsTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void clientMethods(String signalName, String processInstanceId, String deleteReason, Map<String, Object> variableMap) {
+        engine.getRuntimeService().signalEventReceived(signalName);
+
+        engine.getRuntimeService().createSignalEvent(signalName)
+                .setVariables(variableMap)
+                .send();
+
+        engine.getRuntimeService().deleteProcessInstance(processInstanceId, deleteReason);
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class ClientMethodsTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void clientMethods(String signalName, String processInstanceId, String deleteReason, Map<String, Object> variableMap) {
+        camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .send()
+                .join();
+
+        camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .variables(variableMap)
+                .send()
+                .join();
+
+        // delete reason was removed
+        camundaClient
+                .newCancelInstanceCommand(Long.valueOf(processInstanceId))
+                .send()
+                .join();
+    }
+}
+"""));
+    }
+
+  @Test
+  void fusedRunEqualsSequentialRunTest() {
+    List<GeneratedSource> corpus =
+        new Camunda7CorpusGenerator(11, Map.of(Shape.ENGINE_SERVICE, 1), 6).generate(20);
+
+    Map<String, String> fused = migrate(new MigrateClientMethodsRecipe(), corpus);
+    Map<String, String> sequential =
+        migrate(
+            new CompositeRecipe(
+                List.of(
+                    new MigrateSignalMethodsRecipe(),
+                    new MigrateCancelProcessInstanceMethodsRecipe(),
+                    new MigrateStartProcessInstanceMethodsRecipe(),
+                    new MigrateMessageMethodsRecipe(),
+                    new MigrateUserTaskMethodsRecipe(),
+                    new ReplaceAssertionsRecipe())),
+            corpus);
+
+    assertThat(fused).hasSize(corpus.size()).isEqualTo(sequential);
+  }
+
+  /** The migrated sources by path, failing on any error of the recipe run. */
+  private static Map<String, String> migrate(Recipe recipe, List<GeneratedSource> corpus) {
+    ExecutionContext ctx =
+        new InMemoryExecutionContext(
+            error -> {
+              throw new AssertionError(error);
+            });
+    List<SourceFile> sourceFiles =
+        CamundaApiStubs.javaParser()
+            .build()
+            .parse(ctx, corpus.stream().map(GeneratedSource::source).toArray(String[]::new))
+            .toList();
+    Map<String, String> migrated = new TreeMap<>();
+    for (Result result :
+        recipe.run(new InMemoryLargeSourceSet(sourceFiles), ctx).getChangeset().getAllResults()) {
+      migrated.put(result.getAfter().getSourcePath().toString(), result.getAfter().printAll());
+    }
+    return migrated;
+  }
+}
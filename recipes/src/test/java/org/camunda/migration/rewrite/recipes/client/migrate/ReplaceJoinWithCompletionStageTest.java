@@ -0,0 +1,337 @@
+package org.camunda.migration.rewrite.recipes.client.migrate;
+
+import static org.openrewrite.java.Assertions.java;
+
+import org.camunda.migration.rewrite.recipes.client.MigrateClientMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.client.ReplaceJoinWithCompletionStageRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RewriteTest;
+
+class ReplaceJoinWithCompletionStageTest implements RewriteTest {
+
+  @Test
+  void returnPendingResponsesTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new ReplaceJoinWithCompletionStageRecipe())
+                .parser(CamundaApiStubs.javaParser()),
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.api.response.ProcessInstanceEvent;
+import io.camunda.spring.client.annotation.JobWorker;
+
+public class CompletionStageTestClass implements Runnable {
+
+    private CamundaClient camundaClient;
+
+    public void startAll(String processDefinitionKey) {
+        startProcess(processDefinitionKey);
+        long key = startProcessKey(processDefinitionKey);
+        correlate("message", processDefinitionKey);
+    }
+
+    public ProcessInstanceEvent startForwarded(String processDefinitionKey) {
+        return forwardStart(processDefinitionKey);
+    }
+
+    private ProcessInstanceEvent forwardStart(String processDefinitionKey) {
+        return startProcess(processDefinitionKey);
+    }
+
+    private ProcessInstanceEvent startProcess(String processDefinitionKey) {
+        return camundaClient
+                .newCreateInstanceCommand()
+                .bpmnProcessId(processDefinitionKey)
+                .latestVersion()
+                .send()
+                .join();
+    }
+
+    private long startProcessKey(String processDefinitionKey) {
+        ProcessInstanceEvent event = camundaClient
+                .newCreateInstanceCommand()
+                .bpmnProcessId(processDefinitionKey)
+                .latestVersion()
+                .send()
+                .join();
+        return event.getProcessInstanceKey();
+    }
+
+    private void correlate(String messageName, String correlationKey) {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey(correlationKey)
+                .send()
+                .join();
+    }
+
+    public void publish(String messageName) {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+
+    @JobWorker(type = "publish")
+    private void publishFromJob() {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName("scheduled")
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+
+    @Override
+    public void run() {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName("message")
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.api.response.ProcessInstanceEvent;
+import io.camunda.client.api.response.PublishMessageResponse;
+import io.camunda.spring.client.annotation.JobWorker;
+
+import java.util.concurrent.CompletionStage;
+
+public class CompletionStageTestClass implements Runnable {
+
+    private CamundaClient camundaClient;
+
+    public void startAll(String processDefinitionKey) {
+        startProcess(processDefinitionKey).toCompletableFuture().join();
+        long key = startProcessKey(processDefinitionKey).toCompletableFuture().join();
+        correlate("message", processDefinitionKey).toCompletableFuture().join();
+    }
+
+    public ProcessInstanceEvent startForwarded(String processDefinitionKey) {
+        return forwardStart(processDefinitionKey).toCompletableFuture().join();
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<ProcessInstanceEvent> forwardStart(String processDefinitionKey) {
+        return startProcess(processDefinitionKey);
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<ProcessInstanceEvent> startProcess(String processDefinitionKey) {
+        return camundaClient
+                .newCreateInstanceCommand()
+                .bpmnProcessId(processDefinitionKey)
+                .latestVersion()
+                .send();
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<Long> startProcessKey(String processDefinitionKey) {
+        return camundaClient
+                .newCreateInstanceCommand()
+                .bpmnProcessId(processDefinitionKey)
+                .latestVersion()
+                .send().thenApply(event -> event.getProcessInstanceKey());
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<PublishMessageResponse> correlate(String messageName, String correlationKey) {
+        return camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey(correlationKey)
+                .send();
+    }
+
+    public void publish(String messageName) {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+
+    @JobWorker(type = "publish")
+    private void publishFromJob() {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName("scheduled")
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+
+    @Override
+    public void run() {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName("message")
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+}
+"""));
+  }
+
+  @Test
+  void keepMethodReferencesTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new ReplaceJoinWithCompletionStageRecipe())
+                .parser(CamundaApiStubs.javaParser()),
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.CamundaClient;
+
+public class ReferencedTestClass {
+
+    private CamundaClient camundaClient;
+
+    public Runnable publisher() {
+        return this::publish;
+    }
+
+    private void publish() {
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName("message")
+                .correlationKey("key")
+                .send()
+                .join();
+    }
+}
+"""));
+  }
+
+  @Test
+  void nonBlockingClientMethodsTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateClientMethodsRecipe(true, null, null, null))
+                .parser(CamundaApiStubs.javaParser()),
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+public class NonBlockingTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void broadcast(String signalName) {
+        broadcastSignal(signalName);
+    }
+
+    private void broadcastSignal(String signalName) {
+        engine.getRuntimeService().signalEventReceived(signalName);
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+import io.camunda.client.api.response.BroadcastSignalResponse;
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+import java.util.concurrent.CompletionStage;
+
+public class NonBlockingTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void broadcast(String signalName) {
+        broadcastSignal(signalName).toCompletableFuture().join();
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<BroadcastSignalResponse> broadcastSignal(String signalName) {
+        return camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .send();
+    }
+}
+"""));
+  }
+
+  @Test
+  void nonBlockingSignalMethodsTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateSignalMethodsRecipe(true))
+                .parser(CamundaApiStubs.javaParser()),
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+public class NonBlockingTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void broadcast(String signalName) {
+        broadcastSignal(signalName);
+    }
+
+    private void broadcastSignal(String signalName) {
+        engine.getRuntimeService().signalEventReceived(signalName);
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+import io.camunda.client.api.response.BroadcastSignalResponse;
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+import java.util.concurrent.CompletionStage;
+
+public class NonBlockingTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void broadcast(String signalName) {
+        broadcastSignal(signalName).toCompletableFuture().join();
+    }
+
+    // Hint: returns the pending response instead of joining it, compose it where it is joined
+    private CompletionStage<BroadcastSignalResponse> broadcastSignal(String signalName) {
+        return camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .send();
+    }
+}
+"""));
+  }
+}
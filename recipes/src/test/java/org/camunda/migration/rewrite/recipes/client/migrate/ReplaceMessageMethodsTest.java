@@ -389,4 +389,90 @@ public class CorrelateMessagesTestClass {
 }
                                 """));
   }
+
+  @Test
+  void publishDiscardedCorrelationsTest() {
+    rewriteRun(
+        spec -> spec.recipe(new MigrateMessageMethodsRecipe(null, true, "PT10M")),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.api.response.CorrelateMessageResponse;
+import org.camunda.bpm.engine.RuntimeService;
+
+import java.util.Map;
+
+public class PublishMessagesTestClass {
+
+    private CamundaClient camundaClient;
+
+    private RuntimeService runtimeService;
+
+    public long correlateMessages(String messageName, String tenantId, Map<String, Object> variableMap) {
+        runtimeService.correlateMessage(messageName);
+
+        runtimeService.createMessageCorrelation(messageName)
+                .setVariables(variableMap)
+                .tenantId(tenantId)
+                .correlate();
+
+        CorrelateMessageResponse response = camundaClient
+                .newCorrelateMessageCommand()
+                .messageName(messageName)
+                .withoutCorrelationKey()
+                .send()
+                .join();
+        return response.getProcessInstanceKey();
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.api.response.CorrelateMessageResponse;
+import org.camunda.bpm.engine.RuntimeService;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class PublishMessagesTestClass {
+
+    private CamundaClient camundaClient;
+
+    private RuntimeService runtimeService;
+
+    public long correlateMessages(String messageName, String tenantId, Map<String, Object> variableMap) {
+        // Hint: the message is published without waiting for its correlation, errors are not thrown here
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey("add correlationKey here")
+                .timeToLive(Duration.parse("PT10M"))
+                .send();
+
+        // Hint: the message is published without waiting for its correlation, errors are not thrown here
+        camundaClient
+                .newPublishMessageCommand()
+                .messageName(messageName)
+                .correlationKey("add correlationKey here")
+                .variables(variableMap)
+                .tenantId(tenantId)
+                .timeToLive(Duration.parse("PT10M"))
+                .send();
+
+        CorrelateMessageResponse response = camundaClient
+                .newCorrelateMessageCommand()
+                .messageName(messageName)
+                .withoutCorrelationKey()
+                .send()
+                .join();
+        return response.getProcessInstanceKey();
+    }
+}
+"""));
+  }
 }
@@ -3,6 +3,7 @@ package org.camunda.migration.rewrite.recipes.client.migrate;
 import static org.openrewrite.java.Assertions.java;
 
 import org.camunda.migration.rewrite.recipes.client.MigrateUserTaskMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.test.RewriteTest;
 
@@ -92,6 +93,152 @@ public class HandleUserTasksTestClass {
         Date dueDate = Date.from(Instant.parse((firstTask.getDueDate())));
     }
 }
+"""));
+  }
+
+  @Test
+  void searchUserTasksPageByPageTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateUserTaskMethodsRecipe(null, 50))
+                .parser(CamundaApiStubs.javaParser()),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.camunda.bpm.engine.task.Task;
+
+import java.util.List;
+
+public class PagedUserTasksTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void handleUserTasks(String processDefinitionKey) {
+        List<Task> userTasks = engine.getTaskService().createTaskQuery()
+                .processDefinitionKey(processDefinitionKey)
+                .list();
+        userTasks.stream().forEach(System.out::println);
+
+        List<Task> allUserTasks = engine.getTaskService().createTaskQuery()
+                .unlimitedList();
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+import io.camunda.client.api.search.response.UserTask;
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class PagedUserTasksTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public void handleUserTasks(String processDefinitionKey) {
+        // user tasks are searched page by page while the stream is consumed
+        Stream<UserTask> userTasks = Stream.of(camundaClient
+                .newUserTaskSearchRequest()
+                .filter(filter -> filter.bpmnProcessId(processDefinitionKey)))
+                .flatMap(userTaskSearchRequest -> Stream.iterate(
+                        userTaskSearchRequest.page(searchPage -> searchPage.limit(50)).send().join(),
+                        userTaskPage -> !userTaskPage.items().isEmpty(),
+                        userTaskPage -> userTaskSearchRequest
+                                .page(searchPage -> searchPage.limit(50).after(userTaskPage.page().endCursor()))
+                                .send()
+                                .join()))
+                .flatMap(userTaskPage -> userTaskPage.items().stream());
+        userTasks.forEach(System.out::println);
+
+        // user tasks are searched page by page while the stream is consumed
+        Stream<UserTask> allUserTasks = Stream.of(camundaClient
+                .newUserTaskSearchRequest())
+                .flatMap(userTaskSearchRequest -> Stream.iterate(
+                        userTaskSearchRequest.page(searchPage -> searchPage.limit(50)).send().join(),
+                        userTaskPage -> !userTaskPage.items().isEmpty(),
+                        userTaskPage -> userTaskSearchRequest
+                                .page(searchPage -> searchPage.limit(50).after(userTaskPage.page().endCursor()))
+                                .send()
+                                .join()))
+                .flatMap(userTaskPage -> userTaskPage.items().stream());
+    }
+}
+"""));
+  }
+
+  @Test
+  void collectPagesOfUserTasksUsedAsListTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateUserTaskMethodsRecipe(null, 50))
+                .parser(CamundaApiStubs.javaParser()),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.camunda.bpm.engine.task.Task;
+
+import java.util.List;
+
+public class CollectedUserTasksTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public int countUserTasks() {
+        List<Task> userTasks = engine.getTaskService().createTaskQuery()
+                .list();
+        System.out.println(userTasks.get(0).getName());
+        return userTasks.size();
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+import io.camunda.client.api.search.response.UserTask;
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class CollectedUserTasksTestClass {
+
+    private ProcessEngine engine;
+
+    private CamundaClient camundaClient;
+
+    public int countUserTasks() {
+        // all pages are searched up front, consume the user tasks as a stream to search them page by page
+        List<UserTask> userTasks = Stream.of(camundaClient
+                .newUserTaskSearchRequest())
+                .flatMap(userTaskSearchRequest -> Stream.iterate(
+                        userTaskSearchRequest.page(searchPage -> searchPage.limit(50)).send().join(),
+                        userTaskPage -> !userTaskPage.items().isEmpty(),
+                        userTaskPage -> userTaskSearchRequest
+                                .page(searchPage -> searchPage.limit(50).after(userTaskPage.page().endCursor()))
+                                .send()
+                                .join()))
+                .flatMap(userTaskPage -> userTaskPage.items().stream())
+                .toList();
+        System.out.println(userTasks.get(0).getName());
+        return userTasks.size();
+    }
+}
 """));
   }
 }
@@ -0,0 +1,304 @@
+package org.camunda.migration.rewrite.recipes.corpus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Generates Camunda 7 sources for scale tests and benchmarks. The shapes are taken from the test
+ * fixtures, e.g. {@code ReplaceExecutionTest}, {@code ExternalWorkerToJobWorkerSpringTest} and
+ * {@code ReplaceMessageMethodsTest}, and combined randomly. The same seed always yields the same
+ * corpus.
+ *
+ * <p>The API mix weighs the {@link Shape}s against each other. The method count is the number of
+ * variable accesses in the {@code execute} method of delegates and external task handlers, and the
+ * number of methods of engine services.
+ */
+public class Camunda7CorpusGenerator {
+
+  public enum Shape {
+    JAVA_DELEGATE,
+    EXTERNAL_TASK_HANDLER,
+    ENGINE_SERVICE
+  }
+
+  public record GeneratedSource(Path path, String source) {}
+
+  private static final String PACKAGE = "org.camunda.community.migration.generated";
+
+  private static final List<String> VARIABLE_NAMES =
+      List.of("amount", "orderId", "customerId", "approved", "transactionId", "retries", "region");
+
+  private static final List<String> PROCESS_KEYS =
+      List.of("orderProcess", "paymentProcess", "shippingProcess", "invoiceProcess");
+
+  private final long seed;
+
+  private final Map<Shape, Integer> apiMix;
+
+  private final int methodsPerClass;
+
+  /**
+   * @param seed seed of the random generator
+   * @param apiMix weight of each shape, shapes without weight are not generated
+   * @param methodsPerClass variable accesses per worker or methods per service, at least 1
+   */
+  public Camunda7CorpusGenerator(long seed, Map<Shape, Integer> apiMix, int methodsPerClass) {
+    if (apiMix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("The API mix needs at least one positive weight");
+    }
+    if (methodsPerClass < 1) {
+      throw new IllegalArgumentException("At least one method per class is needed");
+    }
+    this.seed = seed;
+    this.apiMix = new EnumMap<>(apiMix);
+    this.methodsPerClass = methodsPerClass;
+  }
+
+  /** Equal weights for all shapes and five methods per class. */
+  public static Camunda7CorpusGenerator withDefaults(long seed) {
+    return new Camunda7CorpusGenerator(
+        seed,
+        Map.of(Shape.JAVA_DELEGATE, 1, Shape.EXTERNAL_TASK_HANDLER, 1, Shape.ENGINE_SERVICE, 1),
+        5);
+  }
+
+  public List<GeneratedSource> generate(int files) {
+    Random random = new Random(seed);
+    List<GeneratedSource> sources = new ArrayList<>(files);
+    for (int i = 0; i < files; i++) {
+      Shape shape = pickShape(random);
+      String className =
+          switch (shape) {
+            case JAVA_DELEGATE -> "GeneratedDelegate" + i;
+            case EXTERNAL_TASK_HANDLER -> "GeneratedExternalTaskHandler" + i;
+            case ENGINE_SERVICE -> "GeneratedEngineService" + i;
+          };
+      String source =
+          switch (shape) {
+            case JAVA_DELEGATE -> javaDelegate(className, random);
+            case EXTERNAL_TASK_HANDLER -> externalTaskHandler(className, random);
+            case ENGINE_SERVICE -> engineService(className, random);
+          };
+      sources.add(
+          new GeneratedSource(
+              Path.of("src/main/java", PACKAGE.replace('.', '/'), className + ".java"), source));
+    }
+    return sources;
+  }
+
+  /** Writes the sources below {@code src/main/java} of the directory, like a Maven project. */
+  public void writeTo(Path directory, int files) throws IOException {
+    for (GeneratedSource source : generate(files)) {
+      Path file = directory.resolve(source.path());
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source.source());
+    }
+  }
+
+  /** Usage: {@code <output directory> [files] [seed]} */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: Camunda7CorpusGenerator <output directory> [files] [seed]");
+      System.exit(1);
+    }
+    int files = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 7L;
+    withDefaults(seed).writeTo(Path.of(args[0]), files);
+  }
+
+  private Shape pickShape(Random random) {
+    int total = apiMix.values().stream().mapToInt(Integer::intValue).sum();
+    int pick = random.nextInt(total);
+    for (Map.Entry<Shape, Integer> entry : apiMix.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Unreachable");
+  }
+
+  private String javaDelegate(String className, Random random) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < methodsPerClass; i++) {
+      String variable = variable(random, i);
+      switch (random.nextInt(3)) {
+        case 0 ->
+            body.append("        Object ")
+                .append(variable)
+                .append(" = execution.getVariable(\"")
+                .append(variable)
+                .append("\");\n");
+        case 1 ->
+            body.append("        execution.setVariable(\"")
+                .append(variable)
+                .append("\", \"")
+                .append(variable.toUpperCase())
+                .append("\");\n");
+        default ->
+            body.append("        if (execution.getVariable(\"")
+                .append(variable)
+                .append("\") == null) {\n")
+                .append("            throw new BpmnError(\"missing_")
+                .append(variable)
+                .append("\");\n")
+                .append("        }\n");
+      }
+    }
+    return """
+        package %s;
+
+        import org.camunda.bpm.engine.delegate.BpmnError;
+        import org.camunda.bpm.engine.delegate.DelegateExecution;
+        import org.camunda.bpm.engine.delegate.JavaDelegate;
+        import org.springframework.stereotype.Component;
+
+        @Component
+        public class %s implements JavaDelegate {
+
+            @Override
+            public void execute(DelegateExecution execution) {
+        %s    }
+        }
+        """
+        .formatted(PACKAGE, className, body);
+  }
+
+  private String externalTaskHandler(String className, Random random) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < methodsPerClass; i++) {
+      String variable = variable(random, i);
+      switch (random.nextInt(3)) {
+        case 0 ->
+            body.append("        Object ")
+                .append(variable)
+                .append(" = externalTask.getVariable(\"")
+                .append(variable)
+                .append("\");\n");
+        case 1 ->
+            body.append("        variables.put(\"")
+                .append(variable)
+                .append("\", \"")
+                .append(variable.toUpperCase())
+                .append("\");\n");
+        default ->
+            body.append("        if (externalTask.getVariable(\"")
+                .append(variable)
+                .append("\") == null) {\n")
+                .append("            externalTaskService.handleBpmnError(externalTask, \"missing_")
+                .append(variable)
+                .append("\");\n")
+                .append("            return;\n")
+                .append("        }\n");
+      }
+    }
+    return """
+        package %s;
+
+        import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
+        import org.camunda.bpm.client.task.ExternalTask;
+        import org.camunda.bpm.client.task.ExternalTaskHandler;
+        import org.camunda.bpm.client.task.ExternalTaskService;
+        import org.springframework.context.annotation.Configuration;
+
+        import java.util.HashMap;
+        import java.util.Map;
+
+        @Configuration
+        @ExternalTaskSubscription("%s")
+        public class %s implements ExternalTaskHandler {
+
+            @Override
+            public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+                Map<String, Object> variables = new HashMap<>();
+        %s        externalTaskService.complete(externalTask, variables);
+            }
+        }
+        """
+        .formatted(
+            PACKAGE,
+            Character.toLowerCase(className.charAt(0)) + className.substring(1),
+            className,
+            body);
+  }
+
+  private String engineService(String className, Random random) {
+    StringBuilder methods = new StringBuilder();
+    for (int i = 0; i < methodsPerClass; i++) {
+      String processKey = PROCESS_KEYS.get(random.nextInt(PROCESS_KEYS.size()));
+      methods
+          .append("\n    public void operation")
+          .append(i)
+          .append("(String businessKey, Map<String, Object> variableMap) {\n");
+      switch (random.nextInt(6)) {
+        case 0 ->
+            methods.append("        runtimeService.startProcessInstanceByKey(\"")
+                .append(processKey)
+                .append("\", businessKey, variableMap);\n");
+        case 1 ->
+            methods.append("        runtimeService.createMessageCorrelation(\"")
+                .append(processKey)
+                .append("Message\")\n")
+                .append("                .processInstanceBusinessKey(businessKey)\n")
+                .append("                .setVariables(variableMap)\n")
+                .append("                .correlate();\n");
+        case 2 ->
+            methods.append("        runtimeService.correlateMessage(\"")
+                .append(processKey)
+                .append("Message\", businessKey);\n");
+        case 3 ->
+            methods.append("        engine.getRuntimeService().createSignalEvent(\"")
+                .append(processKey)
+                .append("Signal\")\n")
+                .append("                .setVariables(variableMap)\n")
+                .append("                .send();\n");
+        case 4 ->
+            methods.append(
+                "        runtimeService.deleteProcessInstance(businessKey, \"cancelled\");\n");
+        default ->
+            methods.append("        List<Task> tasks = taskService.createTaskQuery()\n")
+                .append("                .processDefinitionKey(\"")
+                .append(processKey)
+                .append("\")\n")
+                .append("                .list();\n")
+                .append(
+                    "        tasks.forEach(task -> taskService.complete(task.getId(), variableMap));\n");
+      }
+      methods.append("    }\n");
+    }
+    return """
+        package %s;
+
+        import org.camunda.bpm.engine.ProcessEngine;
+        import org.camunda.bpm.engine.RuntimeService;
+        import org.camunda.bpm.engine.TaskService;
+        import org.camunda.bpm.engine.task.Task;
+        import org.springframework.beans.factory.annotation.Autowired;
+        import org.springframework.stereotype.Component;
+
+        import java.util.List;
+        import java.util.Map;
+
+        @Component
+        public class %s {
+
+            @Autowired
+            private ProcessEngine engine;
+
+            @Autowired
+            private RuntimeService runtimeService;
+
+            @Autowired
+            private TaskService taskService;
+        %s}
+        """
+        .formatted(PACKAGE, className, methods);
+  }
+
+  // unique per method, so repeated accesses never declare the same local variable twice
+  private static String variable(Random random, int index) {
+    return VARIABLE_NAMES.get(random.nextInt(VARIABLE_NAMES.size())) + index;
+  }
+}
@@ -0,0 +1,52 @@
+package org.camunda.migration.rewrite.recipes.corpus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.camunda.migration.rewrite.recipes.corpus.Camunda7CorpusGenerator.GeneratedSource;
+import org.camunda.migration.rewrite.recipes.corpus.Camunda7CorpusGenerator.Shape;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.ParseExceptionResult;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+
+class Camunda7CorpusGeneratorTest {
+
+  @Test
+  void sameSeedGeneratesSameCorpus() {
+    assertThat(Camunda7CorpusGenerator.withDefaults(42).generate(50))
+        .isEqualTo(Camunda7CorpusGenerator.withDefaults(42).generate(50))
+        .isNotEqualTo(Camunda7CorpusGenerator.withDefaults(43).generate(50));
+  }
+
+  @Test
+  void apiMixSelectsShapes() {
+    List<GeneratedSource> sources =
+        new Camunda7CorpusGenerator(7, Map.of(Shape.EXTERNAL_TASK_HANDLER, 1), 3).generate(10);
+
+    assertThat(sources)
+        .allSatisfy(source -> assertThat(source.source()).contains("implements ExternalTaskHandler"));
+  }
+
+  @Test
+  void generatedSourcesParse() {
+    List<GeneratedSource> sources = Camunda7CorpusGenerator.withDefaults(7).generate(30);
+
+    List<SourceFile> parsed =
+        JavaParser.fromJavaVersion()
+            .classpath(JavaParser.runtimeClasspath())
+            .build()
+            .parse(
+                new InMemoryExecutionContext(),
+                sources.stream().map(GeneratedSource::source).toArray(String[]::new))
+            .toList();
+
+    assertThat(parsed).hasSize(30);
+    assertThat(parsed)
+        .allSatisfy(
+            sourceFile ->
+                assertThat(sourceFile.getMarkers().findFirst(ParseExceptionResult.class)).isEmpty());
+  }
+}
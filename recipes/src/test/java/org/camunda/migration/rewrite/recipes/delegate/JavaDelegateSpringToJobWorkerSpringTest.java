@@ -1,5 +1,6 @@
 package org.camunda.migration.rewrite.recipes.delegate;
 
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
@@ -12,7 +13,7 @@ class JavaDelegateSpringToJobWorkerSpringTest implements RewriteTest {
     @Override
     public void defaults(RecipeSpec spec) {
     spec.recipeFromResources("org.camunda.migration.rewrite.recipes.AllDelegateRecipes")
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
     }
     
 
@@ -95,7 +96,7 @@ public class RetrievePaymentAdapter {
         @Component
         public class RetrievePaymentAdapter {
 
-            @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+            @JobWorker(type = "retrievePaymentAdapter", autoComplete = true, fetchVariables = {"x"})
             public Map<String, Object> executeJobMigrated(ActivatedJob job) throws Exception {
                 Map<String, Object> resultMap = new HashMap<>();
                 System.out.println("SampleJavaDelegate " + job.getVariable("x"));
@@ -108,6 +109,11 @@ public class RetrievePaymentAdapter {
     @Test
     void rewriteExecuteMethodWithVariables() {
     rewriteRun(
+        // the delegate calls a Spring client, which is not part of the stubs
+        spec ->
+            spec.parser(
+                CamundaApiStubs.javaParser()
+                    .addClasspathEntry(JavaParser.dependenciesFromClasspath("spring-web").get(0))),
         java(
 """
 package org.camunda.community.migration.example;
@@ -152,7 +158,7 @@ public class RetrievePaymentAdapter {
     @Autowired
     private RestTemplate rest;
 
-    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true, fetchVariables = {"AMOUNT"})
     public Map<String, Object> executeJobMigrated(ActivatedJob job) throws Exception {
         Map<String, Object> resultMap = new HashMap<>();
         Integer amount = (Integer) job.getVariable("AMOUNT");
@@ -242,7 +248,7 @@ import static org.camunda.spin.Spin.JSON;
 public class TestDelegate {
     record DummyClass(Integer zahl, Double nochneZahl, String einString){}
 
-    @JobWorker(type = "testDelegate", autoComplete = true)
+    @JobWorker(type = "testDelegate", autoComplete = true, fetchVariables = {"stringVariable", "integerVariable", "doubleVariable", "boolVariable", "jsonVariable", "fileVariable", "stringVariableLocal", "integerVariableLocal", "doubleVariableLocal", "boolVariableLocal", "jsonVariableLocal"})
     public Map<String, Object> executeJobMigrated(ActivatedJob job) throws Exception {
         Map<String, Object> resultMap = new HashMap<>();
 
@@ -1,10 +1,15 @@
 package org.camunda.migration.rewrite.recipes.delegate.migrate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.java.Assertions.java;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.camunda.migration.rewrite.recipes.delegate.MigrateExecutionRecipe;
+import org.camunda.migration.rewrite.recipes.sharedRecipes.ReplaceJobVariableReadsWithParametersRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.camunda.migration.rewrite.recipes.utils.MigrationMetrics;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +18,7 @@ class ReplaceExecutionTest implements RewriteTest {
   @Override
   public void defaults(RecipeSpec spec) {
     spec.recipes(new MigrateExecutionRecipe())
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
@@ -89,6 +94,96 @@ public class RetrievePaymentAdapter implements JavaDelegate {
 """));
   }
 
+  @Test
+  void variableParametersTest() {
+    List<MigrationMetrics.Row> metrics = new ArrayList<>();
+    rewriteRun(
+        spec ->
+            spec.recipes(new MigrateExecutionRecipe(true))
+                .afterRecipe(
+                    run ->
+                        run.getDataTables().forEach(
+                            (table, rows) -> {
+                              if (table instanceof MigrationMetrics) {
+                                rows.forEach(row -> metrics.add((MigrationMetrics.Row) row));
+                              }
+                            })),
+        java(
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class RetrievePaymentAdapter implements JavaDelegate {
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        int typedAmount = (int) execution.getVariable("amount");
+        Integer amount = (Integer) execution.getVariable("AMOUNT");
+        execution.setVariable("doubled", 2 * (int) execution.getVariable("amount"));
+        execution.setVariable("note", execution.getVariable("note"));
+    }
+
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+""",
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import io.camunda.spring.client.annotation.Variable;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class RetrievePaymentAdapter implements JavaDelegate {
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        int typedAmount = (int) execution.getVariable("amount");
+        Integer amount = (Integer) execution.getVariable("AMOUNT");
+        execution.setVariable("doubled", 2 * (int) execution.getVariable("amount"));
+        execution.setVariable("note", execution.getVariable("note"));
+    }
+
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    public Map<String, Object> executeJobMigrated(ActivatedJob job, @Variable(name = "amount") int amountVariable, @Variable(name = "AMOUNT") Integer AMOUNT, @Variable(name = "note") Object note) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        int typedAmount = amountVariable;
+        Integer amount = AMOUNT;
+        resultMap.put("doubled", 2 * amountVariable);
+        resultMap.put("note", note);
+        return resultMap;
+    }
+}
+"""));
+
+    assertThat(metrics)
+        .filteredOn(
+            row -> row.recipe().equals(ReplaceJobVariableReadsWithParametersRecipe.class.getName()))
+        .filteredOn(row -> row.specPattern().contains("getVariable"))
+        .singleElement()
+        .extracting(MigrationMetrics.Row::matcherHits)
+        .isEqualTo(4L);
+  }
+
   @Test
   void ThrowBPMNAndExceptionTest() {
     rewriteRun(
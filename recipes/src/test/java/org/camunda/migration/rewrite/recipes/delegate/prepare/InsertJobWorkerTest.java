@@ -3,8 +3,8 @@ package org.camunda.migration.rewrite.recipes.delegate.prepare;
 import static org.openrewrite.java.Assertions.java;
 
 import org.camunda.migration.rewrite.recipes.delegate.PrepareJobWorkerBeneathDelegateRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +13,7 @@ class InsertJobWorkerTest implements RewriteTest {
   @Override
   public void defaults(RecipeSpec spec) {
     spec.recipes(new PrepareJobWorkerBeneathDelegateRecipe())
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
@@ -70,7 +70,7 @@ public class RetrievePaymentAdapter implements JavaDelegate {
         execution.setVariable("transactionId", typedTransactionId);
     }
     
-    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true, fetchVariables = {"amount"})
     public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
         Map<String, Object> resultMap = new HashMap<>();
         return resultMap;
@@ -79,4 +79,158 @@ public class RetrievePaymentAdapter implements JavaDelegate {
 """));
   }
 
+  @Test
+  void fetchConstantVariableNamesTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+public class CheckPaymentAdapter implements JavaDelegate {
+
+    private static final String AMOUNT = "amount";
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        final String currency = "currency";
+        if (execution.hasVariable(currency)) {
+            execution.setVariable("checked", execution.getVariable(AMOUNT));
+        }
+    }
+}
+                """,
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CheckPaymentAdapter implements JavaDelegate {
+
+    private static final String AMOUNT = "amount";
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        final String currency = "currency";
+        if (execution.hasVariable(currency)) {
+            execution.setVariable("checked", execution.getVariable(AMOUNT));
+        }
+    }
+    
+    @JobWorker(type = "checkPaymentAdapter", autoComplete = true, fetchVariables = {"currency", "amount"})
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
+
+  @Test
+  void fetchAllVariablesForDynamicNamesTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+public class CopyVariablesAdapter implements JavaDelegate {
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        for (String name : new String[] {"amount", "currency"}) {
+            execution.setVariable(name + "Copy", execution.getVariable(name));
+        }
+    }
+}
+                """,
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CopyVariablesAdapter implements JavaDelegate {
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        for (String name : new String[] {"amount", "currency"}) {
+            execution.setVariable(name + "Copy", execution.getVariable(name));
+        }
+    }
+    
+    @JobWorker(type = "copyVariablesAdapter", autoComplete = true)
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
+
+  @Test
+  void fetchAllVariablesForExecutionInFieldTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+public class AuditAdapter implements JavaDelegate {
+
+    private DelegateExecution execution;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        Object amount = execution.getVariable("amount");
+        this.execution = execution;
+    }
+}
+                """,
+"""
+package org.camunda.conversion.java_delegates.handling_process_variables;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class AuditAdapter implements JavaDelegate {
+
+    private DelegateExecution execution;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        Object amount = execution.getVariable("amount");
+        this.execution = execution;
+    }
+    
+    @JobWorker(type = "auditAdapter", autoComplete = true)
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
 }
@@ -3,8 +3,8 @@ package org.camunda.migration.rewrite.recipes.delegate.prepare;
 import static org.openrewrite.java.Assertions.java;
 
 import org.camunda.migration.rewrite.recipes.sharedRecipes.ReplaceTypedValueAPIRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +13,7 @@ class JavaDelegateTypedValueTest implements RewriteTest {
   @Override
   public void defaults(RecipeSpec spec) {
     spec.recipes(new ReplaceTypedValueAPIRecipe())
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
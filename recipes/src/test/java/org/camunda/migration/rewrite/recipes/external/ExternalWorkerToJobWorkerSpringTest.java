@@ -2,8 +2,8 @@ package org.camunda.migration.rewrite.recipes.external;
 
 import static org.openrewrite.java.Assertions.java;
 
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -12,7 +12,7 @@ class ExternalWorkerToJobWorkerSpringTest implements RewriteTest {
     @Override
     public void defaults(RecipeSpec spec) {
     spec.recipeFromResources("org.camunda.migration.rewrite.recipes.AllExternalWorkerRecipes")
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
     }
     
 
@@ -61,7 +61,7 @@ import java.util.Map;
 @Component
 public class RetrievePaymentAdapter {
 
-    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true, fetchVariables = {"amount"})
     public Map<String, Object> executeJobMigrated(ActivatedJob job) throws Exception {
         // please check type
         Integer typedAmount = job.getVariable("amount");
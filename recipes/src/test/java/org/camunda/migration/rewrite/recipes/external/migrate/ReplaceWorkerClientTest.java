@@ -3,8 +3,8 @@ package org.camunda.migration.rewrite.recipes.external.migrate;
 import static org.openrewrite.java.Assertions.java;
 
 import org.camunda.migration.rewrite.recipes.external.MigrateExternalWorkerRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +13,7 @@ class ReplaceWorkerClientTest implements RewriteTest {
   @Override
   public void defaults(RecipeSpec spec) {
     spec.recipes(new MigrateExternalWorkerRecipe())
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
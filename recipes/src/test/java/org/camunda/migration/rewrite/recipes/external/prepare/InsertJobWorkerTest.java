@@ -3,8 +3,8 @@ package org.camunda.migration.rewrite.recipes.external.prepare;
 import static org.openrewrite.java.Assertions.java;
 
 import org.camunda.migration.rewrite.recipes.external.PrepareJobWorkerBeneathExternalWorkerRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
 import org.junit.jupiter.api.Test;
-import org.openrewrite.java.JavaParser;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
@@ -13,7 +13,7 @@ class InsertJobWorkerTest implements RewriteTest {
   @Override
   public void defaults(RecipeSpec spec) {
     spec.recipes(new PrepareJobWorkerBeneathExternalWorkerRecipe())
-        .parser(JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath()));
+        .parser(CamundaApiStubs.javaParser());
   }
 
   @Test
@@ -79,7 +79,7 @@ public class RetrievePaymentAdapter implements ExternalTaskHandler {
         externalTaskService.complete(externalTask.getId(), variableMap, null);
     }
     
-    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true)
+    @JobWorker(type = "retrievePaymentAdapter", autoComplete = true, fetchVariables = {"amount"})
     public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
         Map<String, Object> resultMap = new HashMap<>();
         return resultMap;
@@ -88,4 +88,175 @@ public class RetrievePaymentAdapter implements ExternalTaskHandler {
 """));
   }
 
+  @Test
+  void lockDurationBecomesTimeoutTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ExternalTaskSubscription(topicName = "chargeCard", lockDuration = 30000)
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        externalTaskService.complete(externalTask);
+    }
+}
+                """,
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ExternalTaskSubscription(topicName = "chargeCard", lockDuration = 30000)
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        externalTaskService.complete(externalTask);
+    }
+    
+    @JobWorker(type = "chargeCardAdapter", autoComplete = true, timeout = 30000)
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
+
+  @Test
+  void completeKeepsFetchVariablesTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        Integer amount = externalTask.getVariable("amount");
+        if (amount == null) {
+            externalTaskService.handleBpmnError(externalTask, "NO_AMOUNT");
+            return;
+        }
+        externalTaskService.complete(externalTask, Map.of("charged", amount));
+    }
+}
+                """,
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        Integer amount = externalTask.getVariable("amount");
+        if (amount == null) {
+            externalTaskService.handleBpmnError(externalTask, "NO_AMOUNT");
+            return;
+        }
+        externalTaskService.complete(externalTask, Map.of("charged", amount));
+    }
+    
+    @JobWorker(type = "chargeCardAdapter", autoComplete = true, fetchVariables = {"amount"})
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
+
+  @Test
+  void fetchAllVariablesForTaskInFieldTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    private ExternalTask currentTask;
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        Integer amount = externalTask.getVariable("amount");
+        currentTask = externalTask;
+        externalTaskService.complete(externalTask);
+    }
+}
+                """,
+"""
+package org.camunda.community.migration.example;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.spring.client.annotation.JobWorker;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.camunda.bpm.client.task.ExternalTaskService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChargeCardAdapter implements ExternalTaskHandler {
+
+    private ExternalTask currentTask;
+
+    @Override
+    public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        Integer amount = externalTask.getVariable("amount");
+        currentTask = externalTask;
+        externalTaskService.complete(externalTask);
+    }
+    
+    @JobWorker(type = "chargeCardAdapter", autoComplete = true)
+    public Map<String, Object> executeJob(ActivatedJob job) throws Exception {
+        Map<String, Object> resultMap = new HashMap<>();
+        return resultMap;
+    }
+}
+"""));
+  }
 }
@@ -0,0 +1,193 @@
+package org.camunda.migration.rewrite.recipes.external.prepare;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.yaml.Assertions.yaml;
+
+import org.camunda.migration.rewrite.recipes.external.MigrateExternalTaskClientSettingsRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+class MigrateExternalTaskClientSettingsTest implements RewriteTest {
+
+  @Override
+  public void defaults(RecipeSpec spec) {
+    spec.recipe(new MigrateExternalTaskClientSettingsRecipe())
+        .parser(CamundaApiStubs.javaParser());
+  }
+
+  @Test
+  void mergeClientSettingsIntoApplicationYamlTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.ExternalTaskClient;
+import org.camunda.bpm.client.backoff.ExponentialBackoffStrategy;
+
+public class WorkerClient {
+
+    private static final long LOCK_DURATION = 60000;
+
+    public ExternalTaskClient client() {
+        return ExternalTaskClient.create()
+                .baseUrl("http://localhost:8080/engine-rest")
+                .maxTasks(32)
+                .lockDuration(LOCK_DURATION)
+                .asyncResponseTimeout(20000)
+                .backoffStrategy(new ExponentialBackoffStrategy(500, 2, 60000))
+                .build();
+    }
+}
+"""),
+        yaml(
+"""
+camunda:
+  client:
+    mode: self-managed
+""",
+"""
+camunda:
+  client:
+    mode: self-managed
+    worker:
+      defaults:
+        max-jobs-active: 32
+        timeout: PT1M
+        request-timeout: PT20S
+        poll-interval: PT0.5S
+""",
+            spec -> spec.path("src/main/resources/application.yaml")));
+  }
+
+  @Test
+  void createApplicationYamlTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.spring.annotation.EnableExternalTaskClient;
+
+@EnableExternalTaskClient(baseUrl = "http://localhost:8080/engine-rest", maxTasks = 8, lockDuration = 10000)
+public class WorkerConfiguration {
+}
+"""),
+        yaml(
+            null,
+"""
+camunda:
+  client:
+    worker:
+      defaults:
+        max-jobs-active: 8
+        timeout: PT10S
+""",
+            spec -> spec.path("src/main/resources/application.yaml")));
+  }
+
+  @Test
+  void addSettingsToApplicationPropertiesTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.spring.annotation.EnableExternalTaskClient;
+
+@EnableExternalTaskClient(baseUrl = "http://localhost:8080/engine-rest", maxTasks = 8, lockDuration = 10000)
+public class WorkerConfiguration {
+}
+"""),
+        properties(
+"""
+camunda.client.mode=self-managed
+""",
+"""
+camunda.client.mode=self-managed
+camunda.client.worker.defaults.max-jobs-active=8
+camunda.client.worker.defaults.timeout=PT10S
+""",
+            spec -> spec.path("src/main/resources/application.properties")));
+  }
+
+  @Test
+  void writeSettingsToModuleOfClientTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.spring.annotation.EnableExternalTaskClient;
+
+@EnableExternalTaskClient(baseUrl = "http://localhost:8080/engine-rest", maxTasks = 4)
+public class WorkerConfiguration {
+}
+""",
+            spec ->
+                spec.path(
+                    "worker/src/main/java/org/camunda/community/migration/example/WorkerConfiguration.java")),
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.ExternalTaskClient;
+
+public class TestClient {
+
+    public ExternalTaskClient client() {
+        return ExternalTaskClient.create().maxTasks(1).build();
+    }
+}
+""",
+            spec ->
+                spec.path(
+                    "worker/src/test/java/org/camunda/community/migration/example/TestClient.java")),
+        yaml(
+"""
+camunda:
+  client:
+    mode: self-managed
+""",
+            spec -> spec.path("worker/src/test/resources/application.yaml")),
+        yaml(
+"""
+camunda:
+  client:
+    mode: self-managed
+""",
+            spec -> spec.path("api/src/main/resources/application.yaml")),
+        yaml(
+            null,
+"""
+camunda:
+  client:
+    worker:
+      defaults:
+        max-jobs-active: 4
+""",
+            spec -> spec.path("worker/src/main/resources/application.yaml")));
+  }
+
+  @Test
+  void skipConflictingSettingsTest() {
+    rewriteRun(
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.client.ExternalTaskClient;
+
+public class WorkerClients {
+
+    public void clients(int maxTasks) {
+        ExternalTaskClient.create().maxTasks(maxTasks).lockDuration(5000).build();
+        ExternalTaskClient.create().lockDuration(15000).build();
+    }
+}
+"""));
+  }
+}
@@ -0,0 +1,84 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.delegate.MigrateExecutionRecipe;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiUsage;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RewriteTest;
+
+class InventoryCamundaApiRecipeTest implements RewriteTest {
+
+  @Test
+  void countsMatchedAndUnmatchedCallSitesTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new InventoryCamundaApiRecipe())
+                .dataTable(
+                    CamundaApiUsage.Row.class,
+                    rows -> {
+                      assertThat(rows)
+                          .allSatisfy(row -> assertThat(row.sourcePath()).endsWith("InventoryTestClass.java"));
+
+                      CamundaApiUsage.Row signal =
+                          rows.stream()
+                              .filter(row -> row.specPattern().contains("signalEventReceived"))
+                              .findFirst()
+                              .orElseThrow();
+                      assertThat(signal.recipe()).isEqualTo(MigrateSignalMethodsRecipe.class.getName());
+                      assertThat(signal.callSites()).isEqualTo(2);
+
+                      CamundaApiUsage.Row bpmnError =
+                          rows.stream()
+                              .filter(row -> row.specPattern().contains("BpmnError <constructor>"))
+                              .findFirst()
+                              .orElseThrow();
+                      assertThat(bpmnError.recipe()).isEqualTo(MigrateExecutionRecipe.class.getName());
+                      assertThat(bpmnError.callSites()).isEqualTo(1);
+
+                      CamundaApiUsage.Row unmatched =
+                          rows.stream()
+                              .filter(row -> row.specPattern().contains("getActivityInstance"))
+                              .findFirst()
+                              .orElseThrow();
+                      assertThat(unmatched.recipe()).isEqualTo(CamundaApiUsage.UNMATCHED);
+                      assertThat(unmatched.specPattern())
+                          .isEqualTo("org.camunda.bpm.engine.RuntimeService getActivityInstance(java.lang.String)");
+                      assertThat(unmatched.callSites()).isEqualTo(1);
+                    }),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+public class PlainTestClass {
+
+    public void plainMethod() {
+        System.out.println("nothing to migrate");
+    }
+}
+"""),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.BpmnError;
+
+public class InventoryTestClass {
+
+    private RuntimeService runtimeService;
+
+    public void signal(String signalName, String processInstanceId) {
+        runtimeService.signalEventReceived(signalName);
+        runtimeService.signalEventReceived(signalName);
+        runtimeService.getActivityInstance(processInstanceId);
+        throw new BpmnError("error");
+    }
+}
+"""));
+  }
+}
@@ -0,0 +1,117 @@
+package org.camunda.migration.rewrite.recipes.sharedRecipes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.camunda.migration.rewrite.recipes.utils.DiffTraceWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.test.SourceSpecs;
+
+class TraceChangesRecipeTest implements RewriteTest {
+
+  private static final SourceSpecs PLAIN_CLASS =
+      // language=java
+      java(
+"""
+package org.camunda.community.migration.example;
+
+public class PlainTestClass {
+
+    public void plainMethod() {
+        System.out.println("nothing to migrate");
+    }
+}
+""");
+
+  private static final SourceSpecs SIGNAL_CLASS =
+      // language=java
+      java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SignalTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void signal(String signalName) {
+        engine.getRuntimeService().signalEventReceived(signalName);
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SignalTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void signal(String signalName) {
+        camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .send()
+                .join();
+    }
+}
+""");
+
+  @Test
+  void traceChangedClassesTest(@TempDir Path directory) throws Exception {
+    Path trace = directory.resolve("trace.diff");
+    rewriteRun(
+        spec ->
+            spec.recipes(
+                new MigrateSignalMethodsRecipe(),
+                new TraceChangesRecipe(trace.toString(), null, null)),
+        PLAIN_CLASS,
+        SIGNAL_CLASS);
+
+    DiffTraceWriter.forFile(trace).flush();
+    String diff = Files.readString(trace);
+    assertThat(diff)
+        .contains("SignalTestClass.java")
+        .contains("-        engine.getRuntimeService().signalEventReceived(signalName);")
+        .contains("+        camundaClient")
+        .doesNotContain("PlainTestClass");
+  }
+
+  @Test
+  void traceOnlyMatchingClassesTest(@TempDir Path directory) throws Exception {
+    Path trace = directory.resolve("trace.diff");
+    rewriteRun(
+        spec ->
+            spec.recipes(
+                new MigrateSignalMethodsRecipe(),
+                new TraceChangesRecipe(trace.toString(), 1, ".*\\.PlainTestClass")),
+        PLAIN_CLASS,
+        SIGNAL_CLASS);
+
+    DiffTraceWriter.forFile(trace).flush();
+    assertThat(trace).doesNotExist();
+  }
+}
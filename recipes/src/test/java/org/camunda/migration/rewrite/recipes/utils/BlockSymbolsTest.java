@@ -0,0 +1,42 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BlockSymbolsTest {
+
+  @Test
+  void nestedBlocksShadowAndRestoreTest() {
+    BlockSymbols symbols = new BlockSymbols();
+    symbols.enterBlock();
+    symbols.declare("variables", "java.util.Map");
+
+    symbols.enterBlock();
+    assertThat(symbols.typeOf("variables")).isEqualTo("java.util.Map");
+    symbols.declare("variables", "java.lang.Object");
+    symbols.declare("count", "java.lang.Integer");
+    assertThat(symbols.typeOf("variables")).isEqualTo("java.lang.Object");
+    symbols.exitBlock();
+
+    assertThat(symbols.typeOf("variables")).isEqualTo("java.util.Map");
+    assertThat(symbols.typeOf("count")).isNull();
+
+    symbols.clear();
+    assertThat(symbols.typeOf("variables")).isNull();
+  }
+
+  @Test
+  void emptyUntilDeclaredTest() {
+    BlockSymbols symbols = new BlockSymbols();
+    symbols.enterBlock();
+    assertThat(symbols.isEmpty()).isTrue();
+
+    symbols.declare("variables", "java.util.Map");
+    assertThat(symbols.isEmpty()).isFalse();
+    assertThat(symbols.javaTypeOf("variables")).isSameAs(symbols.javaTypeOf("variables"));
+
+    symbols.exitBlock();
+    assertThat(symbols.isEmpty()).isTrue();
+  }
+}
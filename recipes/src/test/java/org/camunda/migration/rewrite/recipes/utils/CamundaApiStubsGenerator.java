@@ -0,0 +1,300 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs.Source;
+import org.camunda.migration.rewrite.recipes.utils.CamundaApiStubs.Stub;
+import org.objectweb.asm.*;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+import org.openrewrite.java.JavaParser;
+
+/**
+ * Generates the stub jars of {@link CamundaApiStubs} from the test classpath, which holds the
+ * Camunda dependencies of this module. Run by the {@code api-stubs} profile, it is kept in the test
+ * sources so ASM is not a dependency of the recipes.
+ */
+final class CamundaApiStubsGenerator {
+
+  private static final Pattern EXCLUDED_PACKAGE = Pattern.compile("/(impl|internal)/");
+
+  private CamundaApiStubsGenerator() {}
+
+  /** Writes the stub jars to the directory given as the only argument. */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: CamundaApiStubsGenerator <directory>");
+    }
+    Path directory = Files.createDirectories(Path.of(args[0]));
+    try (Generator generator = new Generator(JavaParser.runtimeClasspath())) {
+      for (Stub stub : CamundaApiStubs.STUBS) {
+        generator.addApi(stub);
+      }
+      for (Stub stub : CamundaApiStubs.STUBS) {
+        generator.addShells(stub);
+      }
+      for (Stub stub : CamundaApiStubs.STUBS) {
+        generator.write(stub, directory);
+      }
+    }
+  }
+
+  /**
+   * Collects the stub classes. The classes of the API packages keep their signatures. Classes they
+   * reference from other packages or dependencies are added as shells, with their supertypes but
+   * without members, so javac can still resolve overloads that mention them.
+   */
+  private static final class Generator implements AutoCloseable {
+
+    // fixed entry times keep the checked-in jars unchanged when nothing else changes
+    private static final FileTime ENTRY_TIME = FileTime.fromMillis(0);
+
+    private final List<JarFile> classpath = new ArrayList<>();
+
+    private final Map<String, JarFile> jarByClass = new HashMap<>();
+
+    private final Map<Stub, SortedMap<String, byte[]>> classesByStub = new HashMap<>();
+
+    private final Map<Stub, String> versionByStub = new HashMap<>();
+
+    private final Set<String> apiClasses = new HashSet<>();
+
+    private Generator(List<Path> classpath) throws IOException {
+      for (Path entry : classpath) {
+        if (entry.getFileName().toString().endsWith(".jar")) {
+          JarFile jar = new JarFile(entry.toFile());
+          this.classpath.add(jar);
+          for (JarEntry classFile : Collections.list(jar.entries())) {
+            if (classFile.getName().endsWith(".class")) {
+              jarByClass.putIfAbsent(className(classFile.getName()), jar);
+            }
+          }
+        }
+      }
+    }
+
+    private void addApi(Stub stub) throws IOException {
+      SortedMap<String, byte[]> classes = new TreeMap<>();
+      for (Source source : stub.sources()) {
+        // the version must follow the artifact id directly, so camunda-engine-dmn is no match
+        Pattern jarName = Pattern.compile(Pattern.quote(source.artifactId()) + "-(\\d.*)\\.jar");
+        JarFile jar = null;
+        for (JarFile candidate : classpath) {
+          Matcher matcher = jarName.matcher(Path.of(candidate.getName()).getFileName().toString());
+          if (matcher.matches()) {
+            jar = candidate;
+            versionByStub.putIfAbsent(stub, matcher.group(1));
+            break;
+          }
+        }
+        if (jar == null) {
+          throw new IllegalStateException(source.artifactId() + " is not on the classpath");
+        }
+        for (JarEntry entry : Collections.list(jar.entries())) {
+          String name = entry.getName();
+          if (name.endsWith(".class")
+              && source.packages().stream().anyMatch(name::startsWith)
+              && !EXCLUDED_PACKAGE.matcher(name).find()
+              && apiClasses.add(className(name))) {
+            try (InputStream classFile = jar.getInputStream(entry)) {
+              classes.put(className(name), api(classFile.readAllBytes()));
+            }
+          }
+        }
+      }
+      classesByStub.put(stub, classes);
+    }
+
+    private void addShells(Stub stub) throws IOException {
+      SortedMap<String, byte[]> classes = classesByStub.get(stub);
+      Deque<String> referenced = new ArrayDeque<>();
+      for (byte[] classFile : List.copyOf(classes.values())) {
+        referenced.addAll(references(classFile));
+      }
+      while (!referenced.isEmpty()) {
+        String name = referenced.pop();
+        JarFile jar = jarByClass.get(name);
+        if (jar == null || isShipped(name)) {
+          // JDK classes are never added, classes missing from the classpath stay unknown
+          continue;
+        }
+        try (InputStream classFile = jar.getInputStream(jar.getEntry(name + ".class"))) {
+          byte[] shell = shell(classFile.readAllBytes());
+          classes.put(name, shell);
+          referenced.addAll(references(shell));
+        }
+      }
+    }
+
+    private boolean isShipped(String className) {
+      return classesByStub.values().stream().anyMatch(classes -> classes.containsKey(className));
+    }
+
+    private void write(Stub stub, Path directory) throws IOException {
+      try (DirectoryStream<Path> previous =
+          Files.newDirectoryStream(directory, stub.name() + "-*.jar")) {
+        for (Path jar : previous) {
+          Files.delete(jar);
+        }
+      }
+      Path jar = directory.resolve(stub.name() + "-" + versionByStub.get(stub) + ".jar");
+      try (OutputStream out = Files.newOutputStream(jar);
+          JarOutputStream stubJar = new JarOutputStream(out)) {
+        for (Map.Entry<String, byte[]> classFile : classesByStub.get(stub).entrySet()) {
+          JarEntry entry = new JarEntry(classFile.getKey() + ".class");
+          entry.setLastModifiedTime(ENTRY_TIME);
+          stubJar.putNextEntry(entry);
+          stubJar.write(classFile.getValue());
+          stubJar.closeEntry();
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (JarFile jar : classpath) {
+        jar.close();
+      }
+    }
+
+    private static String className(String entryName) {
+      return entryName.substring(0, entryName.length() - ".class".length());
+    }
+
+    /**
+     * Drops the method bodies, debug information and private members of a class, none of which
+     * javac needs to attribute against the class.
+     */
+    private static byte[] api(byte[] classFile) {
+      ClassWriter writer = new ClassWriter(0);
+      new ClassReader(classFile)
+          .accept(
+              new ClassVisitor(Opcodes.ASM9, writer) {
+                @Override
+                public FieldVisitor visitField(
+                    int access, String name, String descriptor, String signature, Object value) {
+                  return isHidden(access)
+                      ? null
+                      : super.visitField(access, name, descriptor, signature, value);
+                }
+
+                @Override
+                public MethodVisitor visitMethod(
+                    int access,
+                    String name,
+                    String descriptor,
+                    String signature,
+                    String[] exceptions) {
+                  return isHidden(access)
+                      ? null
+                      : super.visitMethod(access, name, descriptor, signature, exceptions);
+                }
+              },
+              ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      return writer.toByteArray();
+    }
+
+    /** Keeps only the name, supertypes and nesting of a class. */
+    private static byte[] shell(byte[] classFile) {
+      ClassWriter writer = new ClassWriter(0);
+      new ClassReader(classFile)
+          .accept(
+              new ClassVisitor(Opcodes.ASM9, writer) {
+                @Override
+                public FieldVisitor visitField(
+                    int access, String name, String descriptor, String signature, Object value) {
+                  return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(
+                    int access,
+                    String name,
+                    String descriptor,
+                    String signature,
+                    String[] exceptions) {
+                  return null;
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                  return null;
+                }
+              },
+              ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      return writer.toByteArray();
+    }
+
+    /** The classes the signatures of a stub class mention. */
+    private static Set<String> references(byte[] classFile) {
+      Set<String> references = new HashSet<>();
+      SignatureVisitor collector =
+          new SignatureVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitClassType(String name) {
+              references.add(name);
+            }
+          };
+      new ClassReader(classFile)
+          .accept(
+              new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(
+                    int version,
+                    int access,
+                    String name,
+                    String signature,
+                    String superName,
+                    String[] interfaces) {
+                  if (superName != null) {
+                    references.add(superName);
+                  }
+                  references.addAll(Arrays.asList(interfaces));
+                  if (signature != null) {
+                    new SignatureReader(signature).accept(collector);
+                  }
+                }
+
+                @Override
+                public FieldVisitor visitField(
+                    int access, String name, String descriptor, String signature, Object value) {
+                  new SignatureReader(signature != null ? signature : descriptor)
+                      .acceptType(collector);
+                  return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(
+                    int access,
+                    String name,
+                    String descriptor,
+                    String signature,
+                    String[] exceptions) {
+                  new SignatureReader(signature != null ? signature : descriptor)
+                      .accept(collector);
+                  if (exceptions != null) {
+                    references.addAll(Arrays.asList(exceptions));
+                  }
+                  return null;
+                }
+              },
+              ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      return references;
+    }
+
+    private static boolean isHidden(int access) {
+      return (access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_SYNTHETIC)) != 0;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import org.camunda.migration.rewrite.recipes.client.MigrateClientMethodsRecipe;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.test.RewriteTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class DeferredFormattingTest implements RewriteTest {
+
+    @Test
+    void formatReplacementsOncePerFileTest() {
+    InMemoryExecutionContext ctx = new InMemoryExecutionContext();
+    ctx.putMessage(DeferredFormatting.ENABLED, true);
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateClientMethodsRecipe())
+                .executionContext(ctx)
+                .dataTable(
+                    MigrationMetrics.Row.class,
+                    rows -> {
+                      assertThat(rows)
+                          .anyMatch(row -> row.specPattern().equals(MigrationMetrics.DEFERRED_FORMAT));
+                      assertThat(rows)
+                          .filteredOn(row -> row.templateApplications() > 0)
+                          .allMatch(row -> row.autoFormatNanos() == 0);
+                    }),
+        // language=java
+        java(
+            """
+                                package org.camunda.community.migration.example;
+
+                                import org.camunda.bpm.engine.ProcessEngine;
+                                import io.camunda.client.CamundaClient;
+                                import org.springframework.beans.factory.annotation.Autowired;
+                                import org.springframework.stereotype.Component;
+
+                                import java.util.Map;
+
+                                @Component
+                                public class ClientMethodsTestClass {
+
+                                    @Autowired
+                                    private ProcessEngine engine;
+
+                                    @Autowired
+                                    private CamundaClient camundaClient;
+
+                                    public void clientMethods(String signalName, String processInstanceId, String deleteReason, Map<String, Object> variableMap) {
+                                        engine.getRuntimeService().signalEventReceived(signalName);
+
+                                        engine.getRuntimeService().createSignalEvent(signalName)
+                                                .setVariables(variableMap)
+                                                .send();
+
+                                        engine.getRuntimeService().deleteProcessInstance(processInstanceId, deleteReason);
+                                    }
+                                }
+                                """,
+            """
+                                package org.camunda.community.migration.example;
+
+                                import org.camunda.bpm.engine.ProcessEngine;
+                                import io.camunda.client.CamundaClient;
+                                import org.springframework.beans.factory.annotation.Autowired;
+                                import org.springframework.stereotype.Component;
+
+                                import java.util.Map;
+
+                                @Component
+                                public class ClientMethodsTestClass {
+
+                                    @Autowired
+                                    private ProcessEngine engine;
+
+                                    @Autowired
+                                    private CamundaClient camundaClient;
+
+                                    public void clientMethods(String signalName, String processInstanceId, String deleteReason, Map<String, Object> variableMap) {
+                                        camundaClient
+                                                .newBroadcastSignalCommand()
+                                                .signalName(signalName)
+                                                .send()
+                                                .join();
+
+                                        camundaClient
+                                                .newBroadcastSignalCommand()
+                                                .signalName(signalName)
+                                                .variables(variableMap)
+                                                .send()
+                                                .join();
+
+                                        // delete reason was removed
+                                        camundaClient
+                                                .newCancelInstanceCommand(Long.valueOf(processInstanceId))
+                                                .send()
+                                                .join();
+                                    }
+                                }
+                                """));
+  }
+}
@@ -0,0 +1,118 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+import org.camunda.migration.rewrite.recipes.client.MigrateSignalMethodsRecipe;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RewriteTest;
+
+class MigrationMetricsTest implements RewriteTest {
+
+  @Test
+  void sumsMatcherHitsAndSkippedFilesPerPatternTest() {
+    rewriteRun(
+        spec ->
+            spec.recipe(new MigrateSignalMethodsRecipe())
+                .dataTable(
+                    MigrationMetrics.Row.class,
+                    rows -> {
+                      assertThat(rows)
+                          .extracting(row -> row.recipe() + " " + row.specPattern())
+                          .doesNotHaveDuplicates();
+
+                      MigrationMetrics.Row skipped =
+                          rows.stream()
+                              .filter(row -> row.specPattern().equals(MigrationMetrics.PRECONDITIONS))
+                              .findFirst()
+                              .orElseThrow();
+                      assertThat(skipped.filesSkipped()).isEqualTo(2);
+
+                      MigrationMetrics.Row signal =
+                          rows.stream()
+                              .filter(row -> row.matcherHits() > 0)
+                              .findFirst()
+                              .orElseThrow();
+                      assertThat(signal.recipe()).isEqualTo(MigrateSignalMethodsRecipe.class.getName());
+                      assertThat(signal.specPattern()).contains("signalEventReceived");
+                      assertThat(signal.nodesVisited()).isGreaterThanOrEqualTo(signal.matcherHits());
+                      assertThat(signal.templateApplications()).isEqualTo(1);
+                      assertThat(signal.templateNanos()).isPositive();
+                      assertThat(signal.filesSkipped()).isZero();
+                    }),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+public class PlainTestClass {
+
+    public void plainMethod() {
+        System.out.println("nothing to migrate");
+    }
+}
+"""),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+public class OtherPlainTestClass {
+
+    public void otherPlainMethod() {
+        System.out.println("nothing to migrate either");
+    }
+}
+"""),
+        // language=java
+        java(
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SignalTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void signal(String signalName) {
+        engine.getRuntimeService().signalEventReceived(signalName);
+    }
+}
+""",
+"""
+package org.camunda.community.migration.example;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import io.camunda.client.CamundaClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SignalTestClass {
+
+    @Autowired
+    private ProcessEngine engine;
+
+    @Autowired
+    private CamundaClient camundaClient;
+
+    public void signal(String signalName) {
+        camundaClient
+                .newBroadcastSignalCommand()
+                .signalName(signalName)
+                .send()
+                .join();
+    }
+}
+"""));
+  }
+}
@@ -0,0 +1,41 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SpecMethodMatcherTest {
+
+  @Test
+  void declaredNameAndArityTest() {
+    SpecMethodMatcher matcher =
+        new SpecMethodMatcher(
+            "org.camunda.bpm.engine.RuntimeService signalEventReceived(java.lang.String, java.util.Map)");
+    assertThat(matcher.methodName()).isEqualTo("signalEventReceived");
+    assertThat(matcher.arity()).isEqualTo(2);
+
+    SpecMethodMatcher constructor =
+        new SpecMethodMatcher("org.camunda.bpm.engine.ProcessEngineException <constructor>()");
+    assertThat(constructor.methodName()).isEqualTo("<constructor>");
+    assertThat(constructor.arity()).isZero();
+
+    SpecMethodMatcher hashSeparated =
+        new SpecMethodMatcher("org.camunda.bpm.engine.TaskService#complete(java.lang.String)");
+    assertThat(hashSeparated.methodName()).isEqualTo("complete");
+    assertThat(hashSeparated.arity()).isEqualTo(1);
+  }
+
+  @Test
+  void wildcardsMatchAnyNameOrArityTest() {
+    assertThat(new SpecMethodMatcher("org.camunda.bpm.engine.TaskService get*(..)").methodName())
+        .isNull();
+    assertThat(new SpecMethodMatcher("org.camunda.bpm.engine.TaskService complete(..)").arity())
+        .isEqualTo(SpecMethodMatcher.ANY_ARITY);
+    assertThat(
+            new SpecMethodMatcher("org.camunda.bpm.engine.TaskService complete(String, Object[])")
+                .arity())
+        .isEqualTo(SpecMethodMatcher.ANY_ARITY);
+    assertThat(new SpecMethodMatcher("org.camunda.bpm.engine.TaskService complete(*, *)").arity())
+        .isEqualTo(2);
+  }
+}
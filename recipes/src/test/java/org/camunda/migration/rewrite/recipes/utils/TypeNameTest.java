@@ -0,0 +1,28 @@
+package org.camunda.migration.rewrite.recipes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TypeNameTest {
+
+  @Test
+  void splitsGenericNamesOnceTest() {
+    TypeName userTasks = TypeName.of("List<io.camunda.client.api.search.response.UserTask>");
+
+    assertThat(userTasks.rawType()).isEqualTo("List");
+    assertThat(userTasks.shortName()).isEqualTo("List<UserTask>");
+    assertThat(userTasks.argumentsShortName()).isEqualTo("UserTask");
+    assertThat(userTasks.argumentsLongName())
+        .isEqualTo("io.camunda.client.api.search.response.UserTask");
+    assertThat(userTasks.imports())
+        .containsExactly("io.camunda.client.api.search.response.UserTask");
+    assertThat(TypeName.of("List<io.camunda.client.api.search.response.UserTask>"))
+        .isSameAs(userTasks);
+
+    TypeName client = TypeName.of("io.camunda.client.CamundaClient");
+    assertThat(client.shortName()).isEqualTo("CamundaClient");
+    assertThat(client.typeArguments()).isEmpty();
+    assertThat(client.imports()).containsExactly("io.camunda.client.CamundaClient");
+  }
+}